@@ -27,6 +27,7 @@ package co.comdor;
 
 import java.io.IOException;
 
+import co.comdor.github.CircuitOpenException;
 import co.comdor.github.Command;
 
 /**
@@ -73,6 +74,9 @@ public final class Careful implements Step {
             );
             log.logger().info("Author login: " + command.author());
             this.steps.perform(command, log);
+        } catch (final CircuitOpenException ex) {
+            log.logger().warn("Github is unavailable, no failure reply.");
+            throw ex;
         } catch (final IOException | RuntimeException ex) {
             log.logger().error(
                 "Some step did not execute properly, sending failure reply.",
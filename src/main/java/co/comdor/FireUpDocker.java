@@ -32,6 +32,7 @@ import com.amihaiemil.docker.LocalDocker;
 import org.apache.commons.io.IOUtils;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 
 /**
  * Step where a Docker container is fired up, scripts are executed and then 
@@ -46,33 +47,46 @@ public final class FireUpDocker extends PreconditionCheckStep {
      * Docker host where containers will run.
      */
     private Docker host;
+
+    /**
+     * Containers which are running now.
+     */
+    private LiveContainers live;
     
     /**
      * Ctor. Docker host will run based on the environment variables.
      * @param onTrue Step to perform if Docker's exit code is 0.
      * @param onFalse Step to perform if Docker's exit code is not 0.
+     * @param live Containers which are running now.
      */
-    public FireUpDocker(final Step onTrue, final Step onFalse) {
+    public FireUpDocker(
+        final Step onTrue, final Step onFalse, final LiveContainers live
+    ) {
         this(
             new LocalDocker(
                 new File("/var/run/docker.sock")
             ),
             onTrue,
-            onFalse
+            onFalse,
+            live
         );
     }
 
     /**
      * Ctor. Docker host will run remotely at the specified coordinates.
+     * @param host Docker host where the containers will run.
      * @param onTrue Step to perform if Docker's exit code is 0.
      * @param onFalse Step to perform if Docker's exit code is not 0.
-     * @param host Docker host where the containers will run.
+     * @param live Containers which are running now.
+     * @checkstyle ParameterNumber (5 lines)
      */
     public FireUpDocker(
-        final Docker host, final Step onTrue, final Step onFalse
+        final Docker host, final Step onTrue, final Step onFalse,
+        final LiveContainers live
     ) {
         super(onTrue, onFalse);
         this.host = host;
+        this.live = live;
     }
     
     @Override
@@ -83,7 +97,9 @@ public final class FireUpDocker extends PreconditionCheckStep {
         final Container container = this.host.containers()
             .create(command.comdorYaml().docker());
         final String id = container.containerId();
+        boolean stopped = false;
         try {
+            this.live.add(container);
             log.logger().info("Starting container with id " + id);
             log.logger().info("Executing scripts: " + scripts);
             container.start();
@@ -91,9 +107,33 @@ public final class FireUpDocker extends PreconditionCheckStep {
             log.logger().info(IOUtils.toString(container.logs().follow()));
             log.logger().info("----------End Container Logs----------");
         } finally {
-            log.logger().info("Killing container " + id);
-            container.kill();
+            if(this.live.remove(container)) {
+                log.logger().info("Killing container " + id);
+                container.kill();
+            } else {
+                stopped = true;
+            }
         }
+        if(stopped) {
+            throw new InterruptedIOException(
+                "Container " + id + " was killed, comdor is stopping."
+            );
+        }
+        this.exited(container, command, log);
+    }
+
+    /**
+     * The container exited: perform the next Step, depending on its
+     * exit code.
+     * @param container Container.
+     * @param command Command.
+     * @param log Log.
+     * @throws IOException If something goes wrong.
+     */
+    private void exited(
+        final Container container, final Command command, final Log log
+    ) throws IOException {
+        final String id = container.containerId();
         final int exitCode = container.inspect()
             .getJsonObject("State")
             .getInt("ExitCode");
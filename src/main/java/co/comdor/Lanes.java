@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor;
+
+import java.io.IOException;
+
+/**
+ * Lanes in which the Actions are performed. Most of the Actions are fast
+ * (e.g. a reply to "hello" takes a couple of calls to Github), but some
+ * are slow (e.g. running a script in Docker). Once an Action knows it is
+ * slow, it moves to the slow lane, so it doesn't hold back the fast ones.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public interface Lanes {
+
+    /**
+     * The current Action is slow: it leaves the fast lane, waiting until
+     * there is room in the slow lane. If too many Actions are already
+     * waiting for the slow lane, it stays in the fast lane. Call it from
+     * the thread performing the Action, at most once per Action.
+     * @throws IOException If it is interrupted while waiting.
+     */
+    void slow() throws IOException;
+
+    /**
+     * A single lane: slow Actions stay where they are.
+     */
+    final class Single implements Lanes {
+
+        @Override
+        public void slow() {
+            //everything is performed in the same lane.
+        }
+    }
+}
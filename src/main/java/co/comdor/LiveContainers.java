@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amihaiemil.docker.Container;
+
+/**
+ * Docker containers which are running now. Normally, each of them is killed
+ * by the Step which started it, but, if comdor is stopped while they are
+ * running, they are killed and removed here, so they are not left behind.
+ * Whoever unregisters a container first kills it, so it is never killed
+ * twice. Containers are kept by identity, since their id may not be known
+ * (yet).
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class LiveContainers {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        LiveContainers.class.getName()
+    );
+
+    /**
+     * The running containers.
+     */
+    private final Set<Container> containers;
+
+    /**
+     * Ctor.
+     */
+    public LiveContainers() {
+        this.containers = Collections.newSetFromMap(
+            Collections.synchronizedMap(new IdentityHashMap<>())
+        );
+    }
+
+    /**
+     * A container was started.
+     * @param container Container.
+     */
+    public void add(final Container container) {
+        this.containers.add(container);
+    }
+
+    /**
+     * Unregister a container, because it is about to be killed.
+     * @param container Container.
+     * @return True if it was still registered, false if it was already
+     *  killed (e.g. by {@link #killAll()}).
+     */
+    public boolean remove(final Container container) {
+        return this.containers.remove(container);
+    }
+
+    /**
+     * Kill and remove all the running containers.
+     * @return How many were killed.
+     */
+    public int killAll() {
+        final List<Container> running;
+        synchronized (this.containers) {
+            running = new ArrayList<>(this.containers);
+        }
+        int killed = 0;
+        for(final Container container : running) {
+            if(this.remove(container)) {
+                final String id = container.containerId();
+                try {
+                    container.kill();
+                    killed = killed + 1;
+                } catch (final IOException ex) {
+                    LOG.warn("Could not kill container " + id, ex);
+                }
+                try {
+                    container.remove();
+                } catch (final IOException ex) {
+                    LOG.warn("Could not remove container " + id, ex);
+                }
+            }
+        }
+        return killed;
+    }
+}
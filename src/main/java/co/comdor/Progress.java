@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor;
+
+import java.util.UUID;
+
+/**
+ * Progress of an Action, through its stages: it is queued, then it
+ * resolves the mention, then it executes the steps and, finally, it is
+ * done or it failed.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public interface Progress {
+
+    /**
+     * The Action's id.
+     * @return String.
+     */
+    String actionId();
+
+    /**
+     * The Action is looking for the mention which triggered it.
+     */
+    void resolving();
+
+    /**
+     * The Action is executing its steps.
+     */
+    void executing();
+
+    /**
+     * The Action is done.
+     */
+    void done();
+
+    /**
+     * The Action failed.
+     * @param reason Why did it fail?
+     */
+    void failed(String reason);
+
+    /**
+     * Progress which is not reported anywhere.
+     */
+    final class Silent implements Progress {
+
+        /**
+         * The Action's id.
+         */
+        private final String id;
+
+        /**
+         * Ctor.
+         */
+        public Silent() {
+            this.id = UUID.randomUUID().toString();
+        }
+
+        @Override
+        public String actionId() {
+            return this.id;
+        }
+
+        @Override
+        public void resolving() {
+            //not reported.
+        }
+
+        @Override
+        public void executing() {
+            //not reported.
+        }
+
+        @Override
+        public void done() {
+            //not reported.
+        }
+
+        @Override
+        public void failed(final String reason) {
+            //not reported.
+        }
+    }
+}
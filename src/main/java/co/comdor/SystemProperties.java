@@ -66,6 +66,98 @@ public interface SystemProperties {
         }
     }
 
+    /**
+     * Consecutive failed (or slow) Github calls which open the circuit.
+     */
+    final class GithubCircuitFailures implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.circuit.failures", "5");
+        }
+    }
+
+    /**
+     * Seconds after which a Github call is too slow and counts as failed.
+     */
+    final class GithubCircuitSlow implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.circuit.slow", "10");
+        }
+    }
+
+    /**
+     * Seconds the circuit stays open, before Github is probed again.
+     */
+    final class GithubCircuitCooldown implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.circuit.cooldown", "30");
+        }
+    }
+
+    /**
+     * Maximum attempts of a failed Github call.
+     */
+    final class GithubRetryAttempts implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.retry.attempts", "3");
+        }
+    }
+
+    /**
+     * Milliseconds before the first retry of a Github call, doubled
+     * (and jittered) for every next one.
+     */
+    final class GithubRetryBase implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.retry.base", "200");
+        }
+    }
+
+    /**
+     * Maximum milliseconds between two attempts of a Github call.
+     */
+    final class GithubRetryCap implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.retry.cap", "5000");
+        }
+    }
+
+    /**
+     * Seconds a Github call may take, with all its attempts.
+     */
+    final class GithubRetryBudget implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.retry.budget", "30");
+        }
+    }
+
+    /**
+     * More Github API tokens, comma-separated. A token can be given to
+     * an owner (user or organisation), as owner=token; the ones without
+     * an owner are shared by the other owners, together with
+     * comdor.api.token.
+     */
+    final class GithubApiTokens implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.api.tokens", "");
+        }
+    }
+
     /**
      * The Docker host to which comdor connects to run containers.
      */
@@ -87,4 +179,372 @@ public interface SystemProperties {
             return System.getProperty("comdor.docker.certs", "");
         }
     }
+
+    /**
+     * Number of workers which perform Actions in parallel.
+     */
+    final class ActionsWorkers implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.actions.workers", "8");
+        }
+    }
+
+    /**
+     * How many Actions may wait for a free worker. Notifications coming
+     * when the queue is full are rejected.
+     */
+    final class ActionsQueue implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.actions.queue", "100");
+        }
+    }
+
+    /**
+     * How many slow Actions (e.g. running scripts in Docker) can run
+     * at the same time.
+     */
+    final class ActionsSlowWorkers implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.actions.slow", "2");
+        }
+    }
+
+    /**
+     * How many Actions of the same repository can run at the same time.
+     */
+    final class ActionsPerRepo implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.actions.perrepo", "2");
+        }
+    }
+
+    /**
+     * Weights of the repositories when their Actions are scheduled, e.g.
+     * "amihaiemil/comdor=3,amihaiemil/camel=2". The default weight is 1.
+     */
+    final class ActionsWeights implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.actions.weights", "");
+        }
+    }
+
+    /**
+     * Milliseconds to wait for more notifications about the same Issue,
+     * before taking the Action (they are merged into one).
+     */
+    final class ActionsDebounce implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.actions.debounce", "2000");
+        }
+    }
+
+    /**
+     * Maximum number of open (keep-alive) connections to the Github API.
+     */
+    final class GithubConnections implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.connections", "20");
+        }
+    }
+
+    /**
+     * Seconds after which an idle connection to the Github API is closed.
+     */
+    final class GithubIdleTimeout implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.idle", "60");
+        }
+    }
+
+    /**
+     * Seconds after which a mention from a webhook payload is stale and
+     * has to be checked against the newer comments in the Issue.
+     */
+    final class MentionFreshness implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.mention.fresh", "60");
+        }
+    }
+
+    /**
+     * Github login of the bot (e.g. comdor). Webhook events which don't
+     * mention it are dropped without touching the Github API.
+     */
+    final class GithubLogin implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.login", "");
+        }
+    }
+
+    /**
+     * Maximum number of remembered webhook deliveries and comments, used
+     * to avoid handling the same notification twice.
+     */
+    final class DuplicatesCapacity implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.duplicates.capacity", "10000");
+        }
+    }
+
+    /**
+     * Seconds for which a webhook delivery or a comment is remembered.
+     */
+    final class DuplicatesTtl implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.duplicates.ttl", "86400");
+        }
+    }
+
+    /**
+     * File where the remembered webhook deliveries and comments are kept,
+     * so they survive a restart. Empty means they are kept only in memory.
+     */
+    final class DuplicatesFile implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.duplicates.file", "");
+        }
+    }
+
+    /**
+     * How many Actions' statuses are remembered.
+     */
+    final class ActionsHistory implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.actions.history", "1000");
+        }
+    }
+
+    /**
+     * Seconds to wait for the running Actions, when comdor is stopped.
+     */
+    final class ShutdownDeadline implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.shutdown.deadline", "30");
+        }
+    }
+
+    /**
+     * Seconds for which the bot's login and the repositories' metadata
+     * are remembered.
+     */
+    final class MetadataTtl implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.metadata.ttl", "3600");
+        }
+    }
+
+    /**
+     * Seconds for which a repository's .comdor.yml is remembered, unless
+     * a push event comes first.
+     */
+    final class ComdorYmlTtl implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.yml.ttl", "600");
+        }
+    }
+
+    /**
+     * How many courtesies (star the repository, follow the user) can wait
+     * for the background thread.
+     */
+    final class CourtesiesQueue implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.courtesies.queue", "1000");
+        }
+    }
+
+    /**
+     * How many starred repositories and followed users are remembered.
+     */
+    final class CourtesiesCapacity implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.courtesies.capacity", "10000");
+        }
+    }
+
+    /**
+     * Seconds for which a starred repository or a followed user is
+     * remembered; after that, the courtesy is done again (30 days).
+     */
+    final class CourtesiesTtl implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.courtesies.ttl", "2592000");
+        }
+    }
+
+    /**
+     * How many metadata values (bot's login, repositories) are remembered.
+     */
+    final class MetadataCapacity implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.metadata.capacity", "1000");
+        }
+    }
+
+    /**
+     * Bytes of Github responses kept in memory, for conditional requests.
+     */
+    final class GithubCache implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.cache", "16777216");
+        }
+    }
+
+    /**
+     * Should the Github responses evicted from memory be kept on disk,
+     * under LOG_ROOT? True or false.
+     */
+    final class GithubCacheDisk implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.cache.disk", "false");
+        }
+    }
+
+    /**
+     * Seconds after which the Github responses kept on disk are deleted.
+     */
+    final class GithubCacheAge implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.cache.age", "604800");
+        }
+    }
+
+    /**
+     * Bytes of Github responses kept on disk, at most (256 MB).
+     */
+    final class GithubCacheLimit implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty(
+                "comdor.github.cache.limit", "268435456"
+            );
+        }
+    }
+
+    /**
+     * Github requests kept in reserve: when fewer are left, no more Actions
+     * are started until the rate limit is reset.
+     */
+    final class GithubReserve implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.github.reserve", "50");
+        }
+    }
+
+    /**
+     * After how many lines is the journal of notifications compacted.
+     */
+    final class JournalCompaction implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.journal.compaction", "1000");
+        }
+    }
+
+    /**
+     * Capacity (burst) of the global admission bucket.
+     */
+    final class AdmissionCapacity implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.admission.capacity", "100");
+        }
+    }
+
+    /**
+     * Notifications admitted per second, globally.
+     */
+    final class AdmissionRate implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.admission.rate", "10");
+        }
+    }
+
+    /**
+     * Capacity (burst) of each repository's admission bucket.
+     */
+    final class AdmissionRepoCapacity implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.admission.repo.capacity", "20");
+        }
+    }
+
+    /**
+     * Notifications admitted per second, for each repository.
+     */
+    final class AdmissionRepoRate implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.admission.repo.rate", "1");
+        }
+    }
+
+    /**
+     * How many repositories' admission buckets are remembered.
+     */
+    final class AdmissionRepos implements SystemProperties {
+
+        @Override
+        public String toString() {
+            return System.getProperty("comdor.admission.repos", "1000");
+        }
+    }
 }
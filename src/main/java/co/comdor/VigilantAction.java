@@ -25,15 +25,21 @@
  */
 package co.comdor;
 
+import co.comdor.github.CircuitOpenException;
 import com.jcabi.github.Coordinates;
 import com.jcabi.github.Github;
 import com.jcabi.github.Issue;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.RejectedExecutionException;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
 /**
  * Action which catches exceptions and reports a Github Issue in comdor's
- * repository.
+ * repository. If Github itself is unavailable (its circuit is open), the
+ * exception is rethrown instead, so the Action can be resumed later. The
+ * same goes for an Action rejected because comdor is too busy or
+ * interrupted because comdor is stopping: it's not a bug to report.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.3
@@ -66,6 +72,9 @@ public final class VigilantAction implements Action {
         try {
             this.original.perform();
         } catch (final IOException | RuntimeException ex) {
+            if(VigilantAction.expected(ex)) {
+                throw ex;
+            }
             final Issue created = this.github.repos()
                 .get(new Coordinates.Simple("amihaiemil/comdor"))
                 .issues()
@@ -90,4 +99,36 @@ public final class VigilantAction implements Action {
     public Log log() {
         return this.original.log();
     }
+
+    /**
+     * Is this failure expected, not a bug? E.g. Github is unavailable,
+     * comdor is too busy or it is stopping (the Action was interrupted).
+     * @param failure Failure.
+     * @return True if it should not be reported.
+     */
+    private static boolean expected(final Exception failure) {
+        return ExceptionUtils.indexOfType(
+            failure, CircuitOpenException.class
+        ) >= 0
+            || failure instanceof RejectedExecutionException
+            || VigilantAction.interrupted(failure);
+    }
+
+    /**
+     * Was the Action interrupted? A timeout is also an
+     * InterruptedIOException, but not an interruption, so only the
+     * exact class counts.
+     * @param failure Failure.
+     * @return True if the thread is interrupted or the failure was caused
+     *  by an interruption.
+     */
+    private static boolean interrupted(final Exception failure) {
+        boolean interrupted = Thread.currentThread().isInterrupted();
+        for(final Throwable cause : ExceptionUtils.getThrowableList(failure)) {
+            interrupted = interrupted
+                || cause instanceof InterruptedException
+                || cause.getClass().equals(InterruptedIOException.class);
+        }
+        return interrupted;
+    }
 }
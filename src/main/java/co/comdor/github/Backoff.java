@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How the Github calls are retried: how many attempts, how long to wait
+ * between them (exponential backoff, with full jitter, so the Actions
+ * which failed together don't retry together) and how long a call may
+ * take overall, with all its attempts.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class Backoff {
+
+    /**
+     * Default number of attempts.
+     */
+    private static final int ATTEMPTS = 3;
+
+    /**
+     * Default base delay.
+     */
+    private static final Duration BASE = Duration.ofMillis(200);
+
+    /**
+     * Default maximum delay.
+     */
+    private static final Duration CAP = Duration.ofSeconds(5);
+
+    /**
+     * Default budget of a call.
+     */
+    private static final Duration BUDGET = Duration.ofSeconds(30);
+
+    /**
+     * Maximum number of attempts of a call.
+     */
+    private final int attempts;
+
+    /**
+     * Delay before the first retry, doubled for every next one, in millis.
+     */
+    private final long base;
+
+    /**
+     * Maximum delay between two attempts, in millis.
+     */
+    private final long cap;
+
+    /**
+     * How long a call may take, with all its attempts, in millis.
+     */
+    private final long budget;
+
+    /**
+     * Ctor.
+     */
+    public Backoff() {
+        this(Backoff.ATTEMPTS, Backoff.BASE, Backoff.CAP, Backoff.BUDGET);
+    }
+
+    /**
+     * Ctor.
+     * @param attempts Maximum number of attempts of a call.
+     * @param base Delay before the first retry, doubled for every next one.
+     * @param cap Maximum delay between two attempts.
+     * @param budget How long a call may take, with all its attempts.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    public Backoff(
+        final int attempts, final Duration base, final Duration cap,
+        final Duration budget
+    ) {
+        this.attempts = attempts;
+        this.base = base.toMillis();
+        this.cap = cap.toMillis();
+        this.budget = budget.toMillis();
+    }
+
+    /**
+     * How long a call may take, with all its attempts.
+     * @return Millis.
+     */
+    public long budget() {
+        return this.budget;
+    }
+
+    /**
+     * How long to wait before retrying.
+     * @param attempt How many attempts were made so far (at least 1).
+     * @param left Millis left from the call's budget.
+     * @return Millis to wait or -1 if the call should not be retried
+     *  (no attempts left or the wait would exceed the budget).
+     */
+    public long delay(final int attempt, final long left) {
+        return this.delay(attempt, left, 0);
+    }
+
+    /**
+     * How long to wait before retrying, at least as long as the server
+     * asked (e.g. with Retry-After).
+     * @param attempt How many attempts were made so far (at least 1).
+     * @param left Millis left from the call's budget.
+     * @param minimum Minimum millis to wait.
+     * @return Millis to wait or -1 if the call should not be retried
+     *  (no attempts left or the wait would exceed the budget).
+     */
+    public long delay(final int attempt, final long left, final long minimum) {
+        long delay = -1;
+        if(attempt < this.attempts) {
+            final long ceiling = Math.min(
+                this.cap, this.base << Math.min(attempt - 1, Long.SIZE - 2)
+            );
+            final long jittered = Math.max(
+                minimum,
+                ThreadLocalRandom.current().nextLong(Math.max(ceiling, 1) + 1)
+            );
+            if(jittered < left) {
+                delay = jittered;
+            }
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+
+/**
+ * Wire which retries the failed Github calls, following a {@link Backoff}.
+ * Only the idempotent requests (GET, HEAD, OPTIONS, PUT, DELETE) are
+ * retried on IO errors and on 500, 502, 503 and 504 responses. A POST or
+ * a PATCH (e.g. a reply) may have been applied even if it failed, so it
+ * is retried only if the connection could not even be opened; this way,
+ * replies are never posted twice. A 429 or 403 with Retry-After means
+ * Github rejected the request without applying it, so any request is
+ * retried then, waiting at least as long as Github asked. A request
+ * interrupted (comdor is shutting down) or stopped by the open circuit
+ * (see {@link CircuitWire}) is not retried either. Each attempt's
+ * timeouts are cut to
+ * what is left of the call's budget, so a slow call cannot hold an
+ * Action forever.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle ParameterNumber (250 lines)
+ */
+public final class BackoffWire implements Wire {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        BackoffWire.class.getName()
+    );
+
+    /**
+     * Idempotent methods.
+     */
+    private static final List<String> IDEMPOTENT = Arrays.asList(
+        "GET", "HEAD", "OPTIONS", "PUT", "DELETE"
+    );
+
+    /**
+     * Too Many Requests status.
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Milliseconds in a second.
+     */
+    private static final long MILLIS = 1000L;
+
+    /**
+     * Statuses which are worth retrying, for idempotent requests.
+     */
+    private static final List<Integer> RETRIED = Arrays.asList(
+        HttpURLConnection.HTTP_INTERNAL_ERROR,
+        HttpURLConnection.HTTP_BAD_GATEWAY,
+        HttpURLConnection.HTTP_UNAVAILABLE,
+        HttpURLConnection.HTTP_GATEWAY_TIMEOUT
+    );
+
+    /**
+     * Original wire.
+     */
+    private final Wire origin;
+
+    /**
+     * Retry policy.
+     */
+    private final Backoff backoff;
+
+    /**
+     * Ctor.
+     * @param origin Original wire.
+     * @param backoff Retry policy.
+     */
+    public BackoffWire(final Wire origin, final Backoff backoff) {
+        this.origin = origin;
+        this.backoff = backoff;
+    }
+
+    @Override
+    public Response send(
+        final Request req, final String home, final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read
+    ) throws IOException {
+        final byte[] body = IOUtils.toByteArray(content);
+        final boolean idempotent = BackoffWire.IDEMPOTENT.contains(
+            method.toUpperCase(Locale.ENGLISH)
+        );
+        final long deadline = System.currentTimeMillis()
+            + this.backoff.budget();
+        Response response = null;
+        int attempt = 0;
+        while(response == null) {
+            attempt = attempt + 1;
+            final long left = deadline - System.currentTimeMillis();
+            try {
+                final Response current = this.origin.send(
+                    req, home, method, headers, new ByteArrayInputStream(body),
+                    BackoffWire.bounded(connect, left),
+                    BackoffWire.bounded(read, left)
+                );
+                final long after = BackoffWire.retryAfter(current);
+                if(!BackoffWire.retried(current, idempotent, after)
+                    || !this.pause(attempt, deadline, method, home, after)) {
+                    response = current;
+                }
+            } catch (final IOException ex) {
+                if(!BackoffWire.retried(ex, idempotent)
+                    || !this.pause(attempt, deadline, method, home, 0)) {
+                    throw ex;
+                }
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Wait before the next attempt, if there should be one.
+     * @param attempt Attempts made so far.
+     * @param deadline Moment when the call's budget is spent.
+     * @param method HTTP method.
+     * @param home URI.
+     * @param minimum Minimum millis to wait (asked by Github).
+     * @return True if there should be another attempt.
+     * @throws IOException If interrupted while waiting.
+     */
+    private boolean pause(
+        final int attempt, final long deadline,
+        final String method, final String home, final long minimum
+    ) throws IOException {
+        final long delay = this.backoff.delay(
+            attempt, deadline - System.currentTimeMillis(), minimum
+        );
+        if(delay >= 0) {
+            LOG.info(
+                "Attempt " + attempt + " of " + method + " " + home
+                + " failed, retrying in " + delay + "ms"
+            );
+            try {
+                Thread.sleep(delay);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(
+                    "Interrupted while retrying " + method + " " + home
+                );
+            }
+        }
+        return delay >= 0;
+    }
+
+    /**
+     * Is the request worth retrying, after this response?
+     * @param response Response.
+     * @param idempotent Is the request idempotent?
+     * @param after Millis Github asked us to wait, -1 if it didn't.
+     * @return True or false.
+     */
+    private static boolean retried(
+        final Response response, final boolean idempotent, final long after
+    ) {
+        return after >= 0
+            || idempotent && BackoffWire.RETRIED.contains(response.status());
+    }
+
+    /**
+     * Is the failed request worth retrying? Timeouts are, but not if
+     * the thread was interrupted.
+     * @param error Why it failed.
+     * @param idempotent Is the request idempotent?
+     * @return True or false.
+     */
+    private static boolean retried(
+        final IOException error, final boolean idempotent
+    ) {
+        final boolean interrupted = Thread.currentThread().isInterrupted()
+            || InterruptedIOException.class.equals(error.getClass());
+        return (idempotent || error instanceof ConnectException)
+            && !interrupted && !(error instanceof CircuitOpenException);
+    }
+
+    /**
+     * How long Github asked us to wait (Retry-After of a 403 or 429).
+     * @param response Response.
+     * @return Millis or -1 if Github didn't ask.
+     */
+    private static long retryAfter(final Response response) {
+        long after = -1;
+        if(response.status() == HttpURLConnection.HTTP_FORBIDDEN
+            || response.status() == BackoffWire.TOO_MANY_REQUESTS) {
+            for(final Map.Entry<String, List<String>> header
+                : response.headers().entrySet()) {
+                if("Retry-After".equalsIgnoreCase(header.getKey())
+                    && !header.getValue().isEmpty()
+                    && header.getValue().get(0).trim().matches("\\d+")) {
+                    after = Long.parseLong(header.getValue().get(0).trim())
+                        * BackoffWire.MILLIS;
+                }
+            }
+        }
+        return after;
+    }
+
+    /**
+     * A timeout, cut to what is left of the budget.
+     * @param timeout Timeout in millis, 0 or less meaning no timeout.
+     * @param left Millis left from the budget.
+     * @return Millis, at least 1.
+     */
+    private static int bounded(final int timeout, final long left) {
+        long bounded = Math.max(left, 1);
+        if(timeout > 0) {
+            bounded = Math.min(timeout, bounded);
+        }
+        return (int) Math.min(bounded, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,508 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Responses of the Github API, remembered with their validators (ETag or
+ * Last-Modified), so they can be revalidated with conditional requests
+ * (see {@link ConditionalWire}).<br><br>
+ * The responses are kept in memory, up to a number of bytes; the least
+ * recently used ones are evicted. If a directory is given, the evicted
+ * responses are spilled there and read back when needed again. Files
+ * older than the given age are deleted when the cache is created and,
+ * once the directory holds more than its limit of bytes, the oldest files
+ * are deleted. The disk is read and written outside the lock, so a request
+ * never waits for the disk I/O of another.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CachedResponses {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        CachedResponses.class.getName()
+    );
+
+    /**
+     * Maximum number of bytes kept in memory.
+     */
+    private final long capacity;
+
+    /**
+     * Directory for the evicted responses, null if there is none.
+     */
+    private final Path dir;
+
+    /**
+     * Maximum number of bytes kept in the directory.
+     */
+    private final long limit;
+
+    /**
+     * Responses in memory, by key, least recently used first. It is also
+     * the lock of the memory and of the spilling responses.
+     */
+    private final Map<String, Cached> memory;
+
+    /**
+     * Evicted responses which are being written to the directory.
+     */
+    private final Map<String, Cached> spilling;
+
+    /**
+     * Bytes kept in the directory (approximately).
+     */
+    private final AtomicLong spilled;
+
+    /**
+     * Is a thread deleting the oldest files from the directory?
+     */
+    private final AtomicBoolean shrinking;
+
+    /**
+     * Bytes kept in memory.
+     */
+    private long size;
+
+    /**
+     * Ctor, memory only.
+     * @param capacity Maximum number of bytes kept in memory.
+     */
+    public CachedResponses(final long capacity) {
+        this(capacity, null, Duration.ZERO, 0L);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Maximum number of bytes kept in memory.
+     * @param dir Directory for the evicted responses, null if they should
+     *  simply be forgotten.
+     * @param age Files in the directory older than this are deleted.
+     * @param limit Maximum number of bytes kept in the directory.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    public CachedResponses(
+        final long capacity, final Path dir,
+        final Duration age, final long limit
+    ) {
+        this.capacity = capacity;
+        this.dir = dir;
+        this.limit = limit;
+        this.memory = new LinkedHashMap<>();
+        this.spilling = new HashMap<>();
+        this.spilled = new AtomicLong();
+        this.shrinking = new AtomicBoolean();
+        if(dir != null) {
+            this.prune(age);
+            this.shrink();
+        }
+    }
+
+    /**
+     * The remembered response. It becomes the most recently used.
+     * @param key Key of the request.
+     * @return Cached response or null if there is none.
+     */
+    public Cached get(final String key) {
+        Cached cached;
+        List<Map.Entry<String, Cached>> evicted = Collections.emptyList();
+        synchronized (this.memory) {
+            cached = this.memory.remove(key);
+            if(cached == null) {
+                cached = this.spilling.get(key);
+            } else {
+                this.size = this.size - cached.size();
+            }
+            if(cached != null) {
+                evicted = this.remember(key, cached);
+            }
+        }
+        if(cached == null && this.dir != null) {
+            cached = this.read(key);
+            if(cached != null) {
+                evicted = this.remember(key, cached);
+            }
+        }
+        this.spill(evicted);
+        return cached;
+    }
+
+    /**
+     * Remember a response.
+     * @param key Key of the request.
+     * @param cached Response.
+     */
+    public void put(final String key, final Cached cached) {
+        this.spill(this.remember(key, cached));
+    }
+
+    /**
+     * Remember a response in memory and evict the least recently used
+     * ones, if the memory is full.
+     * @param key Key of the request.
+     * @param cached Response.
+     * @return Evicted responses, which should be spilled.
+     */
+    private List<Map.Entry<String, Cached>> remember(
+        final String key, final Cached cached
+    ) {
+        final List<Map.Entry<String, Cached>> evicted = new ArrayList<>(1);
+        synchronized (this.memory) {
+            final Cached old = this.memory.put(key, cached);
+            if(old != null) {
+                this.size = this.size - old.size();
+            }
+            this.size = this.size + cached.size();
+            final Iterator<Map.Entry<String, Cached>> eldest =
+                this.memory.entrySet().iterator();
+            while(this.size > this.capacity && eldest.hasNext()) {
+                final Map.Entry<String, Cached> entry = eldest.next();
+                eldest.remove();
+                this.size = this.size - entry.getValue().size();
+                if(this.dir != null) {
+                    this.spilling.put(entry.getKey(), entry.getValue());
+                    evicted.add(
+                        new AbstractMap.SimpleImmutableEntry<>(entry)
+                    );
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Write the evicted responses in the directory. Until a response is
+     * written, it can still be found among the spilling ones.
+     * @param evicted Evicted responses.
+     */
+    private void spill(final List<Map.Entry<String, Cached>> evicted) {
+        for(final Map.Entry<String, Cached> entry : evicted) {
+            final String key = entry.getKey();
+            try {
+                Files.createDirectories(this.dir);
+                final Path tmp = Files.createTempFile(this.dir, "spill", null);
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    entry.getValue().write(key, new DataOutputStream(out));
+                }
+                this.spilled.addAndGet(Files.size(tmp));
+                Files.move(
+                    tmp, this.file(key), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+                );
+            } catch (final IOException ex) {
+                LOG.warn("Could not spill the cached response of " + key, ex);
+            } finally {
+                synchronized (this.memory) {
+                    this.spilling.remove(key, entry.getValue());
+                }
+            }
+        }
+        if(this.spilled.get() > this.limit) {
+            this.shrink();
+        }
+    }
+
+    /**
+     * Read a response from the directory and delete its file.
+     * @param key Key of the request.
+     * @return Response or null if it is not there.
+     */
+    private Cached read(final String key) {
+        final Path file = this.file(key);
+        Cached cached = null;
+        if(Files.exists(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                cached = Cached.read(key, new DataInputStream(input));
+                this.spilled.addAndGet(-Files.size(file));
+                Files.delete(file);
+            } catch (final NoSuchFileException ex) {
+                LOG.debug("Cached response of " + key + " was just read");
+            } catch (final IOException ex) {
+                LOG.warn("Could not read the cached response of " + key, ex);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Delete the oldest files, until the directory holds no more than
+     * its limit of bytes. Only one thread shrinks the directory at a time,
+     * the others don't wait for it.
+     */
+    private void shrink() {
+        if(Files.isDirectory(this.dir)
+            && this.shrinking.compareAndSet(false, true)) {
+            try {
+                final List<Path> files = new ArrayList<>();
+                long total = 0;
+                try (DirectoryStream<Path> all =
+                    Files.newDirectoryStream(this.dir)) {
+                    for(final Path file : all) {
+                        files.add(file);
+                        total = total + Files.size(file);
+                    }
+                }
+                files.sort(
+                    Comparator.comparingLong(CachedResponses::modified)
+                );
+                final Iterator<Path> oldest = files.iterator();
+                while(total > this.limit && oldest.hasNext()) {
+                    final Path file = oldest.next();
+                    final long bytes = Files.size(file);
+                    if(Files.deleteIfExists(file)) {
+                        total = total - bytes;
+                    }
+                }
+                this.spilled.set(total);
+            } catch (final IOException ex) {
+                LOG.warn("Could not shrink the cached responses", ex);
+            } finally {
+                this.shrinking.set(false);
+            }
+        }
+    }
+
+    /**
+     * Delete the files older than the given age.
+     * @param age Age.
+     */
+    private void prune(final Duration age) {
+        final long oldest = System.currentTimeMillis() - age.toMillis();
+        if(Files.isDirectory(this.dir)) {
+            try (DirectoryStream<Path> files =
+                Files.newDirectoryStream(this.dir)) {
+                for(final Path file : files) {
+                    if(Files.getLastModifiedTime(file).toMillis() < oldest) {
+                        Files.delete(file);
+                    }
+                }
+            } catch (final IOException ex) {
+                LOG.warn("Could not prune the cached responses", ex);
+            }
+        }
+    }
+
+    /**
+     * When was the file last modified?
+     * @param file File.
+     * @return Millis or 0 if it is not known (e.g. it was deleted).
+     */
+    private static long modified(final Path file) {
+        long millis;
+        try {
+            millis = Files.getLastModifiedTime(file).toMillis();
+        } catch (final IOException ex) {
+            millis = 0;
+        }
+        return millis;
+    }
+
+    /**
+     * File of a key.
+     * @param key Key of the request.
+     * @return Path.
+     */
+    private Path file(final String key) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(key.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder name = new StringBuilder();
+            for(final byte part : hash) {
+                name.append(String.format("%02x", part));
+            }
+            return this.dir.resolve(name.toString());
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * A cached response: its validator, headers and body.
+     */
+    public static final class Cached {
+
+        /**
+         * Validator header sent back, e.g. If-None-Match.
+         */
+        private final String condition;
+
+        /**
+         * Validator value, e.g. the ETag.
+         */
+        private final String validator;
+
+        /**
+         * Headers of the response, as name and value pairs.
+         */
+        private final List<String[]> headers;
+
+        /**
+         * Body of the response.
+         */
+        private final byte[] body;
+
+        /**
+         * Ctor.
+         * @param condition Validator header sent back, e.g. If-None-Match.
+         * @param validator Validator value, e.g. the ETag.
+         * @param headers Headers of the response, as name and value pairs.
+         * @param body Body of the response.
+         * @checkstyle ParameterNumber (5 lines)
+         */
+        public Cached(
+            final String condition, final String validator,
+            final List<String[]> headers, final byte[] body
+        ) {
+            this.condition = condition;
+            this.validator = validator;
+            this.headers = headers;
+            this.body = body.clone();
+        }
+
+        /**
+         * Validator header to send, e.g. If-None-Match.
+         * @return String.
+         */
+        public String condition() {
+            return this.condition;
+        }
+
+        /**
+         * Validator value, e.g. the ETag.
+         * @return String.
+         */
+        public String validator() {
+            return this.validator;
+        }
+
+        /**
+         * Headers of the response, as name and value pairs.
+         * @return List of headers.
+         */
+        public List<String[]> headers() {
+            return this.headers;
+        }
+
+        /**
+         * Body of the response.
+         * @return Bytes.
+         */
+        public byte[] body() {
+            return this.body.clone();
+        }
+
+        /**
+         * Approximate size, in bytes.
+         * @return Long.
+         */
+        long size() {
+            long size = this.body.length + this.validator.length();
+            for(final String[] header : this.headers) {
+                size = size + header[0].length() + header[1].length();
+            }
+            return size;
+        }
+
+        /**
+         * Write it.
+         * @param key Key of the request.
+         * @param out Output.
+         * @throws IOException If it cannot be written.
+         */
+        void write(final String key, final DataOutputStream out)
+            throws IOException {
+            out.writeUTF(key);
+            out.writeUTF(this.condition);
+            out.writeUTF(this.validator);
+            out.writeInt(this.headers.size());
+            for(final String[] header : this.headers) {
+                out.writeUTF(header[0]);
+                out.writeUTF(header[1]);
+            }
+            out.writeInt(this.body.length);
+            out.write(this.body);
+        }
+
+        /**
+         * Read it.
+         * @param key Key of the request.
+         * @param input Input.
+         * @return Cached response or null if it belongs to another key.
+         * @throws IOException If it cannot be read.
+         */
+        static Cached read(final String key, final DataInputStream input)
+            throws IOException {
+            Cached cached = null;
+            if(key.equals(input.readUTF())) {
+                final String condition = input.readUTF();
+                final String validator = input.readUTF();
+                final int count = input.readInt();
+                final List<String[]> headers = new ArrayList<>(count);
+                for(int idx = 0; idx < count; ++idx) {
+                    headers.add(
+                        new String[] {input.readUTF(), input.readUTF()}
+                    );
+                }
+                final byte[] body = new byte[input.readInt()];
+                input.readFully(body);
+                cached = new Cached(condition, validator, headers, body);
+            }
+            return cached;
+        }
+    }
+}
@@ -28,7 +28,7 @@ package co.comdor.github;
 import co.comdor.*;
 import com.jcabi.github.Issue;
 import java.io.IOException;
-import java.util.UUID;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 
 /**
  * The bot chats with the user based on a mention.
@@ -36,6 +36,8 @@ import java.util.UUID;
  * @version $Id$
  * @since 0.0.1
  * @checkstyle ClassDataAbstractionCoupling (300 lines)
+ * @checkstyle IllegalCatch (300 lines)
+ * @checkstyle ParameterNumber (300 lines)
  */
 public final class Chat implements Action {
 
@@ -45,10 +47,30 @@ public final class Chat implements Action {
     private String id;
     
     /**
-     * Github Issue which triggered this action.
+     * Mentions of the bot, in the Issue which triggered this action.
      */
-    private Issue issue;
+    private Mentions mentions;
     
+    /**
+     * Lanes in which this action is performed.
+     */
+    private Lanes lanes;
+
+    /**
+     * Progress of this action.
+     */
+    private Progress progress;
+
+    /**
+     * Docker containers which are running now.
+     */
+    private LiveContainers live;
+
+    /**
+     * Courtesies (star the repository, follow the user).
+     */
+    private Courtesies courtesies;
+
     /**
      * Log of this action. Each Github action should be logged in its own file,
      * since we want to let the user inspect the logs sometimes.
@@ -62,8 +84,36 @@ public final class Chat implements Action {
      *  communicating with Github etc).
      */
     public Chat(final Issue issue) throws IOException {
-        this.issue = issue;
-        this.id = UUID.randomUUID().toString();
+        this(
+            new Mentions.InIssue(issue), new Lanes.Single(),
+            new Progress.Silent(), new LiveContainers(),
+            new Courtesies(new Metadata.Direct())
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param mentions Mentions of the bot, in the Issue which triggered
+     *  this action.
+     * @param lanes Lanes in which this action is performed.
+     * @param progress Progress of this action; it also gives the action's id.
+     * @param live Docker containers which are running now; the ones started
+     *  by this action are added here while they run.
+     * @param courtesies Courtesies offered after the steps, shared by all
+     *  the actions.
+     * @throws IOException If there is any IO problem (e.g. writing files,
+     *  communicating with Github etc).
+     */
+    public Chat(
+        final Mentions mentions, final Lanes lanes, final Progress progress,
+        final LiveContainers live, final Courtesies courtesies
+    ) throws IOException {
+        this.courtesies = courtesies;
+        this.live = live;
+        this.mentions = mentions;
+        this.lanes = lanes;
+        this.progress = progress;
+        this.id = progress.actionId();
         this.log = new WebLog(
             new LogFile(
                 new SystemProperties.LogRoot() + "/comdor/ActionLogs", this.id
@@ -75,7 +125,16 @@ public final class Chat implements Action {
     /**
      * Builds and executes all the steps. Catches exceptions and logs them.
      * If everything fails with IOException, it tries to post a final error
-     * reply, pointing the user to the action's logs.
+     * reply, pointing the user to the action's logs.<br><br>
+     * Once the mention is understood, a "run" command moves to the slow
+     * lane, since it holds on for the whole life of its Docker container.
+     * <br><br>
+     * The progress is reported as it goes: resolving the mention, executing
+     * the steps and, at the end, done or failed.<br><br>
+     * If Github becomes unavailable (its circuit opens) while the mention
+     * is looked up, the exception is thrown, so the action can be started
+     * over later (nothing has been done yet). Once the steps are executing,
+     * it is only logged: starting over would run them again.
      * @throws IOException If some IO problems occur.
      */
     @Override
@@ -86,21 +145,44 @@ public final class Chat implements Action {
                 new Hello(
                     new CreateLabels(
                         new RunScript(
-                            new Confused()
+                            new Confused(), this.live
                         )
                     )
                 )
             );
+            this.progress.resolving();
             final Command mention = new CachedMention(
-                new LastMention(this.issue)
+                this.mentions.last(this.log)
             );
-            new Social(
-                new Careful(
-                    talk.start(mention, this.log)
-                )
-            ).perform(mention, this.log);
+            final Step steps = talk.start(mention, this.log);
+            if("run".equalsIgnoreCase(mention.type())) {
+                this.log.logger().info("Moving to the slow lane...");
+                this.lanes.slow();
+            }
+            this.progress.executing();
+            try {
+                new Social(new Careful(steps), this.courtesies)
+                    .perform(mention, this.log);
+                this.progress.done();
+            } catch (final IOException | RuntimeException ex) {
+                if(ExceptionUtils.indexOfType(
+                    ex, CircuitOpenException.class
+                ) < 0) {
+                    throw ex;
+                }
+                this.log.logger().warn(
+                    "Github became unavailable while executing the steps."
+                    + " The action is not started over, since some steps"
+                    + " may have been done already (e.g. the script ran)."
+                );
+                this.progress.failed("Github became unavailable");
+            }
         } catch (final MentionLookupException mle) {
             this.log.logger().warn(mle.getMessage());
+            this.progress.done();
+        } catch (final IOException | RuntimeException ex) {
+            this.progress.failed(ex.getMessage());
+            throw ex;
         }
     }
 
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker for the Github API. After too many consecutive failed
+ * (or too slow) calls, the circuit opens: the calls fail fast, without
+ * being sent, for a cool-down period. Then a single probe call is let
+ * through (half-open): if it works, the circuit closes again, otherwise
+ * it stays open for another cool-down period. The probe is the call of
+ * the thread which was let through: the calls which were already in
+ * flight when the circuit opened don't change it.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CircuitBreaker {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        CircuitBreaker.class.getName()
+    );
+
+    /**
+     * Default number of consecutive failures which open the circuit.
+     */
+    private static final int FAILURES = 5;
+
+    /**
+     * Default latency above which a call counts as failed.
+     */
+    private static final Duration SLOW = Duration.ofSeconds(10);
+
+    /**
+     * Default cool-down period.
+     */
+    private static final Duration COOLDOWN = Duration.ofSeconds(30);
+
+    /**
+     * Consecutive failures which open the circuit.
+     */
+    private final int failures;
+
+    /**
+     * Latency above which a call counts as failed, in millis.
+     */
+    private final long slow;
+
+    /**
+     * How long the circuit stays open before a probe, in millis.
+     */
+    private final long cooldown;
+
+    /**
+     * Consecutive failures so far.
+     */
+    private int failed;
+
+    /**
+     * Moment when the circuit opened, 0 if it is closed.
+     */
+    private long opened;
+
+    /**
+     * Thread sending the probe call, null if there is none in flight.
+     */
+    private Thread probe;
+
+    /**
+     * Ctor.
+     */
+    public CircuitBreaker() {
+        this(
+            CircuitBreaker.FAILURES, CircuitBreaker.SLOW,
+            CircuitBreaker.COOLDOWN
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param failures Consecutive failures which open the circuit.
+     * @param slow Latency above which a call counts as failed.
+     * @param cooldown How long the circuit stays open before a probe.
+     */
+    public CircuitBreaker(
+        final int failures, final Duration slow, final Duration cooldown
+    ) {
+        this.failures = failures;
+        this.slow = slow.toMillis();
+        this.cooldown = cooldown.toMillis();
+    }
+
+    /**
+     * May a call be sent now? When the cool-down is over, only one call
+     * (the probe) is allowed, until its outcome is recorded.
+     * @return True if the call may be sent, false if it should fail fast.
+     */
+    public synchronized boolean allow() {
+        boolean allow = this.opened == 0;
+        if(!allow && this.probe == null
+            && System.currentTimeMillis() >= this.opened + this.cooldown) {
+            LOG.info("Github circuit half-open, probing...");
+            this.probe = Thread.currentThread();
+            allow = true;
+        }
+        return allow;
+    }
+
+    /**
+     * Record the outcome of a call which was allowed. Call it from the
+     * thread which sent the call.
+     * @param millis How long it took.
+     * @param error Did it fail?
+     */
+    public synchronized void record(final long millis, final boolean error) {
+        final boolean failure = error || millis > this.slow;
+        if(Thread.currentThread().equals(this.probe)) {
+            this.probe = null;
+            if(failure) {
+                LOG.warn("Github probe failed, the circuit stays open.");
+                this.opened = System.currentTimeMillis();
+            } else {
+                LOG.info("Github circuit closed, Github is back.");
+                this.failed = 0;
+                this.opened = 0;
+            }
+        } else if(this.opened == 0) {
+            if(failure) {
+                this.failed = this.failed + 1;
+                if(this.failed >= this.failures) {
+                    LOG.warn(
+                        "Github circuit opened after " + this.failed
+                        + " failed or slow call(s)."
+                    );
+                    this.opened = System.currentTimeMillis();
+                }
+            } else {
+                this.failed = 0;
+            }
+        }
+    }
+
+    /**
+     * How long until a call might be allowed.
+     * @return Millis, 0 if the circuit is closed or a probe may be sent.
+     */
+    public synchronized long waiting() {
+        long waiting = 0;
+        if(this.opened != 0) {
+            if(this.probe != null) {
+                waiting = this.cooldown;
+            } else {
+                waiting = Math.max(
+                    0, this.opened + this.cooldown - System.currentTimeMillis()
+                );
+            }
+        }
+        return waiting;
+    }
+}
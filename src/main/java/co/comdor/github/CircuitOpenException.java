@@ -25,44 +25,28 @@
  */
 package co.comdor.github;
 
-import co.comdor.IntermediaryStep;
-import co.comdor.Step;
-import co.comdor.Log;
-import com.jcabi.github.Repo;
 import java.io.IOException;
 
 /**
- * Step where the bot stars the Github repository.
+ * Github is considered unavailable (see {@link CircuitBreaker}), so the
+ * request was not even sent. The work should be resumed later, not
+ * reported as failed.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
- * @since 0.0.2
+ * @since 0.0.3
  */
-public final class StarRepo extends IntermediaryStep{
+public final class CircuitOpenException extends IOException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
 
     /**
      * Ctor.
-     * @param next Next step to execute.
+     * @param message Exception message.
      */
-    public StarRepo(final Step next) {
-        super(next);
-    }
-    
-    @Override
-    public void perform(
-        final Command command, final Log log) throws IOException {
-        try {
-            log.logger().info("Starring repository...");
-            final Repo repo = command.issue().repo();
-            if(!repo.stars().starred()) {
-                repo.stars().star();
-            }
-            log.logger().info("Repository starred!");
-        } catch (final IOException ex) {
-            log.logger().warn(
-                "IOException when starring repository, could not star the repo."
-            );
-        }
-        this.next().perform(command, log);
+    public CircuitOpenException(final String message) {
+        super(message);
     }
-    
 }
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.Map;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+
+/**
+ * Wire which asks the {@link CircuitBreaker} before sending a request and
+ * tells it the outcome: 5xx responses, IO errors and calls slower than
+ * the breaker's threshold are failures. While the circuit is open, the
+ * requests fail fast with {@link CircuitOpenException}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle ParameterNumber (100 lines)
+ */
+public final class CircuitWire implements Wire {
+
+    /**
+     * Original wire.
+     */
+    private final Wire origin;
+
+    /**
+     * The circuit breaker.
+     */
+    private final CircuitBreaker breaker;
+
+    /**
+     * Ctor.
+     * @param origin Original wire.
+     * @param breaker The circuit breaker.
+     */
+    public CircuitWire(final Wire origin, final CircuitBreaker breaker) {
+        this.origin = origin;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public Response send(
+        final Request req, final String home, final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read
+    ) throws IOException {
+        if(!this.breaker.allow()) {
+            throw new CircuitOpenException(
+                "Github is unavailable, not sending " + method + " " + home
+            );
+        }
+        final long start = System.currentTimeMillis();
+        boolean error = true;
+        try {
+            final Response response = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+            error = response.status() >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+            return response;
+        } finally {
+            this.breaker.record(System.currentTimeMillis() - start, error);
+        }
+    }
+}
@@ -8,10 +8,14 @@ package co.comdor.github;
 import com.amihaiemil.camel.Yaml;
 import com.amihaiemil.camel.YamlMapping;
 import com.amihaiemil.camel.YamlSequence;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import javax.json.JsonObject;
 
 /**
  * ComdorYaml from InputStream.
@@ -26,6 +30,22 @@ public final class ComdorYamlInput implements ComdorYaml {
      */
     private final YamlMapping yaml;
 
+    /**
+     * Ctor. The Base64 content is decoded while it is read.
+     * @param file .comdor.yml, as Json from Github's contents API.
+     * @throws IOException If the content cannot be read.
+     */
+    public ComdorYamlInput(final JsonObject file) throws IOException {
+        this(
+            Base64.getMimeDecoder().wrap(
+                new ByteArrayInputStream(
+                    file.getString("content")
+                        .getBytes(StandardCharsets.US_ASCII)
+                )
+            )
+        );
+    }
+
     /**
      * Ctor.
      * @param yaml .charles.yml.
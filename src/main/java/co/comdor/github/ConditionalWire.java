@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import com.jcabi.http.ImmutableHeader;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+
+/**
+ * Wire which revalidates GET requests with conditional headers: the first
+ * response is remembered together with its ETag (or Last-Modified) and,
+ * next time, the request is sent with If-None-Match (or If-Modified-Since).
+ * If Github answers 304 Not Modified, the remembered response is returned.
+ * Github doesn't count 304 responses against the rate limit.<br><br>
+ * Use it like this:
+ * <pre>
+ *     request.through(ConditionalWire.class, responses).fetch();
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle ParameterNumber (100 lines)
+ */
+public final class ConditionalWire implements Wire {
+
+    /**
+     * Original wire.
+     */
+    private final Wire origin;
+
+    /**
+     * Remembered responses.
+     */
+    private final CachedResponses responses;
+
+    /**
+     * Ctor.
+     * @param origin Original wire.
+     * @param responses Remembered responses, shared by all the requests.
+     */
+    public ConditionalWire(
+        final Wire origin, final CachedResponses responses
+    ) {
+        this.origin = origin;
+        this.responses = responses;
+    }
+
+    @Override
+    public Response send(
+        final Request req, final String home, final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read
+    ) throws IOException {
+        final Response response;
+        if("GET".equalsIgnoreCase(method)
+            && ConditionalWire.header(headers, "If-None-Match") == null
+            && ConditionalWire.header(headers, "If-Modified-Since") == null) {
+            response = this.conditional(
+                req, home, headers, content, connect, read
+            );
+        } else {
+            response = this.origin.send(
+                req, home, method, headers, content, connect, read
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Send a conditional GET request.
+     * @param req Request.
+     * @param home URI to fetch.
+     * @param headers Headers.
+     * @param content Input data.
+     * @param connect Connect timeout.
+     * @param read Read timeout.
+     * @return Response.
+     * @throws IOException If fails.
+     */
+    private Response conditional(
+        final Request req, final String home,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read
+    ) throws IOException {
+        final String key = ConditionalWire.header(headers, "Accept")
+            + " " + home;
+        final CachedResponses.Cached cached = this.responses.get(key);
+        final Collection<Map.Entry<String, String>> sent =
+            new LinkedList<>(headers);
+        if(cached != null) {
+            sent.add(
+                new ImmutableHeader(cached.condition(), cached.validator())
+            );
+        }
+        Response response = this.origin.send(
+            req, home, "GET", sent, content, connect, read
+        );
+        if(cached != null
+            && response.status() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            response = ConditionalWire.replay(req, cached);
+        } else if(response.status() == HttpURLConnection.HTTP_OK) {
+            this.remember(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Remember the response, if it has a validator.
+     * @param key Key of the request.
+     * @param response Response.
+     */
+    private void remember(final String key, final Response response) {
+        final List<String[]> headers = new ArrayList<>();
+        String condition = null;
+        String validator = null;
+        for(final Map.Entry<String, List<String>> header
+            : response.headers().entrySet()) {
+            for(final String value : header.getValue()) {
+                headers.add(new String[] {header.getKey(), value});
+            }
+            if("ETag".equalsIgnoreCase(header.getKey())) {
+                condition = "If-None-Match";
+                validator = header.getValue().get(0);
+            } else if(validator == null
+                && "Last-Modified".equalsIgnoreCase(header.getKey())) {
+                condition = "If-Modified-Since";
+                validator = header.getValue().get(0);
+            }
+        }
+        if(validator != null) {
+            this.responses.put(
+                key,
+                new CachedResponses.Cached(
+                    condition, validator, headers, response.binary()
+                )
+            );
+        }
+    }
+
+    /**
+     * The remembered response, as if Github had sent it again.
+     * @param req Request.
+     * @param cached Remembered response.
+     * @return Response.
+     */
+    private static Response replay(
+        final Request req, final CachedResponses.Cached cached
+    ) {
+        final Collection<Map.Entry<String, String>> headers =
+            new LinkedList<>();
+        for(final String[] header : cached.headers()) {
+            headers.add(new ImmutableHeader(header[0], header[1]));
+        }
+        return new DefaultResponse(
+            req, HttpURLConnection.HTTP_OK, "OK",
+            new Array<>(headers), cached.body()
+        );
+    }
+
+    /**
+     * Value of a request header.
+     * @param headers Headers.
+     * @param name Name of the header.
+     * @return Value or null if the header is missing.
+     */
+    private static String header(
+        final Collection<Map.Entry<String, String>> headers, final String name
+    ) {
+        String value = null;
+        for(final Map.Entry<String, String> header : headers) {
+            if(name.equalsIgnoreCase(header.getKey())) {
+                value = header.getValue();
+                break;
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import com.jcabi.github.Github;
+import com.jcabi.github.RtGithub;
+
+/**
+ * Pool of keep-alive connections to the Github API. It should be created
+ * only once and shared by all the Actions: every Github built here sends
+ * its requests through the same pool, so TLS sessions and connections
+ * are reused between Actions. GET requests are revalidated with
+ * conditional headers (see {@link ConditionalWire}) and the rate limit
+ * is read from every response (see {@link RateLimitWire}). When Github
+ * keeps failing, the requests fail fast (see {@link CircuitWire}) and
+ * the failed calls are retried with backoff (see {@link BackoffWire}).
+ * The circuit sees each attempt on its own, so the waits between the
+ * retries don't count as Github's latency.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class Connections implements Closeable {
+
+    /**
+     * Pooled HttpClient.
+     */
+    private final CloseableHttpClient client;
+
+    /**
+     * Responses remembered for conditional requests.
+     */
+    private final CachedResponses responses;
+
+    /**
+     * Github's rate limit, as the responses tell it.
+     */
+    private final RateLimit limit;
+
+    /**
+     * Circuit breaker, shared by all the Githubs built here.
+     */
+    private final CircuitBreaker breaker;
+
+    /**
+     * Retry policy of the Github calls.
+     */
+    private final Backoff backoff;
+
+    /**
+     * Ctor.
+     * @param client Pooled HttpClient.
+     * @param responses Responses remembered for conditional requests.
+     */
+    public Connections(
+        final CloseableHttpClient client, final CachedResponses responses
+    ) {
+        this(client, responses, new CircuitBreaker(), new Backoff());
+    }
+
+    /**
+     * Ctor.
+     * @param client Pooled HttpClient.
+     * @param responses Responses remembered for conditional requests.
+     * @param breaker Circuit breaker for the Github API.
+     * @param backoff Retry policy of the Github calls.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    public Connections(
+        final CloseableHttpClient client, final CachedResponses responses,
+        final CircuitBreaker breaker, final Backoff backoff
+    ) {
+        this.client = client;
+        this.responses = responses;
+        this.limit = new RateLimit();
+        this.breaker = breaker;
+        this.backoff = backoff;
+    }
+
+    /**
+     * Github, talking through this pool of connections.
+     * @param token Github API token.
+     * @return Github.
+     */
+    public Github github(final String token) {
+        return this.github(token, this.rateLimit());
+    }
+
+    /**
+     * Github, talking through this pool of connections, with its own
+     * rate limit (each token has its own).
+     * @param token Github API token.
+     * @param rate Rate limit of the token.
+     * @return Github.
+     */
+    public Github github(final String token, final RateLimit rate) {
+        return new RtGithub(
+            new RtGithub(token).entry()
+                .through(PooledWire.class, this.client)
+                .through(RateLimitWire.class, rate)
+                .through(ConditionalWire.class, this.responses)
+                .through(CircuitWire.class, this.breaker)
+                .through(BackoffWire.class, this.backoff)
+        );
+    }
+
+    /**
+     * Github's rate limit, as told by the responses received through
+     * these connections.
+     * @return RateLimit.
+     */
+    public RateLimit rateLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Circuit breaker of the Github API.
+     * @return CircuitBreaker.
+     */
+    public CircuitBreaker breaker() {
+        return this.breaker;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.client.close();
+    }
+}
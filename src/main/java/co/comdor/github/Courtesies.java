@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import co.comdor.Log;
+
+import com.jcabi.github.Repo;
+import com.jcabi.http.Request;
+
+/**
+ * Courtesies of the bot, after it fulfils a command: it stars the
+ * repository and follows the user. They are not what the user asked for,
+ * so they are done in the background, off the Action's path, and only
+ * once per repository and user (see {@link Memo}). A courtesy which
+ * fails is forgotten, so it is tried again the next time.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle IllegalCatch (150 lines)
+ */
+public final class Courtesies {
+
+    /**
+     * Metadata of the repositories (are they starred already?).
+     */
+    private final Metadata metadata;
+
+    /**
+     * Repositories already starred and users already followed.
+     */
+    private final Memo memo;
+
+    /**
+     * Where the courtesies are done.
+     */
+    private final Executor background;
+
+    /**
+     * Ctor. The courtesies are done right away, every time.
+     * @param metadata Metadata of the repositories.
+     */
+    public Courtesies(final Metadata metadata) {
+        this(metadata, new Memo.Forgetful(), Runnable::run);
+    }
+
+    /**
+     * Ctor.
+     * @param metadata Metadata of the repositories.
+     * @param memo Repositories already starred and users already followed.
+     * @param background Where the courtesies are done.
+     */
+    public Courtesies(
+        final Metadata metadata, final Memo memo, final Executor background
+    ) {
+        this.metadata = metadata;
+        this.memo = memo;
+        this.background = background;
+    }
+
+    /**
+     * Offer the courtesies for a command. If the background is too busy,
+     * they are skipped; they will be offered again with the next command.
+     * @param command Command which was fulfilled.
+     * @param log Log of the Action.
+     */
+    public void offer(final Command command, final Log log) {
+        try {
+            this.background.execute(() -> this.pay(command, log));
+        } catch (final RejectedExecutionException ex) {
+            log.logger().info("Too busy, no starring or following this time.");
+        }
+    }
+
+    /**
+     * Star the repository and follow the user, unless it was done before.
+     * If one of them fails, it is forgotten, so it is tried again with the
+     * next command.
+     * @param command Command which was fulfilled.
+     * @param log Log of the Action.
+     */
+    private void pay(final Command command, final Log log) {
+        final String star = "star:" + command.issue().repo().coordinates();
+        if(!this.memo.seen(star)) {
+            try {
+                this.star(command, log);
+            } catch (final IOException | RuntimeException ex) {
+                this.memo.forget(star);
+                log.logger().warn(
+                    "Exception while starring the repo: " + ex.getMessage()
+                );
+            }
+        }
+        final String follow = "follow:" + command.author();
+        if(!this.memo.seen(follow)) {
+            try {
+                this.follow(command, log);
+            } catch (final IOException | RuntimeException ex) {
+                this.memo.forget(follow);
+                log.logger().warn(
+                    "Exception while following the user: " + ex.getMessage()
+                );
+            }
+        }
+        log.logger().info("Courtesies done.");
+    }
+
+    /**
+     * Star the repository, if it is not starred already.
+     * @param command Command which was fulfilled.
+     * @param log Log of the Action.
+     * @throws IOException If the repository could not be starred.
+     */
+    private void star(final Command command, final Log log)
+        throws IOException {
+        log.logger().info("Starring repository...");
+        final Repo repo = command.issue().repo();
+        if(!this.metadata.starred(repo)) {
+            repo.stars().star();
+        }
+        log.logger().info("Repository starred!");
+    }
+
+    /**
+     * Follow the user.
+     * @param command Command which was fulfilled.
+     * @param log Log of the Action.
+     * @throws IOException If the user could not be followed.
+     */
+    private void follow(final Command command, final Log log)
+        throws IOException {
+        final String author = command.author();
+        log.logger().info("Following Github user " + author + " ...");
+        final int status = command.issue().repo().github().entry()
+            .uri().path("/user/following/").path(author).back()
+            .method(Request.PUT)
+            .fetch().status();
+        if(status != HttpURLConnection.HTTP_NO_CONTENT) {
+            throw new IOException(
+                "User follow status response is " + status
+                + ". Should have been 204 (NO CONTENT)"
+            );
+        }
+        log.logger().info("Followed user " + author + " .");
+    }
+}
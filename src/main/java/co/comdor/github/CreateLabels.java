@@ -26,14 +26,27 @@
 package co.comdor.github;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
-import java.util.function.Consumer;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import co.comdor.IntermediaryStep;
 import co.comdor.Knowledge;
 import co.comdor.Log;
 import co.comdor.Step;
 
+import com.jcabi.github.Label;
 import com.jcabi.github.Labels;
 
 /**
@@ -104,14 +117,27 @@ public final class CreateLabels implements Knowledge {
     }
 
     /**
-     * Step where the labels are created.
+     * Step where the labels are created. The existing labels are read once
+     * and only the missing ones are created, a few at a time (by threads
+     * which live only while this step creates them, so they end together
+     * with the Action). Github compares label names ignoring
+     * case, so we do the same; labels repeated in .comdor.yml count once.
      * @author Mihai Andronache (amihaiemil@gmail.com)
      * @version $Id$
      * @since 0.0.3
-     * @checkstyle AnonInnerLength (100 lines)
      */
     static final class Create extends IntermediaryStep {
 
+        /**
+         * How many labels are created at the same time.
+         */
+        private static final int PARALLEL = 4;
+
+        /**
+         * Randomizer for the labels' colors.
+         */
+        private final Random colors = new Random();
+
         /**
          * Ctor.
          * @param next The next step to perform.
@@ -125,47 +151,86 @@ public final class CreateLabels implements Knowledge {
             final Command command, final Log log
         ) throws IOException {
             log.logger().info("Creating labels...");
-            final Labels.Smart repo = new Labels.Smart(
-                command.issue().repo().labels()
+            final Labels labels = command.issue().repo().labels();
+            final Set<String> existing = new HashSet<>();
+            for(final Label label : labels.iterate()) {
+                existing.add(label.name().toLowerCase(Locale.ENGLISH));
+            }
+            final Set<String> wanted = new HashSet<>();
+            final Map<String, String> missing = new LinkedHashMap<>();
+            for(final String label : command.comdorYaml().labels()) {
+                final String key = label.toLowerCase(Locale.ENGLISH);
+                if(wanted.add(key) && !existing.contains(key)) {
+                    missing.put(key, label);
+                }
+            }
+            if(!missing.isEmpty()) {
+                this.create(labels, missing.values());
+            }
+            log.logger().info(
+                "Labels successfully created! Created: " + missing.size()
+                + ", skipped (already existing): "
+                + (wanted.size() - missing.size())
             );
-            command.comdorYaml().labels().forEach(
-                new Consumer<String>() {
-                    private final Random colors = new Random();
+            this.next().perform(command, log);
+        }
 
-                    @Override
-                    public void accept(final String label) {
-                        if(!repo.contains(label)) {
-                            try {
-                                repo.create(label, this.pickRandom(colors));
-                            } catch (final IOException ex) {
-                                throw new IllegalStateException(
-                                    "IOException when creating labels", ex
-                                );
-                            }
-                        }
-                    }
-                    
-                    /**
-                     * Pick a random hex RGB color.
-                     * @param random Randomizer.
-                     * @return String hex color (without the leading '#').
-                     * @checkstyle MagicNumber (50 lines)
-                     */
-                    private String pickRandom(final Random random) {
-                        final String[] values = {
-                            "0", "1", "2", "3", "4", "5", "6", "7", "8", "9",
-                            "a", "b", "c", "d", "e", "f"
-                        };
-                        final StringBuilder color = new StringBuilder();
-                        for (int idx = 0; idx < 6; idx++) {
-                            color.append(values[random.nextInt(values.length)]);
-                        }
-                        return color.toString();
-                    }
+        /**
+         * Create the labels concurrently, at most PARALLEL at a time.
+         * @param labels Labels of the repository.
+         * @param names Names of the labels to create.
+         * @throws IOException If any label could not be created.
+         */
+        private void create(
+            final Labels labels, final Collection<String> names
+        ) throws IOException {
+            final List<Callable<Label>> creations = new ArrayList<>();
+            for(final String name : names) {
+                final String color = this.pickRandom();
+                creations.add(() -> labels.create(name, color));
+            }
+            final ExecutorService creators = Executors.newFixedThreadPool(
+                Math.min(Create.PARALLEL, creations.size()),
+                runnable -> {
+                    final Thread thread = new Thread(
+                        runnable, "comdor-labels"
+                    );
+                    thread.setDaemon(true);
+                    return thread;
                 }
             );
-            log.logger().info("Labels successfully created!");
-            this.next().perform(command, log);
+            try {
+                for(final Future<Label> created
+                    : creators.invokeAll(creations)) {
+                    created.get();
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while creating labels", ex);
+            } catch (final ExecutionException ex) {
+                throw new IOException(
+                    "IOException when creating labels", ex.getCause()
+                );
+            } finally {
+                creators.shutdownNow();
+            }
+        }
+
+        /**
+         * Pick a random hex RGB color.
+         * @return String hex color (without the leading '#').
+         * @checkstyle MagicNumber (20 lines)
+         */
+        private String pickRandom() {
+            final String[] values = {
+                "0", "1", "2", "3", "4", "5", "6", "7", "8", "9",
+                "a", "b", "c", "d", "e", "f"
+            };
+            final StringBuilder color = new StringBuilder();
+            for (int idx = 0; idx < 6; idx++) {
+                color.append(values[this.colors.nextInt(values.length)]);
+            }
+            return color.toString();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jcabi.github.Github;
+
+/**
+ * Credentials with which the bot talks to Github, chosen per repository.
+ * Each credential has its own rate limit, so the more credentials, the more
+ * requests the bot can make.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public interface Credentials {
+
+    /**
+     * Github, authenticated with the credential chosen for the repository.
+     * @param repo Full name of the repository (owner/name).
+     * @return Github.
+     */
+    Github github(final String repo);
+
+    /**
+     * Rate limit of the credential chosen for the repository.
+     * @param repo Full name of the repository (owner/name).
+     * @return RateLimit.
+     */
+    RateLimit rateLimit(final String repo);
+
+    /**
+     * The credential chosen for the repository, pinned: it stays the same
+     * for the whole Action, even if the repository's owner is moved to
+     * another credential meanwhile.
+     * @param repo Full name of the repository (owner/name).
+     * @return Credentials.
+     */
+    Credentials chosen(final String repo);
+
+    /**
+     * The same Github for all the repositories.
+     */
+    final class Single implements Credentials {
+
+        /**
+         * Github.
+         */
+        private final Github github;
+
+        /**
+         * Its rate limit.
+         */
+        private final RateLimit limit;
+
+        /**
+         * Ctor.
+         * @param github Github.
+         * @param limit Its rate limit.
+         */
+        public Single(final Github github, final RateLimit limit) {
+            this.github = github;
+            this.limit = limit;
+        }
+
+        @Override
+        public Github github(final String repo) {
+            return this.github;
+        }
+
+        @Override
+        public RateLimit rateLimit(final String repo) {
+            return this.limit;
+        }
+
+        @Override
+        public Credentials chosen(final String repo) {
+            return this;
+        }
+    }
+
+    /**
+     * Pool of API tokens. An owner (user or organisation) can have its own
+     * token; the other owners share the rest of the tokens. Each owner
+     * sticks to the shared token it was given (the one with most requests
+     * left, or with the fewest owners, when that is not known yet) until
+     * the token's rate limit gets down to the reserve, which is kept for the
+     * Actions already running. Then it is moved to another one.
+     */
+    final class Pool implements Credentials {
+
+        /**
+         * Connections to Github.
+         */
+        private final Connections connections;
+
+        /**
+         * Tokens of the owners who have their own, by lower-cased owner.
+         */
+        private final Map<String, String> owners;
+
+        /**
+         * Tokens shared by the other owners.
+         */
+        private final List<String> shared;
+
+        /**
+         * Shared token given to each owner.
+         */
+        private final Map<String, String> assigned;
+
+        /**
+         * Github for each token.
+         */
+        private final Map<String, Github> githubs;
+
+        /**
+         * Rate limit of each token.
+         */
+        private final Map<String, RateLimit> limits;
+
+        /**
+         * Requests kept in reserve by each token.
+         */
+        private final int reserve;
+
+        /**
+         * Ctor.
+         * @param connections Connections to Github.
+         * @param owners Tokens of the owners who have their own.
+         * @param shared Tokens shared by the other owners.
+         */
+        public Pool(
+            final Connections connections, final Map<String, String> owners,
+            final List<String> shared
+        ) {
+            this(connections, owners, shared, 0);
+        }
+
+        /**
+         * Ctor.
+         * @param connections Connections to Github.
+         * @param owners Tokens of the owners who have their own.
+         * @param shared Tokens shared by the other owners.
+         * @param reserve Requests kept in reserve by each token; an owner
+         *  is moved to another token when its token gets down to them.
+         * @checkstyle ParameterNumber (5 lines)
+         */
+        public Pool(
+            final Connections connections, final Map<String, String> owners,
+            final List<String> shared, final int reserve
+        ) {
+            this.reserve = reserve;
+            this.connections = connections;
+            this.owners = new ConcurrentHashMap<>();
+            owners.forEach(
+                (owner, token) -> this.owners.put(
+                    owner.toLowerCase(Locale.ENGLISH), token
+                )
+            );
+            this.shared = shared;
+            this.assigned = new ConcurrentHashMap<>();
+            this.githubs = new ConcurrentHashMap<>();
+            this.limits = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public Github github(final String repo) {
+            return this.connected(this.token(repo));
+        }
+
+        @Override
+        public RateLimit rateLimit(final String repo) {
+            return this.limit(this.token(repo));
+        }
+
+        @Override
+        public Credentials chosen(final String repo) {
+            final String token = this.token(repo);
+            return new Credentials.Single(
+                this.connected(token), this.limit(token)
+            );
+        }
+
+        /**
+         * Token for the repository.
+         * @param repo Full name of the repository (owner/name).
+         * @return Token.
+         */
+        private String token(final String repo) {
+            final String owner = repo.split("/")[0].toLowerCase(Locale.ENGLISH);
+            String token = this.owners.get(owner);
+            if(token == null) {
+                synchronized (this.assigned) {
+                    token = this.assigned.get(owner);
+                    if(token == null || this.exhausted(token)) {
+                        token = this.freest();
+                        this.assigned.put(owner, token);
+                    }
+                }
+            }
+            return token;
+        }
+
+        /**
+         * The shared token with most requests left (a token which was not
+         * used yet counts as full) and, among those, with the fewest owners.
+         * @return Token.
+         */
+        private String freest() {
+            String freest = this.shared.get(0);
+            long most = -1;
+            int fewest = Integer.MAX_VALUE;
+            for(final String token : this.shared) {
+                long left = this.limit(token).remaining();
+                if(left < 0) {
+                    left = Long.MAX_VALUE;
+                }
+                final int users = Collections.frequency(
+                    this.assigned.values(), token
+                );
+                if(left > most || left == most && users < fewest) {
+                    freest = token;
+                    most = left;
+                    fewest = users;
+                }
+            }
+            return freest;
+        }
+
+        /**
+         * Is the token down to its reserve?
+         * @param token Token.
+         * @return True or false.
+         */
+        private boolean exhausted(final String token) {
+            final int left = this.limit(token).remaining();
+            return left >= 0 && left <= this.reserve;
+        }
+
+        /**
+         * Github of a token.
+         * @param token Token.
+         * @return Github.
+         */
+        private Github connected(final String token) {
+            return this.githubs.computeIfAbsent(
+                token, key -> this.connections.github(key, this.limit(key))
+            );
+        }
+
+        /**
+         * Rate limit of a token.
+         * @param token Token.
+         * @return RateLimit.
+         */
+        private RateLimit limit(final String token) {
+            return this.limits.computeIfAbsent(token, key -> new RateLimit());
+        }
+    }
+}
@@ -27,9 +27,7 @@ package co.comdor.github;
 
 import co.comdor.MetaScripts;
 import co.comdor.Scripts;
-import com.jcabi.github.Content;
 import com.jcabi.github.Issue;
-import java.io.ByteArrayInputStream;
 
 import javax.json.JsonObject;
 import java.io.IOException;
@@ -57,14 +55,32 @@ public abstract class JsonMention implements Command {
      */
     private final Issue issue;
 
+    /**
+     * Metadata of the repository.
+     */
+    private final Metadata metadata;
+
     /**
      * Ctor.
      * @param json Github Comment in Json.
      * @param issue Github Issue.
      */
     public JsonMention(final JsonObject json, final Issue issue) {
+        this(json, issue, new Metadata.Direct());
+    }
+
+    /**
+     * Ctor.
+     * @param json Github Comment in Json.
+     * @param issue Github Issue.
+     * @param metadata Metadata of the repository.
+     */
+    public JsonMention(
+        final JsonObject json, final Issue issue, final Metadata metadata
+    ) {
         this.json = json;
         this.issue = issue;
+        this.metadata = metadata;
     }
 
     @Override
@@ -75,23 +91,7 @@ public abstract class JsonMention implements Command {
 
     @Override
     public final ComdorYaml comdorYaml() throws IOException {
-        final ComdorYaml yaml;
-        if(this.issue.repo().contents().exists(".comdor.yml", "master")) {
-            yaml = new ComdorYamlRules(
-                new ComdorYamlInput(
-                    new ByteArrayInputStream(
-                        new Content.Smart(
-                            this.issue.repo()
-                                .contents()
-                                .get(".comdor.yml")
-                        ).decoded()
-                    )
-                )
-            );
-        } else {
-            yaml = new ComdorYaml.Missing();
-        }
-        return yaml;
+        return this.metadata.comdorYaml(this.issue.repo());
     }
     
     @Override
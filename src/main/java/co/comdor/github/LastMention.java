@@ -25,12 +25,12 @@
  */
 package co.comdor.github;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.jcabi.github.Comment;
 import com.jcabi.github.Issue;
-import javax.json.JsonObject;
 import java.io.IOException;
-import java.util.List;
+import java.io.UncheckedIOException;
+import javax.json.JsonObject;
 
 /**
  * Last comment on a Github issue, where the bot has been mentioned.
@@ -57,7 +57,54 @@ public final class LastMention extends JsonMention {
      * @throws IOException If something goes wrong with the HTTP calls.
      */
     public LastMention(final Issue issue) throws IOException {
-        super(LastMention.findLastMention(issue), issue);
+        this(
+            issue,
+            Iterables.transform(
+                Lists.reverse(Lists.newArrayList(issue.comments().iterate())),
+                comment -> {
+                    try {
+                        return comment.json();
+                    } catch (final IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            ),
+            new Metadata.Direct()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param issue Github issue.
+     * @param newest Comments of the issue, newest first. They are iterated
+     *  only until the mention or the bot's reply is found.
+     * @param metadata Metadata (bot's login, repository).
+     * @throws IOException If something goes wrong with the HTTP calls.
+     */
+    public LastMention(
+        final Issue issue, final Iterable<JsonObject> newest,
+        final Metadata metadata
+    ) throws IOException {
+        super(
+            LastMention.findLastMention(
+                metadata.login(issue.repo().github()), newest
+            ),
+            issue,
+            metadata
+        );
+    }
+
+    /**
+     * Ctor. Use it when the last mention is already known
+     * (e.g. it came with a webhook).
+     * @param comment Github comment, in Json.
+     * @param issue Github issue.
+     * @param metadata Metadata of the repository.
+     */
+    public LastMention(
+        final JsonObject comment, final Issue issue, final Metadata metadata
+    ) {
+        super(comment, issue, metadata);
     }
 
     @Override
@@ -83,34 +130,35 @@ public final class LastMention extends JsonMention {
 
     /**
      * Looks for the last mentioning comment in this Github issue.
-     * It searches for the most recent (bottoms up).
-     * @param issue Github Issue.
+     * It searches for the most recent (bottoms up) and stops as soon
+     * as it finds the mention or the bot's reply.
+     * @param agentLogin The bot's login.
+     * @param newest Comments of the issue, newest first.
      * @return JsonObject representing the Github comment as it is returned
      *  by the API.
      * @see https://developer.github.com/v3/issues/comments/
      * @throws IOException If something goes wrong with the HTTP calls.
      */
     private static JsonObject findLastMention(
-        final Issue issue
+        final String agentLogin, final Iterable<JsonObject> newest
     ) throws IOException {
-        final List<Comment> comments = Lists.newArrayList(
-            issue.comments().iterate()
-        );
-        final String agentLogin = issue.repo().github().users().self().login();
-        for(int idx=comments.size() - 1; idx >=0; idx = idx-1) {
-            final JsonObject current = comments.get(idx).json();
-            final boolean foundReply = agentLogin.equalsIgnoreCase(
-                current.getJsonObject("user").getString("login")
-            );
-            if(foundReply) {
-                throw new MentionLookupException(
-                    "Last mention is already answered!"
+        try {
+            for(final JsonObject current : newest) {
+                final boolean foundReply = agentLogin.equalsIgnoreCase(
+                    current.getJsonObject("user").getString("login")
                 );
-            } else {
-                if(current.getString("body").contains("@" + agentLogin)) {
-                    return current;
+                if(foundReply) {
+                    throw new MentionLookupException(
+                        "Last mention is already answered!"
+                    );
+                } else {
+                    if(current.getString("body").contains("@" + agentLogin)) {
+                        return current;
+                    }
                 }
             }
+        } catch (final UncheckedIOException ex) {
+            throw ex.getCause();
         }
         throw new MentionLookupException("No mention found!");
     }
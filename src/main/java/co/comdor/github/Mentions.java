@@ -0,0 +1,396 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import co.comdor.Log;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Issue;
+import com.jcabi.http.Request;
+import com.jcabi.http.response.JsonResponse;
+import com.jcabi.http.response.RestResponse;
+
+/**
+ * Where does the bot find the mention it should answer to?
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public interface Mentions {
+
+    /**
+     * The last mention, which the bot has to answer. Throws
+     * {@link MentionLookupException} if there is no mention to answer.
+     * @param log Log of the Action.
+     * @return Command.
+     * @throws IOException If something goes wrong with the HTTP calls.
+     */
+    Command last(final Log log) throws IOException;
+
+    /**
+     * The last mention is looked up in the Issue's comments, through the
+     * jcabi-github API (it works with any Github, including the mock one).
+     */
+    final class InIssue implements Mentions {
+
+        /**
+         * Github issue.
+         */
+        private final Issue issue;
+
+        /**
+         * Ctor.
+         * @param issue Github issue.
+         */
+        public InIssue(final Issue issue) {
+            this.issue = issue;
+        }
+
+        @Override
+        public Command last(final Log log) throws IOException {
+            return new LastMention(this.issue);
+        }
+    }
+
+    /**
+     * The last mention is looked up in the Issue's comments, which are
+     * fetched page by page, newest first, only until the mention (or the
+     * bot's reply) is found. It talks HTTP directly, so it needs a real
+     * Github, not a mock.
+     */
+    final class Paged implements Mentions {
+
+        /**
+         * Comments per page.
+         */
+        private static final int PAGE = 100;
+
+        /**
+         * Github issue.
+         */
+        private final Issue issue;
+
+        /**
+         * Metadata (bot's login, repository).
+         */
+        private final Metadata metadata;
+
+        /**
+         * Ctor.
+         * @param issue Github issue.
+         */
+        public Paged(final Issue issue) {
+            this(issue, new Metadata.Direct());
+        }
+
+        /**
+         * Ctor.
+         * @param issue Github issue.
+         * @param metadata Metadata (bot's login, repository).
+         */
+        public Paged(final Issue issue, final Metadata metadata) {
+            this.issue = issue;
+            this.metadata = metadata;
+        }
+
+        @Override
+        public Command last(final Log log) throws IOException {
+            final ReversedComments comments = new ReversedComments(
+                this.issue, Paged.PAGE
+            );
+            try {
+                return new LastMention(this.issue, comments, this.metadata);
+            } finally {
+                log.logger().info(
+                    "Looked for the last mention in " + comments.pages()
+                    + " page(s) of comments"
+                );
+            }
+        }
+    }
+
+    /**
+     * The last mention is the comment which came with the webhook's payload,
+     * so the Issue's comments are not listed anymore. They are checked
+     * (only the ones posted after the mention) just if the payload is stale,
+     * maybe the bot already answered it in the meantime.
+     */
+    final class InPayload implements Mentions {
+
+        /**
+         * Comments per page, when checking the newer ones.
+         */
+        private static final int PER_PAGE = 100;
+
+        /**
+         * Github issue.
+         */
+        private final Issue issue;
+
+        /**
+         * Github comment, from the webhook payload.
+         * @see https://developer.github.com/v3/issues/comments/
+         */
+        private final JsonObject comment;
+
+        /**
+         * A mention older than this is stale.
+         */
+        private final Duration fresh;
+
+        /**
+         * Metadata (bot's login, repository).
+         */
+        private final Metadata metadata;
+
+        /**
+         * Ctor.
+         * @param issue Github issue.
+         * @param comment Github comment from the webhook payload.
+         * @param fresh A mention older than this is stale.
+         */
+        public InPayload(
+            final Issue issue, final JsonObject comment, final Duration fresh
+        ) {
+            this(issue, comment, fresh, new Metadata.Direct());
+        }
+
+        /**
+         * Ctor.
+         * @param issue Github issue.
+         * @param comment Github comment from the webhook payload.
+         * @param fresh A mention older than this is stale.
+         * @param metadata Metadata (bot's login, repository).
+         * @checkstyle ParameterNumber (5 lines)
+         */
+        public InPayload(
+            final Issue issue, final JsonObject comment, final Duration fresh,
+            final Metadata metadata
+        ) {
+            this.issue = issue;
+            this.comment = comment;
+            this.fresh = fresh;
+            this.metadata = metadata;
+        }
+
+        @Override
+        public Command last(final Log log) throws IOException {
+            final String agentLogin = this.metadata.login(
+                this.issue.repo().github()
+            );
+            if(agentLogin.equalsIgnoreCase(
+                this.comment.getJsonObject("user").getString("login")
+            )) {
+                throw new MentionLookupException(
+                    "The comment is the bot's own reply!"
+                );
+            }
+            if(!this.comment.getString("body").contains("@" + agentLogin)) {
+                throw new MentionLookupException("No mention found!");
+            }
+            if(this.stale()) {
+                log.logger().info(
+                    "Mention from the payload is stale, checking newer comments"
+                );
+                this.checkNewer(agentLogin);
+            }
+            log.logger().info(
+                "Mention " + this.comment.getJsonNumber("id").longValueExact()
+                + " is from the payload"
+            );
+            return new LastMention(this.comment, this.issue, this.metadata);
+        }
+
+        /**
+         * Is the mention stale?
+         * @return True if it is older than the freshness threshold.
+         */
+        private boolean stale() {
+            return Instant.parse(this.comment.getString("created_at"))
+                .plus(this.fresh).isBefore(Instant.now());
+        }
+
+        /**
+         * Check the comments posted after the mention: maybe it has been
+         * answered already or there is a newer mention. Only the comments
+         * since the mention are fetched, not the whole Issue, but all their
+         * pages.
+         * @param agentLogin Login of the bot.
+         * @throws IOException If something goes wrong with the HTTP call.
+         */
+        private void checkNewer(final String agentLogin) throws IOException {
+            boolean found = false;
+            final long mention = this.comment.getJsonNumber("id")
+                .longValueExact();
+            int page = 1;
+            JsonArray newer = this.newer(page);
+            while(!newer.isEmpty()) {
+                for(final JsonValue value : newer) {
+                    final JsonObject current = (JsonObject) value;
+                    final long id = current.getJsonNumber("id")
+                        .longValueExact();
+                    if(id == mention) {
+                        found = true;
+                    } else if(id > mention) {
+                        InPayload.answered(current, agentLogin);
+                    }
+                }
+                if(newer.size() < InPayload.PER_PAGE) {
+                    newer = Json.createArrayBuilder().build();
+                } else {
+                    page = page + 1;
+                    newer = this.newer(page);
+                }
+            }
+            if(!found) {
+                throw new MentionLookupException("The mention was deleted!");
+            }
+        }
+
+        /**
+         * A page of the comments posted since the mention.
+         * @param page Number of the page, starting from 1.
+         * @return JsonArray.
+         * @throws IOException If something goes wrong with the HTTP call.
+         */
+        private JsonArray newer(final int page) throws IOException {
+            final Coordinates repo = this.issue.repo().coordinates();
+            return this.issue.repo().github().entry()
+                .uri().path("/repos")
+                .path(repo.user()).path(repo.repo())
+                .path("/issues").path(String.valueOf(this.issue.number()))
+                .path("/comments")
+                .queryParam("since", this.comment.getString("created_at"))
+                .queryParam("per_page", String.valueOf(InPayload.PER_PAGE))
+                .queryParam("page", String.valueOf(page))
+                .back()
+                .method(Request.GET)
+                .fetch()
+                .as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_OK)
+                .as(JsonResponse.class)
+                .json().readArray();
+        }
+
+        /**
+         * Is the mention answered or overridden by a newer comment?
+         * @param newer Comment posted after the mention.
+         * @param agentLogin Login of the bot.
+         */
+        private static void answered(
+            final JsonObject newer, final String agentLogin
+        ) {
+            if(agentLogin.equalsIgnoreCase(
+                newer.getJsonObject("user").getString("login")
+            )) {
+                throw new MentionLookupException(
+                    "Last mention is already answered!"
+                );
+            }
+            if(newer.getString("body").contains("@" + agentLogin)) {
+                throw new MentionLookupException(
+                    "There is a newer mention!"
+                );
+            }
+        }
+    }
+
+    /**
+     * While the last mention is looked up, the repository's .comdor.yml
+     * is fetched in parallel: they do not depend on each other and most
+     * commands need both. The mention's comdorYaml() waits for the fetch
+     * only if it has not finished yet.
+     * @checkstyle IllegalCatch (80 lines)
+     */
+    final class Prefetched implements Mentions {
+
+        /**
+         * Where the mention is actually looked up.
+         */
+        private final Mentions origin;
+
+        /**
+         * Github issue.
+         */
+        private final Issue issue;
+
+        /**
+         * Metadata (repository's .comdor.yml).
+         */
+        private final Metadata metadata;
+
+        /**
+         * Where the .comdor.yml is fetched.
+         */
+        private final Executor prefetch;
+
+        /**
+         * Ctor.
+         * @param origin Where the mention is actually looked up.
+         * @param issue Github issue.
+         * @param metadata Metadata (repository's .comdor.yml).
+         * @param prefetch Where the .comdor.yml is fetched.
+         * @checkstyle ParameterNumber (5 lines)
+         */
+        public Prefetched(
+            final Mentions origin, final Issue issue, final Metadata metadata,
+            final Executor prefetch
+        ) {
+            this.origin = origin;
+            this.issue = issue;
+            this.metadata = metadata;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public Command last(final Log log) throws IOException {
+            final FutureTask<ComdorYaml> yaml = new FutureTask<>(
+                () -> this.metadata.comdorYaml(this.issue.repo())
+            );
+            this.prefetch.execute(yaml);
+            final Command mention;
+            try {
+                mention = this.origin.last(log);
+            } catch (final IOException | RuntimeException ex) {
+                yaml.cancel(true);
+                throw ex;
+            }
+            return new PrefetchedMention(mention, yaml);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Repo;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.response.JsonResponse;
+import com.jcabi.http.response.RestResponse;
+
+/**
+ * Metadata which the Actions need over and over again, but which hardly
+ * ever changes: the bot's login, whether the bot starred the repositories
+ * and their .comdor.yml files.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public interface Metadata {
+
+    /**
+     * The bot's login.
+     * @param github Github, authenticated as the bot.
+     * @return String.
+     * @throws IOException If something goes wrong with the HTTP calls.
+     */
+    String login(final Github github) throws IOException;
+
+    /**
+     * Did the bot star the repository?
+     * @param repo Github repository.
+     * @return True or false.
+     * @throws IOException If something goes wrong with the HTTP calls.
+     */
+    boolean starred(final Repo repo) throws IOException;
+
+    /**
+     * A file from the repository's default branch, as Json (it contains
+     * the blob "sha" and the Base64 "content").
+     * @param repo Github repository.
+     * @param path Path of the file.
+     * @return JsonObject, empty if the file does not exist.
+     * @see https://developer.github.com/v3/repos/contents/#get-contents
+     * @throws IOException If something goes wrong with the HTTP calls.
+     */
+    JsonObject file(final Repo repo, final String path) throws IOException;
+
+    /**
+     * The repository's .comdor.yml, parsed and validated.
+     * @param repo Github repository.
+     * @return ComdorYaml, Missing if the repository does not have one.
+     * @throws IOException If something goes wrong with the HTTP calls.
+     */
+    ComdorYaml comdorYaml(final Repo repo) throws IOException;
+
+    /**
+     * Metadata read from Github, every time.
+     */
+    final class Direct implements Metadata {
+
+        @Override
+        public String login(final Github github) throws IOException {
+            return github.users().self().login();
+        }
+
+        @Override
+        public boolean starred(final Repo repo) throws IOException {
+            return repo.stars().starred();
+        }
+
+        @Override
+        public JsonObject file(
+            final Repo repo, final String path
+        ) throws IOException {
+            final JsonObject file;
+            final Coordinates coords = repo.coordinates();
+            final Response response = repo.github().entry()
+                .uri().path("/repos")
+                .path(coords.user()).path(coords.repo())
+                .path("/contents").path(path)
+                .back()
+                .method(Request.GET)
+                .fetch();
+            if(response.status() == HttpURLConnection.HTTP_NOT_FOUND) {
+                file = Json.createObjectBuilder().build();
+            } else {
+                file = response.as(RestResponse.class)
+                    .assertStatus(HttpURLConnection.HTTP_OK)
+                    .as(JsonResponse.class)
+                    .json().readObject();
+            }
+            return file;
+        }
+
+        @Override
+        public ComdorYaml comdorYaml(final Repo repo) throws IOException {
+            final ComdorYaml yaml;
+            final JsonObject file = this.file(repo, ".comdor.yml");
+            if(file.isEmpty()) {
+                yaml = new ComdorYaml.Missing();
+            } else {
+                yaml = new ComdorYamlRules(new ComdorYamlInput(file));
+            }
+            return yaml;
+        }
+    }
+
+    /**
+     * Metadata which is remembered for a while. At most capacity
+     * values are remembered (the least recently used are forgotten).
+     * Only positive answers are remembered about stars: once starred,
+     * a repository stays starred.<br><br>
+     * The .comdor.yml files are remembered by content: each repository
+     * points to the blob SHA of its file (or to Missing, if it has none)
+     * until the pointer expires or it is forgotten on a push. Then the file
+     * is read again, but it is parsed only if its SHA changed.
+     */
+    final class Cached implements Metadata {
+
+        /**
+         * Metadata read from Github.
+         */
+        private final Metadata origin;
+
+        /**
+         * How long is the metadata remembered, in millis.
+         */
+        private final long ttl;
+
+        /**
+         * How long is a repository's .comdor.yml remembered, in millis.
+         */
+        private final long yml;
+
+        /**
+         * Remembered values, with the moment they expire.
+         */
+        private final Map<String, Map.Entry<Object, Long>> values;
+
+        /**
+         * Remembered logins, per Github, with the moment they expire. The
+         * Github objects are weak keys, so they are forgotten when they are
+         * not used anymore.
+         */
+        private final Map<Github, Map.Entry<String, Long>> logins;
+
+        /**
+         * Ctor.
+         * @param origin Metadata read from Github.
+         * @param ttl How long is the metadata remembered.
+         * @param capacity How many values to remember.
+         */
+        public Cached(
+            final Metadata origin, final Duration ttl, final int capacity
+        ) {
+            this(origin, ttl, ttl, capacity);
+        }
+
+        /**
+         * Ctor.
+         * @param origin Metadata read from Github.
+         * @param ttl How long is the metadata remembered.
+         * @param yml How long is a repository's .comdor.yml remembered.
+         * @param capacity How many values to remember.
+         * @checkstyle ParameterNumber (5 lines)
+         */
+        public Cached(
+            final Metadata origin, final Duration ttl,
+            final Duration yml, final int capacity
+        ) {
+            this.origin = origin;
+            this.ttl = ttl.toMillis();
+            this.yml = yml.toMillis();
+            this.logins = new WeakHashMap<>();
+            this.values = new LinkedHashMap<String, Map.Entry<Object, Long>>(
+                capacity, 1, true
+            ) {
+                @Override
+                protected boolean removeEldestEntry(
+                    final Map.Entry<String, Map.Entry<Object, Long>> eldest
+                ) {
+                    return this.size() > capacity;
+                }
+            };
+        }
+
+        /**
+         * The bot's login, remembered per Github object, since each
+         * API token (see {@link Credentials}) may belong to another account.
+         * Github objects are equal only if they use the same token.
+         * @param github Github, authenticated as the bot.
+         * @return String.
+         * @throws IOException If something goes wrong with the HTTP calls.
+         */
+        @Override
+        public String login(final Github github) throws IOException {
+            String login = null;
+            synchronized (this.logins) {
+                final Map.Entry<String, Long> entry = this.logins.get(github);
+                if(entry != null
+                    && entry.getValue() > System.currentTimeMillis()) {
+                    login = entry.getKey();
+                }
+            }
+            if(login == null) {
+                login = this.origin.login(github);
+                synchronized (this.logins) {
+                    this.logins.put(
+                        github,
+                        new AbstractMap.SimpleImmutableEntry<>(
+                            login, System.currentTimeMillis() + this.ttl
+                        )
+                    );
+                }
+            }
+            return login;
+        }
+
+        @Override
+        public boolean starred(final Repo repo) throws IOException {
+            final String key = "starred:" + repo.coordinates();
+            boolean starred = this.remembered(key) != null;
+            if(!starred) {
+                starred = this.origin.starred(repo);
+                if(starred) {
+                    this.remember(key, Boolean.TRUE);
+                }
+            }
+            return starred;
+        }
+
+        @Override
+        public JsonObject file(
+            final Repo repo, final String path
+        ) throws IOException {
+            return this.origin.file(repo, path);
+        }
+
+        @Override
+        public ComdorYaml comdorYaml(final Repo repo) throws IOException {
+            final String key = "yml:" + repo.coordinates();
+            ComdorYaml yaml = (ComdorYaml) this.remembered(key);
+            if(yaml == null) {
+                final JsonObject file = this.origin.file(repo, ".comdor.yml");
+                if(file.isEmpty()) {
+                    yaml = new ComdorYaml.Missing();
+                } else {
+                    final String blob = "blob:" + file.getString("sha");
+                    yaml = (ComdorYaml) this.remembered(blob);
+                    if(yaml == null) {
+                        yaml = new ComdorYamlRules(new ComdorYamlInput(file));
+                        this.remember(blob, yaml, Long.MAX_VALUE);
+                    }
+                }
+                this.remember(key, yaml, System.currentTimeMillis() + this.yml);
+            }
+            return yaml;
+        }
+
+        /**
+         * Forget what is known about a repository's .comdor.yml, because
+         * it changed. E.g. on a push event.
+         * @param coordinates Coordinates of the repository (owner/name).
+         */
+        public void forget(final String coordinates) {
+            synchronized (this.values) {
+                this.values.remove("yml:" + coordinates);
+            }
+        }
+
+        /**
+         * A remembered value.
+         * @param key Key.
+         * @return Value or null if it is not remembered or it expired.
+         */
+        private Object remembered(final String key) {
+            synchronized (this.values) {
+                Object value = null;
+                final Map.Entry<Object, Long> entry = this.values.get(key);
+                if(entry != null) {
+                    if(entry.getValue() > System.currentTimeMillis()) {
+                        value = entry.getKey();
+                    } else {
+                        this.values.remove(key);
+                    }
+                }
+                return value;
+            }
+        }
+
+        /**
+         * Remember a value, for the metadata's ttl.
+         * @param key Key.
+         * @param value Value.
+         */
+        private void remember(final String key, final Object value) {
+            this.remember(key, value, System.currentTimeMillis() + this.ttl);
+        }
+
+        /**
+         * Remember a value.
+         * @param key Key.
+         * @param value Value.
+         * @param expires Moment when the value expires, in millis.
+         */
+        private void remember(
+            final String key, final Object value, final long expires
+        ) {
+            synchronized (this.values) {
+                this.values.put(
+                    key, new AbstractMap.SimpleImmutableEntry<>(value, expires)
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+
+import com.jcabi.http.ImmutableHeader;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.DefaultResponse;
+import com.jcabi.immutable.Array;
+
+/**
+ * Wire which sends the requests through a shared, pooled HttpClient,
+ * instead of opening a new connection for every request. It is a terminal
+ * Wire: the original transport is never used.<br><br>
+ * Use it like this:
+ * <pre>
+ *     request.through(PooledWire.class, client).fetch();
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle ParameterNumber (100 lines)
+ */
+public final class PooledWire implements Wire {
+
+    /**
+     * Shared HttpClient.
+     */
+    private final HttpClient client;
+
+    /**
+     * Ctor.
+     * @param origin Original wire, which is replaced by this one.
+     * @param client Shared HttpClient, sending the requests.
+     */
+    public PooledWire(final Wire origin, final HttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public Response send(
+        final Request req, final String home, final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read
+    ) throws IOException {
+        final HttpEntityEnclosingRequestBase request =
+            new HttpEntityEnclosingRequestBase() {
+                @Override
+                public String getMethod() {
+                    return method;
+                }
+            };
+        request.setURI(URI.create(home));
+        request.setConfig(
+            RequestConfig.custom()
+                .setConnectTimeout(connect)
+                .setSocketTimeout(read)
+                .build()
+        );
+        for(final Map.Entry<String, String> header : headers) {
+            if(!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                request.addHeader(header.getKey(), header.getValue());
+            }
+        }
+        final byte[] body = IOUtils.toByteArray(content);
+        if(body.length > 0) {
+            request.setEntity(new ByteArrayEntity(body));
+        }
+        final CloseableHttpResponse response =
+            (CloseableHttpResponse) this.client.execute(request);
+        try {
+            return new DefaultResponse(
+                req,
+                response.getStatusLine().getStatusCode(),
+                response.getStatusLine().getReasonPhrase(),
+                this.headers(response.getAllHeaders()),
+                this.consume(response.getEntity())
+            );
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Read the whole entity, so the connection can go back to the pool.
+     * @param entity Response entity, may be null.
+     * @return Bytes of the entity.
+     * @throws IOException If the entity cannot be read.
+     */
+    private byte[] consume(final HttpEntity entity) throws IOException {
+        final byte[] bytes;
+        if(entity == null) {
+            bytes = new byte[0];
+        } else {
+            bytes = EntityUtils.toByteArray(entity);
+        }
+        return bytes;
+    }
+
+    /**
+     * Convert the Apache headers.
+     * @param all Apache headers.
+     * @return Headers, as jcabi-http wants them.
+     */
+    private Array<Map.Entry<String, String>> headers(final Header... all) {
+        final Collection<Map.Entry<String, String>> converted =
+            new LinkedList<>();
+        for(final Header header : all) {
+            converted.add(
+                new ImmutableHeader(header.getName(), header.getValue())
+            );
+        }
+        return new Array<>(converted);
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.json.JsonObject;
+
+import co.comdor.Scripts;
+
+import com.jcabi.github.Issue;
+
+/**
+ * A Mention whose .comdor.yml is fetched in parallel, while the mention
+ * itself is looked up. Only comdorYaml() waits for the fetch.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class PrefetchedMention implements Command {
+
+    /**
+     * Decorated mention.
+     */
+    private final Command original;
+
+    /**
+     * The .comdor.yml, being fetched.
+     */
+    private final Future<ComdorYaml> yaml;
+
+    /**
+     * Ctor.
+     * @param original Decorated mention.
+     * @param yaml The .comdor.yml, being fetched.
+     */
+    public PrefetchedMention(
+        final Command original, final Future<ComdorYaml> yaml
+    ) {
+        this.original = original;
+        this.yaml = yaml;
+    }
+
+    @Override
+    public String author() {
+        return this.original.author();
+    }
+
+    @Override
+    public String type() {
+        return this.original.type();
+    }
+
+    @Override
+    public Language language() {
+        return this.original.language();
+    }
+
+    @Override
+    public Scripts scripts() {
+        return this.original.scripts();
+    }
+
+    @Override
+    public Issue issue() {
+        return this.original.issue();
+    }
+
+    @Override
+    public ComdorYaml comdorYaml() throws IOException {
+        try {
+            return this.yaml.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching .comdor.yml", ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if(cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Could not fetch .comdor.yml", cause);
+        }
+    }
+
+    @Override
+    public void reply(final String message) throws IOException {
+        this.original.reply(message);
+    }
+
+    @Override
+    public void understand(final Language... langs) throws IOException {
+        this.original.understand(langs);
+    }
+
+    @Override
+    public JsonObject json() {
+        return this.original.json();
+    }
+}
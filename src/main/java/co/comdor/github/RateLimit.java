@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+/**
+ * Github's rate limit, as the last responses told it (see
+ * {@link RateLimitWire}): how many requests are remaining, when the limit
+ * is reset and whether Github asked us to back off for a while (secondary
+ * rate limit).
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class RateLimit {
+
+    /**
+     * Milliseconds in a second.
+     */
+    private static final long MILLIS = 1000L;
+
+    /**
+     * Remaining requests, -1 if unknown.
+     */
+    private int remaining;
+
+    /**
+     * When is the limit reset, in epoch millis.
+     */
+    private long reset;
+
+    /**
+     * Until when should we back off, in epoch millis.
+     */
+    private long blocked;
+
+    /**
+     * Ctor. The limit is unknown until the first response.
+     */
+    public RateLimit() {
+        this.remaining = -1;
+    }
+
+    /**
+     * Github told us the limit.
+     * @param left Remaining requests.
+     * @param epoch When is the limit reset, in epoch seconds.
+     */
+    public synchronized void update(final int left, final long epoch) {
+        this.remaining = left;
+        this.reset = epoch * RateLimit.MILLIS;
+    }
+
+    /**
+     * Github asked us to back off.
+     * @param seconds For how many seconds.
+     */
+    public synchronized void block(final long seconds) {
+        this.blocked = Math.max(
+            this.blocked,
+            System.currentTimeMillis() + seconds * RateLimit.MILLIS
+        );
+    }
+
+    /**
+     * Remaining requests.
+     * @return Number of requests, -1 if unknown.
+     */
+    public synchronized int remaining() {
+        return this.remaining;
+    }
+
+    /**
+     * How long to wait before starting more work, so a reserve of requests
+     * is always left (e.g. for replying that something went wrong). Under
+     * the reserve we wait until the limit is reset; under twice the reserve
+     * we slow down, spreading the requests left until the reset.
+     * @param reserve Requests to keep in reserve.
+     * @return Milliseconds to wait, 0 if we can go on.
+     */
+    public synchronized long pause(final int reserve) {
+        final long now = System.currentTimeMillis();
+        long pause = this.hold(reserve);
+        if(this.remaining >= 0 && this.reset > now) {
+            if(this.remaining > reserve && this.remaining < 2 * reserve) {
+                pause = Math.max(
+                    pause, (this.reset - now) / (this.remaining - reserve)
+                );
+            }
+        }
+        return pause;
+    }
+
+    /**
+     * How long to stop all work: until Github lets us go on, if it asked
+     * us to back off, or until the limit is reset, if we're under the
+     * reserve. Unlike {@link #pause(int)}, it's 0 when we only have to
+     * slow down: the remaining requests don't change while we wait, so
+     * waiting for the spread interval again would mean stopping until
+     * the reset.
+     * @param reserve Requests to keep in reserve.
+     * @return Milliseconds to wait, 0 if we can go on.
+     */
+    public synchronized long hold(final int reserve) {
+        final long now = System.currentTimeMillis();
+        long hold = Math.max(0, this.blocked - now);
+        if(this.remaining >= 0 && this.remaining <= reserve
+            && this.reset > now) {
+            hold = Math.max(hold, this.reset - now);
+        }
+        return hold;
+    }
+}
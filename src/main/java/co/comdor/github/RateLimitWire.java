@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+
+/**
+ * Wire which reads Github's rate limit from every response
+ * (X-RateLimit-Remaining and X-RateLimit-Reset headers) and notices when
+ * Github asks us to back off (403 or 429 with Retry-After).<br><br>
+ * Use it like this:
+ * <pre>
+ *     request.through(RateLimitWire.class, limit).fetch();
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle ParameterNumber (100 lines)
+ */
+public final class RateLimitWire implements Wire {
+
+    /**
+     * Http status for too many requests.
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Original wire.
+     */
+    private final Wire origin;
+
+    /**
+     * The rate limit.
+     */
+    private final RateLimit limit;
+
+    /**
+     * Ctor.
+     * @param origin Original wire.
+     * @param limit The rate limit, shared by all the requests.
+     */
+    public RateLimitWire(final Wire origin, final RateLimit limit) {
+        this.origin = origin;
+        this.limit = limit;
+    }
+
+    @Override
+    public Response send(
+        final Request req, final String home, final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content, final int connect, final int read
+    ) throws IOException {
+        final Response response = this.origin.send(
+            req, home, method, headers, content, connect, read
+        );
+        final String remaining = RateLimitWire.header(
+            response, "X-RateLimit-Remaining"
+        );
+        final String reset = RateLimitWire.header(
+            response, "X-RateLimit-Reset"
+        );
+        if(remaining != null && remaining.matches("\\d{1,9}")
+            && reset != null && reset.matches("\\d{1,18}")) {
+            this.limit.update(
+                Integer.parseInt(remaining), Long.parseLong(reset)
+            );
+        }
+        final String after = RateLimitWire.header(response, "Retry-After");
+        if(after != null && after.matches("\\d{1,18}")
+            && (response.status() == HttpURLConnection.HTTP_FORBIDDEN
+            || response.status() == RateLimitWire.TOO_MANY_REQUESTS)) {
+            this.limit.block(Long.parseLong(after));
+        }
+        return response;
+    }
+
+    /**
+     * Value of a response header.
+     * @param response Response.
+     * @param name Name of the header.
+     * @return Value or null if the header is missing.
+     */
+    private static String header(final Response response, final String name) {
+        String value = null;
+        for(final Map.Entry<String, List<String>> header
+            : response.headers().entrySet()) {
+            if(name.equalsIgnoreCase(header.getKey())
+                && !header.getValue().isEmpty()) {
+                value = header.getValue().get(0).trim();
+                break;
+            }
+        }
+        return value;
+    }
+}
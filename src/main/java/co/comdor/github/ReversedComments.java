@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Issue;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.response.JsonResponse;
+import com.jcabi.http.response.RestResponse;
+
+/**
+ * Comments of a Github Issue, newest first. The pages are fetched lazily,
+ * backwards: the first page (it tells us, in the Link header, which is the
+ * last one), then the last page, the one before it and so on. Whoever stops
+ * iterating early saves the rest of the HTTP calls.<br><br>
+ * Since the iteration is lazy, the iterator throws
+ * {@link UncheckedIOException} if a page cannot be fetched.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class ReversedComments implements Iterable<JsonObject> {
+
+    /**
+     * Last page, from the Link header.
+     */
+    private static final Pattern LAST = Pattern.compile(
+        "<[^>]*[?&]page=(\\d+)[^>]*>;\\s*rel=\"last\""
+    );
+
+    /**
+     * Github issue.
+     */
+    private final Issue issue;
+
+    /**
+     * Comments per page.
+     */
+    private final int size;
+
+    /**
+     * Number of pages fetched so far.
+     */
+    private final AtomicInteger fetched;
+
+    /**
+     * Ctor.
+     * @param issue Github issue.
+     * @param size Comments per page (max 100).
+     */
+    public ReversedComments(final Issue issue, final int size) {
+        this.issue = issue;
+        this.size = size;
+        this.fetched = new AtomicInteger();
+    }
+
+    @Override
+    public Iterator<JsonObject> iterator() {
+        return new Newest();
+    }
+
+    /**
+     * How many pages have been fetched so far?
+     * @return Integer.
+     */
+    public int pages() {
+        return this.fetched.get();
+    }
+
+    /**
+     * Fetch a page of comments.
+     * @param page Number of the page, starting from 1.
+     * @return Response.
+     * @throws IOException If something goes wrong with the HTTP call.
+     */
+    private Response page(final int page) throws IOException {
+        final Coordinates repo = this.issue.repo().coordinates();
+        final Response response = this.issue.repo().github().entry()
+            .uri().path("/repos")
+            .path(repo.user()).path(repo.repo())
+            .path("/issues").path(String.valueOf(this.issue.number()))
+            .path("/comments")
+            .queryParam("per_page", String.valueOf(this.size))
+            .queryParam("page", String.valueOf(page))
+            .back()
+            .method(Request.GET)
+            .fetch()
+            .as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK);
+        this.fetched.incrementAndGet();
+        return response;
+    }
+
+    /**
+     * Comments from a page, newest first.
+     * @param response Response with the page.
+     * @return List of comments.
+     */
+    private static LinkedList<JsonObject> reversed(final Response response) {
+        final JsonArray array = response.as(JsonResponse.class)
+            .json().readArray();
+        final LinkedList<JsonObject> comments = new LinkedList<>();
+        for(final JsonValue comment : array) {
+            comments.addFirst((JsonObject) comment);
+        }
+        return comments;
+    }
+
+    /**
+     * Number of the last page, read from the Link header.
+     * @param response Response with the first page.
+     * @return Integer, 1 if there is no Link header.
+     */
+    private static int last(final Response response) {
+        int last = 1;
+        final List<String> links = response.headers().get("Link");
+        if(links != null) {
+            for(final String link : links) {
+                final Matcher matcher = LAST.matcher(link);
+                if(matcher.find()) {
+                    last = Integer.parseInt(matcher.group(1));
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Iterator over the comments, newest first.
+     */
+    private final class Newest implements Iterator<JsonObject> {
+
+        /**
+         * Comments of the current page, still to be iterated.
+         */
+        private LinkedList<JsonObject> current = new LinkedList<>();
+
+        /**
+         * The first page, which is iterated last.
+         */
+        private LinkedList<JsonObject> first;
+
+        /**
+         * Next page to fetch, going backwards. 0 means no more pages.
+         */
+        private int next = -1;
+
+        @Override
+        public boolean hasNext() {
+            while(this.current.isEmpty() && this.next != 0) {
+                this.load();
+            }
+            return !this.current.isEmpty();
+        }
+
+        @Override
+        public JsonObject next() {
+            if(!this.hasNext()) {
+                throw new NoSuchElementException("No more comments.");
+            }
+            return this.current.removeFirst();
+        }
+
+        /**
+         * Load the next page, going backwards.
+         */
+        private void load() {
+            try {
+                if(this.next < 0) {
+                    final Response response = ReversedComments.this.page(1);
+                    this.first = ReversedComments.reversed(response);
+                    this.next = ReversedComments.last(response);
+                }
+                if(this.next == 1) {
+                    this.current = this.first;
+                } else {
+                    this.current = ReversedComments.reversed(
+                        ReversedComments.this.page(this.next)
+                    );
+                }
+                this.next = this.next - 1;
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
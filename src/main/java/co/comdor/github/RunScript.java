@@ -29,6 +29,7 @@ import java.io.IOException;
 
 import co.comdor.FireUpDocker;
 import co.comdor.Knowledge;
+import co.comdor.LiveContainers;
 import co.comdor.Log;
 import co.comdor.Step;
 
@@ -45,12 +46,27 @@ public final class RunScript implements Knowledge {
      */
     private Knowledge notRun;
 
+    /**
+     * Containers which are running now.
+     */
+    private LiveContainers live;
+
     /**
      * Ctor.
      * @param notRun What do we do if it's not a 'run' command?
      */
     public RunScript(final Knowledge notRun) {
+        this(notRun, new LiveContainers());
+    }
+
+    /**
+     * Ctor.
+     * @param notRun What do we do if it's not a 'run' command?
+     * @param live Containers which are running now.
+     */
+    public RunScript(final Knowledge notRun, final LiveContainers live) {
         this.notRun = notRun;
+        this.live = live;
     }
 
     @Override
@@ -87,7 +103,8 @@ public final class RunScript implements Knowledge {
                                     mention.author(),
                                     log.location()
                                 )
-                            )
+                            ),
+                            this.live
                         )
                     ),
                     new CommanderCheck(
@@ -31,9 +31,10 @@ import co.comdor.Log;
 import co.comdor.Step;
 
 /**
- * Social steps. Follow the user and star the repository.
- * @todo #34:30min StarRepo and FollowUser are each tested separately, but some
- *  tests for this class would also be useful.
+ * Social steps. Follow the user and star the repository, as courtesies
+ * offered after the actual steps were performed.
+ * @todo #34:30min Courtesies are tested separately, but some tests for this
+ *  class would also be useful.
  */
 public final class Social implements Step {
 
@@ -42,13 +43,28 @@ public final class Social implements Step {
      * Actual steps performed to fulfil the command.
      */
     private final Step original;
+
+    /**
+     * Courtesies: star the repository and follow the user.
+     */
+    private final Courtesies courtesies;
         
     /**
      * Ctor.
      * @param original Actual steps to execute.
      */    
     public Social(final Step original) {
+        this(original, new Courtesies(new Metadata.Direct()));
+    }
+
+    /**
+     * Ctor.
+     * @param original Actual steps to execute.
+     * @param courtesies Courtesies to offer after the actual steps.
+     */
+    public Social(final Step original, final Courtesies courtesies) {
         this.original = original;
+        this.courtesies = courtesies;
     }
 
     @Override
@@ -56,13 +72,7 @@ public final class Social implements Step {
         final Command command, final Log log
     ) throws IOException {
         this.original.perform(command, log);
-        try {
-            new StarRepo(
-                new FollowUser(
-                    new Step.FinalStep()
-                )
-            ).perform(command, log);
-        } catch (final IOException ioe){}
+        this.courtesies.offer(command, log);
     }
     
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import javax.ejb.EJB;
+import javax.ejb.Stateless;
+import javax.json.JsonObject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * REST resource for the Actions' statuses.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle DesignForExtension (100 lines)
+ */
+@Path("/actions/")
+@Stateless
+public class ActionsResource {
+
+    /**
+     * The agent, which takes the Actions.
+     */
+    @EJB
+    private Agent agent;
+
+    /**
+     * How many of the last Actions are in each stage.
+     * @return HTTP Response with a Json object, e.g.
+     *  {"queued": 3, "resolving": 1, "executing": 2, "done": 95}.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response summary() {
+        return Response.ok(this.agent.statuses().summary()).build();
+    }
+
+    /**
+     * Status of an Action by id: its current stage and when it reached
+     * each stage (queued, resolving, executing, done or failed).
+     * @param id The Action's id (its log file is {id}.log).
+     * @return HTTP Response, 404 NOT FOUND if the Action is unknown.
+     */
+    @Path("/{id}")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response status(@PathParam("id") final String id) {
+        final JsonObject status = this.agent.statuses().status(id);
+        final Response response;
+        if(status.isEmpty()) {
+            response = Response.status(Response.Status.NOT_FOUND).build();
+        } else {
+            response = Response.ok(status).build();
+        }
+        return response;
+    }
+}
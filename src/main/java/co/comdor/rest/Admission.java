@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * Admission control in front of the Actions. A notification is admitted
+ * only if there is a token both in the global bucket and in the bucket of
+ * its repository, so one busy repository cannot use up all the capacity
+ * and a burst from everywhere cannot flood the agent.<br><br>
+ * The repositories' buckets are kept in a bounded LRU map: a repository
+ * which was not heard of in a while starts again with a full bucket.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class Admission {
+
+    /**
+     * Global bucket.
+     */
+    private final TokenBucket global;
+
+    /**
+     * Capacity of each repository's bucket.
+     */
+    private final double capacity;
+
+    /**
+     * Refill rate (tokens per second) of each repository's bucket.
+     */
+    private final double rate;
+
+    /**
+     * Buckets by repository full name.
+     */
+    private final Map<String, TokenBucket> repos;
+
+    /**
+     * Ctor.
+     * @param global Global bucket.
+     * @param capacity Capacity of each repository's bucket.
+     * @param rate Tokens added per second, in each repository's bucket.
+     * @param repos Maximum number of repositories' buckets to remember.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    public Admission(
+        final TokenBucket global, final double capacity,
+        final double rate, final int repos
+    ) {
+        this.global = global;
+        this.capacity = capacity;
+        this.rate = rate;
+        this.repos = new LinkedHashMap<String, TokenBucket>() {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, TokenBucket> eldest
+            ) {
+                return this.size() > repos;
+            }
+        };
+    }
+
+    /**
+     * Is this repository's notification admitted now?
+     * @param repo Full name of the repository.
+     * @return True if admitted, false if it should be tried again later.
+     */
+    public boolean admit(final String repo) {
+        final TokenBucket bucket = this.bucket(repo);
+        boolean admitted = bucket.take();
+        if(admitted && !this.global.take()) {
+            bucket.giveBack();
+            admitted = false;
+        }
+        return admitted;
+    }
+
+    /**
+     * Give back the tokens of an admitted notification which was not taken
+     * after all (e.g. the Actions queue was full), so it is not charged
+     * for work which was never done.
+     * @param repo Full name of the repository.
+     */
+    public void refund(final String repo) {
+        this.bucket(repo).giveBack();
+        this.global.giveBack();
+    }
+
+    /**
+     * Seconds until a notification from this repository could be admitted.
+     * @param repo Full name of the repository.
+     * @return Seconds, at least 1.
+     */
+    public long retryAfter(final String repo) {
+        return Math.max(
+            1,
+            Math.max(this.global.retryAfter(), this.bucket(repo).retryAfter())
+        );
+    }
+
+    /**
+     * Current levels of the buckets.
+     * @return Json object, e.g.
+     *  {"global": 97.5, "repos": {"amihaiemil/comdor": 3.0}}.
+     */
+    public JsonObject levels() {
+        final JsonObjectBuilder levels = Json.createObjectBuilder();
+        synchronized (this.repos) {
+            for(final Map.Entry<String, TokenBucket> entry
+                : this.repos.entrySet()) {
+                levels.add(entry.getKey(), entry.getValue().level());
+            }
+        }
+        return Json.createObjectBuilder()
+            .add("global", this.global.level())
+            .add("repos", levels)
+            .build();
+    }
+
+    /**
+     * The bucket of a repository. It is put back at the end of the map,
+     * as the most recently used.
+     * @param repo Full name of the repository.
+     * @return TokenBucket.
+     */
+    private TokenBucket bucket(final String repo) {
+        synchronized (this.repos) {
+            TokenBucket bucket = this.repos.remove(repo);
+            if(bucket == null) {
+                bucket = new TokenBucket(this.capacity, this.rate);
+            }
+            this.repos.put(repo, bucket);
+            return bucket;
+        }
+    }
+}
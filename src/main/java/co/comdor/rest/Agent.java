@@ -0,0 +1,600 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.LiveContainers;
+import co.comdor.SystemProperties;
+import co.comdor.github.Backoff;
+import co.comdor.github.CachedResponses;
+import co.comdor.github.CircuitBreaker;
+import co.comdor.github.Connections;
+import co.comdor.github.Courtesies;
+import co.comdor.github.Credentials;
+import co.comdor.github.Memo;
+import co.comdor.github.Metadata;
+import co.comdor.rest.model.Notification;
+
+/**
+ * The agent. It holds the components which live as long as the application
+ * and are shared between all the requests (e.g. the Actions queue or the
+ * pool of connections to Github).
+ * Concurrency is bean-managed because the components are thread-safe
+ * themselves; container-managed locking would serialize every request.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle DesignForExtension (300 lines)
+ * @checkstyle ClassDataAbstractionCoupling (300 lines)
+ * @checkstyle ClassFanOutComplexity (300 lines)
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class Agent {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        Agent.class.getName()
+    );
+
+    /**
+     * Connections to Github.
+     */
+    private Connections connections;
+
+    /**
+     * Workers, taking the Actions fairly, per repository.
+     */
+    private FairActions workers;
+
+    /**
+     * Journal of the accepted notifications.
+     */
+    private Journal journal;
+
+    /**
+     * Actions written in the journal.
+     */
+    private JournaledActions journaled;
+
+    /**
+     * Actions coalesced per Issue.
+     */
+    private CoalescedActions coalesced;
+
+    /**
+     * Actions to take.
+     */
+    private DistinctActions actions;
+
+    /**
+     * Webhook deliveries and comments which were already handled.
+     */
+    private Duplicates duplicates;
+
+    /**
+     * Filter for the webhook events.
+     */
+    private WebhookFilter filter;
+
+    /**
+     * Admission control for the incoming notifications.
+     */
+    private Admission admission;
+
+    /**
+     * Statuses of the Actions.
+     */
+    private Statuses statuses;
+
+    /**
+     * Docker containers which are running now.
+     */
+    private LiveContainers live;
+
+    /**
+     * Metadata of the repositories, remembered for a while.
+     */
+    private Metadata.Cached metadata;
+
+    /**
+     * Low-priority thread where the courtesies (star the repository,
+     * follow the user) are done.
+     */
+    private ExecutorService background;
+
+    /**
+     * Threads where the Actions prefetch what they need from Github.
+     */
+    private ExecutorService prefetch;
+
+    /**
+     * Scheduler of the Actions parked while Github is unavailable or
+     * its rate limit is almost exhausted.
+     */
+    private ScheduledExecutorService parked;
+
+    /**
+     * Start the agent's components and replay the notifications which
+     * were not finished before the last stop.
+     */
+    @PostConstruct
+    public void start() {
+        final String login = new SystemProperties.GithubLogin().toString();
+        if(login.isEmpty()) {
+            LOG.warn(
+                "Missing comdor.login; webhook events will be filtered only "
+                + "by their action type!"
+            );
+        }
+        this.filter = new WebhookFilter(login);
+        this.admission = new Admission(
+            new TokenBucket(
+                Double.parseDouble(
+                    new SystemProperties.AdmissionCapacity().toString()
+                ),
+                Double.parseDouble(
+                    new SystemProperties.AdmissionRate().toString()
+                )
+            ),
+            Double.parseDouble(
+                new SystemProperties.AdmissionRepoCapacity().toString()
+            ),
+            Double.parseDouble(
+                new SystemProperties.AdmissionRepoRate().toString()
+            ),
+            Integer.parseInt(new SystemProperties.AdmissionRepos().toString())
+        );
+        this.connections = new Connections(
+            Agent.httpClient(),
+            Agent.cachedResponses(),
+            new CircuitBreaker(
+                Integer.parseInt(
+                    new SystemProperties.GithubCircuitFailures().toString()
+                ),
+                Duration.ofSeconds(
+                    Long.parseLong(
+                        new SystemProperties.GithubCircuitSlow().toString()
+                    )
+                ),
+                Duration.ofSeconds(
+                    Long.parseLong(
+                        new SystemProperties.GithubCircuitCooldown().toString()
+                    )
+                )
+            ),
+            Agent.backoff()
+        );
+        this.duplicates = Agent.duplicatesStore();
+        this.journal = Agent.openJournal();
+        this.statuses = new Statuses(
+            Integer.parseInt(new SystemProperties.ActionsHistory().toString())
+        );
+        this.live = new LiveContainers();
+        this.metadata = new Metadata.Cached(
+            new Metadata.Direct(),
+            Duration.ofSeconds(
+                Long.parseLong(new SystemProperties.MetadataTtl().toString())
+            ),
+            Duration.ofSeconds(
+                Long.parseLong(new SystemProperties.ComdorYmlTtl().toString())
+            ),
+            Integer.parseInt(new SystemProperties.MetadataCapacity().toString())
+        );
+        this.background = Agent.backgroundThread();
+        this.prefetch = Executors.newFixedThreadPool(
+            Integer.parseInt(new SystemProperties.ActionsWorkers().toString())
+        );
+        this.parked = Executors.newSingleThreadScheduledExecutor();
+        this.workers = new FairActions(
+            this.reaction(),
+            Integer.parseInt(new SystemProperties.ActionsWorkers().toString()),
+            Integer.parseInt(
+                new SystemProperties.ActionsSlowWorkers().toString()
+            ),
+            Integer.parseInt(new SystemProperties.ActionsQueue().toString()),
+            Integer.parseInt(new SystemProperties.ActionsPerRepo().toString()),
+            Agent.weights()
+        );
+        this.journaled = new JournaledActions(
+            new TrackedActions(this.workers, this.statuses), this.journal
+        );
+        final long debounce = Long.parseLong(
+            new SystemProperties.ActionsDebounce().toString()
+        );
+        this.coalesced = new CoalescedActions(
+            this.journaled,
+            debounce,
+            Integer.parseInt(new SystemProperties.ActionsQueue().toString())
+        );
+        this.actions = new DistinctActions(this.coalesced, this.duplicates);
+        this.journaled.replay(debounce);
+    }
+
+    /**
+     * Stop the agent, gracefully: no more notifications are accepted (they
+     * are answered with 503), the waiting ones are left in the journal and
+     * the running Actions get comdor.shutdown.deadline seconds to finish.
+     * After the deadline, the journal is closed (so the unfinished Actions
+     * are replayed at the next start), the Actions are interrupted and
+     * their Docker containers are killed.
+     */
+    @PreDestroy
+    public void stop() {
+        this.coalesced.close();
+        this.journaled.close();
+        this.parked.shutdownNow();
+        final boolean drained = this.workers.drain(
+            Duration.ofSeconds(
+                Long.parseLong(
+                    new SystemProperties.ShutdownDeadline().toString()
+                )
+            )
+        );
+        try {
+            this.journal.close();
+        } catch (final IOException ex) {
+            LOG.warn("IOException when closing the journal", ex);
+        }
+        if(!drained) {
+            LOG.warn("Deadline passed, interrupting the running Actions.");
+            this.workers.interrupt();
+            LOG.warn(this.live.killAll() + " Docker container(s) killed.");
+        }
+        this.prefetch.shutdownNow();
+        this.background.shutdownNow();
+        try {
+            this.connections.close();
+        } catch (final IOException ex) {
+            LOG.warn("IOException when stopping the agent", ex);
+        }
+    }
+
+    /**
+     * Was the notification handled already (a redelivered comment)?
+     * @param notification Notification.
+     * @return True if it is a duplicate.
+     */
+    public boolean handled(final Notification notification) {
+        return this.actions.handled(notification);
+    }
+
+    /**
+     * Actions which the agent has to take.
+     * @return Actions.
+     */
+    public Actions actions() {
+        return this.actions;
+    }
+
+    /**
+     * Webhook deliveries and comments which were already handled.
+     * @return Duplicates.
+     */
+    public Duplicates duplicates() {
+        return this.duplicates;
+    }
+
+    /**
+     * Filter for the incoming webhook events.
+     * @return WebhookFilter.
+     */
+    public WebhookFilter filter() {
+        return this.filter;
+    }
+
+    /**
+     * Admission control for the incoming notifications.
+     * @return Admission.
+     */
+    public Admission admission() {
+        return this.admission;
+    }
+
+    /**
+     * Statuses of the Actions.
+     * @return Statuses.
+     */
+    public Statuses statuses() {
+        return this.statuses;
+    }
+
+    /**
+     * Metadata of the repositories, remembered for a while.
+     * @return Metadata.Cached.
+     */
+    public Metadata.Cached metadata() {
+        return this.metadata;
+    }
+
+    /**
+     * Store of the webhook deliveries and comments which were already
+     * handled.
+     * @return Duplicates.
+     */
+    private static Duplicates duplicatesStore() {
+        final String file = new SystemProperties.DuplicatesFile().toString();
+        Path path = null;
+        if(!file.isEmpty()) {
+            path = Paths.get(file);
+        }
+        return new Duplicates(
+            Integer.parseInt(
+                new SystemProperties.DuplicatesCapacity().toString()
+            ),
+            Duration.ofSeconds(
+                Long.parseLong(new SystemProperties.DuplicatesTtl().toString())
+            ),
+            path
+        );
+    }
+
+    /**
+     * How the agent reacts to notifications: it chats in the Issue, marks
+     * the notification done in the journal, when finished, and it parks
+     * the Actions (without holding a worker) while Github's rate limit is
+     * almost exhausted or Github is unavailable.
+     * @return Reaction.
+     */
+    private Reaction reaction() {
+        final int reserve = Integer.parseInt(
+            new SystemProperties.GithubReserve().toString()
+        );
+        final Duration fresh = Duration.ofSeconds(
+            Long.parseLong(new SystemProperties.MentionFreshness().toString())
+        );
+        final Courtesies courtesies = new Courtesies(
+            this.metadata, Agent.courtesiesMemo(), this.background
+        );
+        return new CircuitReaction(
+            new PacedReaction(
+                chosen -> new JournaledReaction(
+                    new ChatReaction(
+                        chosen, fresh, this.statuses, this.live,
+                        this.metadata, courtesies, this.prefetch
+                    ),
+                    this.journal
+                ),
+                this.credentials(reserve),
+                reserve,
+                notification -> this.workers.take(notification),
+                this.parked
+            ),
+            this.connections.breaker(),
+            notification -> this.workers.take(notification),
+            this.parked
+        );
+    }
+
+    /**
+     * Pool of the Github API tokens: comdor.api.token and the ones from
+     * comdor.api.tokens (owner=token or just token).
+     * @param reserve Requests kept in reserve by each token.
+     * @return Credentials.
+     */
+    private Credentials credentials(final int reserve) {
+        final Map<String, String> owners = new HashMap<>();
+        final List<String> shared = new ArrayList<>();
+        for(final String entry
+            : new SystemProperties.GithubApiTokens().toString().split(",")) {
+            final String[] parts = entry.trim().split("=", 2);
+            if(parts.length == 2) {
+                owners.put(parts[0].trim(), parts[1].trim());
+            } else if(!parts[0].isEmpty()) {
+                shared.add(parts[0]);
+            }
+        }
+        final String token = new SystemProperties.GithubApiToken().toString();
+        if(!token.isEmpty() || shared.isEmpty()) {
+            shared.add(0, token);
+        }
+        return new Credentials.Pool(
+            this.connections, owners, shared, reserve
+        );
+    }
+
+    /**
+     * Low-priority, daemon thread, with a bounded queue: when it is full,
+     * the tasks are rejected.
+     * @return ExecutorService.
+     */
+    private static ExecutorService backgroundThread() {
+        return new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(
+                Integer.parseInt(
+                    new SystemProperties.CourtesiesQueue().toString()
+                )
+            ),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "comdor-courtesies");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Repositories already starred and users already followed, kept
+     * under LOG_ROOT, so they survive a restart.
+     * @return Memo.
+     */
+    private static Memo courtesiesMemo() {
+        return new Duplicates(
+            Integer.parseInt(
+                new SystemProperties.CourtesiesCapacity().toString()
+            ),
+            Duration.ofSeconds(
+                Long.parseLong(new SystemProperties.CourtesiesTtl().toString())
+            ),
+            Paths.get(
+                new SystemProperties.LogRoot().toString(),
+                "comdor", "courtesies"
+            )
+        );
+    }
+
+    /**
+     * Retry policy of the Github calls, as configured.
+     * @return Backoff.
+     */
+    private static Backoff backoff() {
+        return new Backoff(
+            Integer.parseInt(
+                new SystemProperties.GithubRetryAttempts().toString()
+            ),
+            Duration.ofMillis(
+                Long.parseLong(
+                    new SystemProperties.GithubRetryBase().toString()
+                )
+            ),
+            Duration.ofMillis(
+                Long.parseLong(new SystemProperties.GithubRetryCap().toString())
+            ),
+            Duration.ofSeconds(
+                Long.parseLong(
+                    new SystemProperties.GithubRetryBudget().toString()
+                )
+            )
+        );
+    }
+
+    /**
+     * Pooled HttpClient for the Github API: at most
+     * comdor.github.connections connections, closed after
+     * comdor.github.idle seconds of idleness.
+     * @return CloseableHttpClient.
+     */
+    private static CloseableHttpClient httpClient() {
+        final int max = Integer.parseInt(
+            new SystemProperties.GithubConnections().toString()
+        );
+        return HttpClients.custom()
+            .useSystemProperties()
+            .setMaxConnTotal(max)
+            .setMaxConnPerRoute(max)
+            .evictExpiredConnections()
+            .evictIdleConnections(
+                Long.parseLong(
+                    new SystemProperties.GithubIdleTimeout().toString()
+                ),
+                TimeUnit.SECONDS
+            )
+            .build();
+    }
+
+    /**
+     * Github responses remembered for conditional requests, in memory and,
+     * if comdor.github.cache.disk is true, on disk, under LOG_ROOT (up to
+     * comdor.github.cache.limit bytes).
+     * @return CachedResponses.
+     */
+    private static CachedResponses cachedResponses() {
+        Path dir = null;
+        if(Boolean.parseBoolean(
+            new SystemProperties.GithubCacheDisk().toString()
+        )) {
+            dir = Paths.get(
+                new SystemProperties.LogRoot().toString(),
+                "comdor", "responses"
+            );
+        }
+        return new CachedResponses(
+            Long.parseLong(new SystemProperties.GithubCache().toString()),
+            dir,
+            Duration.ofSeconds(
+                Long.parseLong(new SystemProperties.GithubCacheAge().toString())
+            ),
+            Long.parseLong(new SystemProperties.GithubCacheLimit().toString())
+        );
+    }
+
+    /**
+     * Weights of the repositories, read from comdor.actions.weights.
+     * @return Map of weights, by repository full name.
+     */
+    private static Map<String, Integer> weights() {
+        final Map<String, Integer> weights = new HashMap<>();
+        for(final String weight
+            : new SystemProperties.ActionsWeights().toString().split(",")) {
+            final String[] parts = weight.trim().split("=");
+            if(parts.length == 2) {
+                weights.put(parts[0].trim(), Integer.valueOf(parts[1].trim()));
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Open the journal of notifications, under LOG_ROOT.
+     * @return Journal.
+     */
+    private static Journal openJournal() {
+        try {
+            return new Journal(
+                Paths.get(
+                    new SystemProperties.LogRoot().toString(),
+                    "comdor", "journal", "notifications.journal"
+                ),
+                Integer.parseInt(
+                    new SystemProperties.JournalCompaction().toString()
+                )
+            );
+        } catch (final IOException ex) {
+            throw new IllegalStateException("Could not open the journal", ex);
+        }
+    }
+}
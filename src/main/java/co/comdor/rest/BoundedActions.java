@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.Lanes;
+import co.comdor.rest.model.Notification;
+
+/**
+ * Actions performed by a fixed number of workers. Actions which cannot be
+ * started right away wait in a queue with limited capacity; when the queue
+ * is full, new Actions are rejected. There is a single lane: slow Actions
+ * are performed by the same workers.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle IllegalCatch (150 lines)
+ */
+public final class BoundedActions implements Actions {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        BoundedActions.class.getName()
+    );
+
+    /**
+     * How do we react to notifications?
+     */
+    private final Reaction reaction;
+
+    /**
+     * Workers performing the Actions.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Ctor.
+     * @param reaction How do we react to notifications?
+     * @param workers Number of workers.
+     * @param capacity How many Actions can wait for a free worker.
+     */
+    public BoundedActions(
+        final Reaction reaction, final int workers, final int capacity
+    ) {
+        this(
+            reaction,
+            new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                new ThreadPoolExecutor.AbortPolicy()
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param reaction How do we react to notifications?
+     * @param workers Workers performing the Actions. They should reject
+     *  new tasks (throw RejectedExecutionException) when they are full.
+     */
+    public BoundedActions(
+        final Reaction reaction, final ExecutorService workers
+    ) {
+        this.reaction = reaction;
+        this.workers = workers;
+    }
+
+    @Override
+    public boolean take(final Notification notification) {
+        boolean accepted;
+        try {
+            this.workers.execute(() -> this.perform(notification));
+            accepted = true;
+        } catch (final RejectedExecutionException ex) {
+            LOG.warn(
+                "No room for the Action triggered by "
+                + notification.repoFullName() + "#"
+                + notification.issueNumber()
+            );
+            accepted = false;
+        }
+        return accepted;
+    }
+
+    /**
+     * Stop accepting Actions. The ones already accepted are still performed.
+     */
+    public void close() {
+        this.workers.shutdown();
+    }
+
+    /**
+     * Perform the Action triggered by the given notification.
+     * @param notification Notification.
+     */
+    private void perform(final Notification notification) {
+        try {
+            this.reaction.react(notification, new Lanes.Single()).perform();
+        } catch (final IOException ex) {
+            LOG.error(
+                "IOException when performing the Action! "
+                + "Probably didn't even manage to report a Github Issue!", ex
+            );
+        } catch (final RuntimeException ex) {
+            LOG.error("Unexpected exception when performing the Action!", ex);
+        }
+    }
+}
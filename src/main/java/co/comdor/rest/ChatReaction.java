@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import co.comdor.Action;
+import co.comdor.Lanes;
+import co.comdor.LiveContainers;
+import co.comdor.VigilantAction;
+import co.comdor.github.Chat;
+import co.comdor.github.Courtesies;
+import co.comdor.github.Credentials;
+import co.comdor.github.Mentions;
+import co.comdor.github.Metadata;
+import co.comdor.rest.model.Notification;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Issue;
+
+/**
+ * Comdor reacts to a notification by chatting in the Github Issue.
+ * If the notification came with the mentioning comment (webhook),
+ * the comment is used as it is, otherwise it is looked up in the Issue.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle ParameterNumber (100 lines)
+ * @checkstyle ClassDataAbstractionCoupling (200 lines)
+ */
+public final class ChatReaction implements Reaction {
+
+    /**
+     * Credentials: which Github to use for a repository.
+     */
+    private final Credentials credentials;
+
+    /**
+     * A mention from a webhook older than this is stale.
+     */
+    private final Duration fresh;
+
+    /**
+     * Statuses of the Actions.
+     */
+    private final Statuses statuses;
+
+    /**
+     * Docker containers which are running now.
+     */
+    private final LiveContainers live;
+
+    /**
+     * Metadata (bot's login, repositories), shared by all the Actions.
+     */
+    private final Metadata metadata;
+
+    /**
+     * Courtesies (star the repository, follow the user), shared by all
+     * the Actions.
+     */
+    private final Courtesies courtesies;
+
+    /**
+     * Where the repository's .comdor.yml is fetched, while the mention
+     * is looked up.
+     */
+    private final Executor prefetch;
+
+    /**
+     * Ctor.
+     * @param credentials Credentials, shared by all the Actions: each
+     *  Action talks to Github with the one chosen for its repository.
+     * @param fresh A mention from a webhook older than this is stale.
+     * @param statuses Statuses of the Actions, where they report progress.
+     * @param live Docker containers which are running now.
+     * @param metadata Metadata, shared by all the Actions.
+     * @param courtesies Courtesies, shared by all the Actions.
+     * @param prefetch Where the .comdor.yml is fetched, while the mention
+     *  is looked up.
+     */
+    public ChatReaction(
+        final Credentials credentials, final Duration fresh,
+        final Statuses statuses,
+        final LiveContainers live, final Metadata metadata,
+        final Courtesies courtesies, final Executor prefetch
+    ) {
+        this.prefetch = prefetch;
+        this.courtesies = courtesies;
+        this.metadata = metadata;
+        this.credentials = credentials;
+        this.fresh = fresh;
+        this.statuses = statuses;
+        this.live = live;
+    }
+
+    @Override
+    public Action react(
+        final Notification notification, final Lanes lanes
+    ) throws IOException {
+        final Github github = this.credentials.github(
+            notification.repoFullName()
+        );
+        final Issue issue = github.repos().get(
+            new Coordinates.Simple(notification.repoFullName())
+        ).issues().get(notification.issueNumber());
+        final Mentions lookup;
+        if(notification.comment().isEmpty()) {
+            lookup = new Mentions.Paged(issue, this.metadata);
+        } else {
+            lookup = new Mentions.InPayload(
+                issue, notification.comment(), this.fresh, this.metadata
+            );
+        }
+        final Mentions mentions = new Mentions.Prefetched(
+            lookup, issue, this.metadata, this.prefetch
+        );
+        return new VigilantAction(
+            new Chat(
+                mentions, lanes, this.statuses.start(notification), this.live,
+                this.courtesies
+            ),
+            github
+        );
+    }
+}
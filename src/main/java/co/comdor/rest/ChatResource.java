@@ -25,16 +25,22 @@
  */
 package co.comdor.rest;
 
-import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 
-import javax.ejb.Asynchronous;
+import javax.ejb.EJB;
 import javax.ejb.Stateless;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
 import javax.json.JsonObject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -43,20 +49,11 @@ import javax.ws.rs.core.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import co.comdor.Action;
 import co.comdor.SystemProperties;
-import co.comdor.VigilantAction;
-import co.comdor.github.Chat;
 import co.comdor.rest.model.Notification;
-import co.comdor.rest.model.Notifications;
-import co.comdor.rest.model.SimplifiedNotifications;
+import co.comdor.rest.model.StreamedNotifications;
 import co.comdor.rest.model.WebhookNotifications;
 
-import com.jcabi.github.Coordinates;
-import com.jcabi.github.Github;
-import com.jcabi.github.RtGithub;
-import com.jcabi.http.wire.RetryWire;
-
 /**
  * REST interface to receive Github notifications for chatting.
  * @author Mihai Andronache (amihaiemil@gmail.com)
@@ -76,12 +73,29 @@ public class ChatResource {
         ChatResource.class.getName()
     );
 
+    /**
+     * Seconds after which the client should try again, if the Actions
+     * queue is full.
+     */
+    private static final String RETRY_AFTER = "60";
+
+    /**
+     * Http status for notifications which are over the admission rate.
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
     /**
      * The http request.
      */
     @Context
     private HttpServletRequest request;
 
+    /**
+     * The agent, which takes the Actions.
+     */
+    @EJB
+    private Agent agent;
+
     /**
      * Consumes a JsonArray consisting of Github notifications json objects.
      * The <b>notifications are simplified</b>: a notification json looks
@@ -103,42 +117,43 @@ public class ChatResource {
      * Github auth token since it has to be the same on both parties,
      * but this is really sensitive information
      * and we should pass it around as little as possible.<br><br>
-     * 
+     * The array is read as a stream, one notification at a time, so large
+     * batches are never held in memory. If the Json is not valid,
+     * 400 BAD REQUEST is returned (the notifications read before the
+     * error are still handled).
      * @param notifications Json array of simplified Github notifications.
      * @return Http Response.
      */
     @POST
     @Path("notifications")
-    public Response postNotifications(final String notifications) {
+    public Response postNotifications(final InputStream notifications) {
         final String token = this.request.getHeader(HttpHeaders.AUTHORIZATION);
-        final int status;
+        final Response response;
         if(token == null || token.isEmpty()) {
-            status = HttpURLConnection.HTTP_FORBIDDEN;
+            response = Response.status(HttpURLConnection.HTTP_FORBIDDEN)
+                .build();
         } else {
             final String key = new SystemProperties.GithubApiToken()
                 .toString();
             if(token.equals(key)) {
-                final boolean startedHandling = this.handleNotifications(
-                    new SimplifiedNotifications(notifications)
-                );
-                if(startedHandling) {
-                    status = HttpURLConnection.HTTP_OK;
-                } else {
-                    status = HttpURLConnection.HTTP_INTERNAL_ERROR;
-                }
+                response = this.handleStream(notifications);
             } else {
                 LOG.error(
                     "Missing or incorrect comdor.auth.token! "
                     + "Notifications post is FORBIDDEN!"
                 );
-                status = HttpURLConnection.HTTP_FORBIDDEN;
+                response = Response.status(HttpURLConnection.HTTP_FORBIDDEN)
+                    .build();
             }
         }
-        return Response.status(status).build();
+        return response;
     }
 
     /**
-     * Webhook for Github issue_comment event.
+     * Webhook for Github issue_comment event. Events which are not relevant
+     * for the bot (see {@link WebhookFilter}) are dropped with 200 OK.
+     * Push events are accepted too: the repository's remembered metadata
+     * and .comdor.yml are forgotten, since they might have changed.
      * @param issueComment Event Json payload.
      * @see <a href="https://developer.github.com/v3/activity/events/types">
      *     Webhook Events Payloads
@@ -149,7 +164,7 @@ public class ChatResource {
     @Path("/github/issuecomment")
     @Consumes(MediaType.APPLICATION_JSON)
     public Response webhook(final JsonObject issueComment) {
-        final int status;
+        final Response response;
         final String event = this.request.getHeader("X-Github-Event");
         String userAgent = this.request.getHeader("User-Agent");
         if(userAgent == null) {
@@ -157,83 +172,202 @@ public class ChatResource {
         }
         if(userAgent.startsWith("GitHub-Hookshot/")) {
             if("ping".equalsIgnoreCase(event)) {
-                status = HttpURLConnection.HTTP_OK;
+                response = Response.ok().build();
+            } else if("push".equalsIgnoreCase(event)) {
+                this.agent.metadata().forget(
+                    issueComment.getJsonObject("repository")
+                        .getString("full_name")
+                );
+                response = Response.ok().build();
             } else {
                 if ("issue_comment".equalsIgnoreCase(event)) {
-                    final boolean startedHandling = this.handleNotifications(
-                        new WebhookNotifications(issueComment)
-                    );
-                    if(startedHandling) {
-                        status = HttpURLConnection.HTTP_OK;
+                    if(this.agent.filter().relevant(issueComment)) {
+                        response = this.handleDelivery(issueComment);
                     } else {
-                        status = HttpURLConnection.HTTP_INTERNAL_ERROR;
+                        response = Response.ok().build();
                     }
-
                 } else {
-                    status = HttpURLConnection.HTTP_PRECON_FAILED;
+                    response = Response.status(
+                        HttpURLConnection.HTTP_PRECON_FAILED
+                    ).build();
                 }
             }
         } else {
-            status = HttpURLConnection.HTTP_PRECON_FAILED;
+            response = Response.status(HttpURLConnection.HTTP_PRECON_FAILED)
+                .build();
+        }
+        return response;
+    }
+
+    /**
+     * Handles the notifications read from a stream.
+     * @param notifications Json array of simplified Github notifications.
+     * @return Http response.
+     */
+    private Response handleStream(final InputStream notifications) {
+        Response response;
+        try {
+            response = this.handleNotifications(
+                new StreamedNotifications(notifications)
+            );
+        } catch (final JsonException ex) {
+            LOG.warn("Invalid notifications Json: " + ex.getMessage());
+            response = Response.status(HttpURLConnection.HTTP_BAD_REQUEST)
+                .build();
+        }
+        return response;
+    }
+
+    /**
+     * Handles a webhook delivery, only once: if GitHub redelivers it,
+     * it is acknowledged but not handled again.
+     * @param issueComment Event Json payload.
+     * @return Http response.
+     */
+    private Response handleDelivery(final JsonObject issueComment) {
+        final String delivery = this.request.getHeader("X-GitHub-Delivery");
+        final Response response;
+        if(delivery == null || delivery.isEmpty()) {
+            response = this.handleNotifications(
+                new WebhookNotifications(issueComment)
+            );
+        } else if(this.agent.duplicates().seen(delivery)) {
+            LOG.info("Webhook delivery " + delivery + " was already handled.");
+            response = Response.ok().build();
+        } else {
+            response = this.handleNotifications(
+                new WebhookNotifications(issueComment)
+            );
+            if(response.getStatus() != HttpURLConnection.HTTP_ACCEPTED) {
+                this.agent.duplicates().forget(delivery);
+            }
         }
-        return Response.status(status).build();
+        return response;
     }
 
     /**
-     * Handles notifications, starts one action thread for each of them.
+     * How many issue_comment events were accepted and how many were
+     * dropped by the webhook's filter, since comdor started.
+     * @return Http response with a Json object, e.g.
+     *  {"accepted": 12, "dropped": 310}.
+     */
+    @GET
+    @Path("/github/issuecomment")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response webhookCounters() {
+        return Response.ok(
+            Json.createObjectBuilder()
+                .add("accepted", this.agent.filter().accepted())
+                .add("dropped", this.agent.filter().dropped())
+                .build()
+        ).build();
+    }
+
+    /**
+     * Current levels of the admission buckets, global and per repository.
+     * @return Http response with a Json object, e.g.
+     *  {"global": 97.5, "repos": {"amihaiemil/comdor": 3.0}}.
+     */
+    @GET
+    @Path("admission")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response admission() {
+        return Response.ok(this.agent.admission().levels()).build();
+    }
+
+    /**
+     * Handles notifications: each of them has to be admitted (see
+     * {@link Admission}) and then it is given to the agent, which will
+     * take the Actions asynchronously. Duplicates are acknowledged without
+     * being charged and the tokens of a rejected notification are given
+     * back. The notifications which were not accepted are told by their
+     * indices, so only they are sent again.
      * @param notifications List of notifications.
-     * @return true if actions were started successfully; false otherwise.
+     * @return 202 ACCEPTED if all the notifications were accepted,
+     *  429 TOO MANY REQUESTS (with Retry-After) if some of them were over
+     *  the rate limit, 503 UNAVAILABLE (with Retry-After) if the agent has
+     *  no more room for some of them or 500 INTERNAL ERROR if comdor is
+     *  not configured. The body of 429 and 503 is a Json object with the
+     *  indices of the notifications which were not accepted, e.g.
+     *  {"rejected": [3], "throttled": [4, 7]}; the others were accepted.
      */
-    private boolean handleNotifications(final Notifications notifications) {
+    private Response handleNotifications(
+        final Iterable<Notification> notifications
+    ) {
         final String auth = new SystemProperties.GithubApiToken().toString();
-        boolean handled;
+        final Response response;
         if(auth == null || auth.isEmpty()) {
             LOG.error(
                 "Missing comdor.auth.token; "
                 + "Please specify the Github api access token!"
             );
-            handled = false;
+            response = Response.status(HttpURLConnection.HTTP_INTERNAL_ERROR)
+                .build();
         } else {
-            final Github github = new RtGithub(
-                new RtGithub(auth).entry().through(RetryWire.class)
-            );
-            try {
-                for(final Notification notification : notifications) {
-                    this.take(
-                        new VigilantAction(
-                            new Chat(
-                                github.repos().get(
-                                    new Coordinates.Simple(
-                                        notification.repoFullName()
-                                    )
-                                ).issues().get(notification.issueNumber())
-                            ),
-                            github
-                        )
-                    );
+            final JsonArrayBuilder rejected = Json.createArrayBuilder();
+            final JsonArrayBuilder throttled = Json.createArrayBuilder();
+            long retry = 0;
+            int index = 0;
+            final Admission admission = this.agent.admission();
+            for(final Notification notification : notifications) {
+                final String repo = notification.repoFullName();
+                if(this.agent.handled(notification)) {
+                    LOG.info("Duplicate notification from " + repo);
+                } else if(!admission.admit(repo)) {
+                    throttled.add(index);
+                    retry = Math.max(retry, admission.retryAfter(repo));
+                } else if(!this.agent.actions().take(notification)) {
+                    admission.refund(repo);
+                    rejected.add(index);
                 }
-                handled = true;
-            } catch (final IOException ex) {
-                LOG.error("IOException when getting the Github Issue", ex);
-                handled = false;
+                index = index + 1;
             }
+            response = ChatResource.answer(
+                rejected.build(), throttled.build(), retry
+            );
         }
-        return handled;
+        return response;
     }
 
     /**
-     * Take an action.
-     * @param action Given action.
+     * Answer to the handled notifications.
+     * @param rejected Indices of the notifications rejected by the agent.
+     * @param throttled Indices of the notifications over the admission rate.
+     * @param retry Seconds after which the throttled ones could be sent again.
+     * @return Response.
      */
-    @Asynchronous
-    private void take(final Action action) {
-        try {
-            action.perform();
-        } catch (final IOException ex) {
-            LOG.error(
-                "IOException when performing the Action! "
-                + "Probably didn't even manage to report a Github Issue!", ex
+    private static Response answer(
+        final JsonArray rejected, final JsonArray throttled, final long retry
+    ) {
+        final JsonObject body = Json.createObjectBuilder()
+            .add("rejected", rejected)
+            .add("throttled", throttled)
+            .build();
+        final Response response;
+        if(!rejected.isEmpty()) {
+            LOG.warn(
+                rejected.size() + " notification(s) rejected, "
+                + "the Actions queue is full."
+            );
+            response = Response.status(HttpURLConnection.HTTP_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(body.toString())
+                .build();
+        } else if(!throttled.isEmpty()) {
+            LOG.warn(
+                throttled.size() + " notification(s) throttled, "
+                + "over the admission rate."
             );
+            response = Response.status(TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retry))
+                .type(MediaType.APPLICATION_JSON)
+                .entity(body.toString())
+                .build();
+        } else {
+            response = Response.status(HttpURLConnection.HTTP_ACCEPTED)
+                .build();
         }
+        return response;
     }
 }
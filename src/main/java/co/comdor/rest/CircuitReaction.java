@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.Action;
+import co.comdor.Lanes;
+import co.comdor.Log;
+import co.comdor.github.CircuitBreaker;
+import co.comdor.github.CircuitOpenException;
+import co.comdor.rest.model.Notification;
+
+/**
+ * Reaction which parks the Actions while Github is unavailable (its
+ * {@link CircuitBreaker} is open). A parked Action doesn't hold a worker:
+ * its notification is taken again, by the Actions, once the circuit lets
+ * calls through. An Action stopped by the open circuit is parked as well;
+ * this is safe because {@link co.comdor.github.Chat} lets the open circuit
+ * through only while it looks up the mention, before any step has been
+ * executed. Meanwhile, the notification stays in the {@link Journal}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle IllegalCatch (200 lines)
+ * @checkstyle ParameterNumber (200 lines)
+ */
+public final class CircuitReaction implements Reaction {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        CircuitReaction.class.getName()
+    );
+
+    /**
+     * Minimum delay before a parked notification is taken again, in millis.
+     */
+    private static final long MIN_DELAY = 1000L;
+
+    /**
+     * Decorated Reaction.
+     */
+    private final Reaction origin;
+
+    /**
+     * Circuit breaker of the Github API.
+     */
+    private final CircuitBreaker breaker;
+
+    /**
+     * Actions which take the parked notifications again.
+     */
+    private final Actions actions;
+
+    /**
+     * Scheduler of the parked notifications.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Ctor.
+     * @param origin Decorated Reaction.
+     * @param breaker Circuit breaker of the Github API.
+     * @param actions Actions which take the parked notifications again.
+     * @param scheduler Scheduler of the parked notifications.
+     */
+    public CircuitReaction(
+        final Reaction origin, final CircuitBreaker breaker,
+        final Actions actions, final ScheduledExecutorService scheduler
+    ) {
+        this.origin = origin;
+        this.breaker = breaker;
+        this.actions = actions;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Action react(
+        final Notification notification, final Lanes lanes
+    ) throws IOException {
+        final Action action;
+        if(this.breaker.waiting() > 0) {
+            action = new Postponed(notification);
+        } else {
+            action = new Parked(
+                this.origin.react(notification, lanes), notification
+            );
+        }
+        return action;
+    }
+
+    /**
+     * Take the notification again, once the circuit might let calls
+     * through. If it cannot be taken, it is left for replay.
+     * @param notification Notification of the parked Action.
+     */
+    private void park(final Notification notification) {
+        final long delay = Math.max(
+            this.breaker.waiting(), CircuitReaction.MIN_DELAY
+        );
+        LOG.warn(
+            "Github is unavailable, parking the Action for "
+            + notification.repoFullName() + "#"
+            + notification.issueNumber() + " for " + delay + "ms"
+        );
+        try {
+            this.scheduler.schedule(
+                () -> {
+                    if(!this.actions.take(notification)) {
+                        LOG.warn(
+                            "Parked Action for " + notification.repoFullName()
+                            + "#" + notification.issueNumber()
+                            + " not taken, it is left for replay."
+                        );
+                    }
+                },
+                delay, TimeUnit.MILLISECONDS
+            );
+        } catch (final RejectedExecutionException ex) {
+            LOG.warn(
+                "Shutting down, the parked Action for "
+                + notification.repoFullName() + "#"
+                + notification.issueNumber() + " is left for replay."
+            );
+        }
+    }
+
+    /**
+     * Action which is parked if the circuit stops it.
+     */
+    private final class Parked implements Action {
+
+        /**
+         * Decorated Action.
+         */
+        private final Action action;
+
+        /**
+         * Notification of the Action.
+         */
+        private final Notification notification;
+
+        /**
+         * Ctor.
+         * @param action Decorated Action.
+         * @param notification Notification of the Action.
+         */
+        Parked(final Action action, final Notification notification) {
+            this.action = action;
+            this.notification = notification;
+        }
+
+        @Override
+        public void perform() throws IOException {
+            try {
+                this.action.perform();
+            } catch (final IOException | RuntimeException ex) {
+                if(ExceptionUtils.indexOfType(
+                    ex, CircuitOpenException.class
+                ) < 0) {
+                    throw ex;
+                }
+                CircuitReaction.this.park(this.notification);
+            }
+        }
+
+        @Override
+        public Log log() {
+            return this.action.log();
+        }
+    }
+
+    /**
+     * Action which is not started, since the circuit is open: it is
+     * parked right away.
+     */
+    private final class Postponed implements Action, Log {
+
+        /**
+         * Notification of the Action.
+         */
+        private final Notification notification;
+
+        /**
+         * Ctor.
+         * @param notification Notification of the Action.
+         */
+        Postponed(final Notification notification) {
+            this.notification = notification;
+        }
+
+        @Override
+        public void perform() {
+            CircuitReaction.this.park(this.notification);
+        }
+
+        @Override
+        public Log log() {
+            return this;
+        }
+
+        @Override
+        public String location() {
+            return "";
+        }
+
+        @Override
+        public Logger logger() {
+            return CircuitReaction.LOG;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.rest.model.Notification;
+
+/**
+ * Actions coalesced per Github Issue. A notification waits a short while
+ * (the debounce window) before being passed on; if more notifications come
+ * for the same Issue meanwhile, they are merged into one, the most recent
+ * one, so there is only one Action reading and answering the last mention.
+ * <br><br>
+ * At most capacity Issues can wait at the same time; notifications for
+ * new Issues are rejected after that. If the decorated Actions reject a
+ * notification, it waits for another window and is tried again.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CoalescedActions implements Actions {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        CoalescedActions.class.getName()
+    );
+
+    /**
+     * Decorated Actions.
+     */
+    private final Actions origin;
+
+    /**
+     * Debounce window, in milliseconds.
+     */
+    private final long window;
+
+    /**
+     * Maximum number of waiting Issues.
+     */
+    private final int capacity;
+
+    /**
+     * Waiting notifications, by Issue.
+     */
+    private final Map<String, Notification> pending;
+
+    /**
+     * Timer for the debounce windows.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Ctor.
+     * @param origin Decorated Actions.
+     * @param window Debounce window, in milliseconds.
+     * @param capacity Maximum number of waiting Issues.
+     */
+    public CoalescedActions(
+        final Actions origin, final long window, final int capacity
+    ) {
+        this.origin = origin;
+        this.window = window;
+        this.capacity = capacity;
+        this.pending = new HashMap<>();
+        this.timer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @Override
+    public boolean take(final Notification notification) {
+        final String issue = CoalescedActions.issue(notification);
+        final boolean taken;
+        synchronized (this.pending) {
+            if(this.timer.isShutdown()) {
+                taken = false;
+            } else if(this.pending.containsKey(issue)) {
+                this.pending.put(issue, notification);
+                taken = true;
+            } else if(this.pending.size() >= this.capacity) {
+                taken = false;
+            } else {
+                this.pending.put(issue, notification);
+                this.timer.schedule(
+                    () -> this.pass(issue), this.window, TimeUnit.MILLISECONDS
+                );
+                taken = true;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Pass the waiting notifications on and stop the timer. No more
+     * notifications are taken after this.
+     */
+    public void close() {
+        final List<Notification> left;
+        synchronized (this.pending) {
+            this.timer.shutdownNow();
+            left = new ArrayList<>(this.pending.values());
+            this.pending.clear();
+        }
+        for(final Notification notification : left) {
+            if(!this.origin.take(notification)) {
+                LOG.warn(
+                    "Notification for " + CoalescedActions.issue(notification)
+                    + " dropped on close."
+                );
+            }
+        }
+    }
+
+    /**
+     * The debounce window has passed, the notification goes further. The
+     * decorated Actions (which may wait for the disk, see
+     * {@link JournaledActions}) are called without holding the lock, so
+     * they don't hold back the incoming notifications.
+     * @param issue Issue of the notification.
+     */
+    private void pass(final String issue) {
+        final Notification notification;
+        synchronized (this.pending) {
+            notification = this.pending.remove(issue);
+        }
+        if(notification != null && !this.origin.take(notification)) {
+            synchronized (this.pending) {
+                if(!this.timer.isShutdown()
+                    && !this.pending.containsKey(issue)) {
+                    LOG.warn(
+                        "Notification for " + issue
+                        + " rejected, trying again."
+                    );
+                    this.pending.put(issue, notification);
+                    this.timer.schedule(
+                        () -> this.pass(issue), this.window,
+                        TimeUnit.MILLISECONDS
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Key of the Issue.
+     * @param notification Notification.
+     * @return String, e.g. amihaiemil/comdor#12
+     */
+    private static String issue(final Notification notification) {
+        return notification.repoFullName() + "#" + notification.issueNumber();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.rest.model.Notification;
+
+/**
+ * Actions which are taken only once for the same comment. If a notification
+ * comes again for a comment which was already handled (e.g. the webhook
+ * was redelivered), it is acknowledged but no Action is taken.
+ * Notifications which don't know their comment are always taken.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class DistinctActions implements Actions {
+
+    /**
+     * Decorated Actions.
+     */
+    private final Actions origin;
+
+    /**
+     * Comments which were already handled.
+     */
+    private final Duplicates handled;
+
+    /**
+     * Ctor.
+     * @param origin Decorated Actions.
+     * @param handled Comments which were already handled.
+     */
+    public DistinctActions(final Actions origin, final Duplicates handled) {
+        this.origin = origin;
+        this.handled = handled;
+    }
+
+    @Override
+    public boolean take(final Notification notification) {
+        final boolean taken;
+        if(notification.comment().containsKey("id")) {
+            final String key = DistinctActions.key(notification);
+            if(this.handled.seen(key)) {
+                taken = true;
+            } else {
+                taken = this.origin.take(notification);
+                if(!taken) {
+                    this.handled.forget(key);
+                }
+            }
+        } else {
+            taken = this.origin.take(notification);
+        }
+        return taken;
+    }
+
+    /**
+     * Was the notification's comment handled already? It doesn't take it.
+     * @param notification Notification.
+     * @return True if it is a duplicate, false otherwise.
+     */
+    public boolean handled(final Notification notification) {
+        return notification.comment().containsKey("id")
+            && this.handled.known(DistinctActions.key(notification));
+    }
+
+    /**
+     * Key of the notification's comment.
+     * @param notification Notification.
+     * @return String, e.g. amihaiemil/comdor#12#345
+     */
+    private static String key(final Notification notification) {
+        return notification.repoFullName() + "#"
+            + notification.issueNumber() + "#"
+            + notification.comment().get("id");
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.github.Memo;
+
+/**
+ * Keys (webhook delivery ids, comment ids etc) which have been seen
+ * recently, so the same work is never done twice. The store is bounded:
+ * a key is forgotten after some time or when there are too many keys.
+ * <br><br>
+ * The keys can also be kept in a file, so they survive a restart. Each new
+ * key is appended to the file, each forgotten key is appended as a
+ * tombstone and, once in a while, the file is rewritten with only the keys
+ * which are still remembered.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class Duplicates implements Memo {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        Duplicates.class.getName()
+    );
+
+    /**
+     * Moment of a forgotten key, in the file.
+     */
+    private static final String TOMBSTONE = "-";
+
+    /**
+     * Keys and the moments when they were seen, the oldest first.
+     */
+    private final Map<String, Long> keys;
+
+    /**
+     * Maximum number of keys.
+     */
+    private final int capacity;
+
+    /**
+     * How long is a key remembered, in milliseconds.
+     */
+    private final long ttl;
+
+    /**
+     * File where the keys are kept, null if they are only in memory.
+     */
+    private final Path file;
+
+    /**
+     * Clock, giving the current moment in milliseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Lines appended to the file since it was last rewritten.
+     */
+    private int appended;
+
+    /**
+     * Ctor.
+     * @param capacity Maximum number of keys.
+     * @param ttl How long is a key remembered.
+     */
+    public Duplicates(final int capacity, final Duration ttl) {
+        this(capacity, ttl, null);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Maximum number of keys.
+     * @param ttl How long is a key remembered.
+     * @param file File where the keys are kept, null for memory only.
+     */
+    public Duplicates(
+        final int capacity, final Duration ttl, final Path file
+    ) {
+        this(capacity, ttl, file, System::currentTimeMillis);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Maximum number of keys.
+     * @param ttl How long is a key remembered.
+     * @param file File where the keys are kept, null for memory only.
+     * @param clock Current moment in milliseconds.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    public Duplicates(
+        final int capacity, final Duration ttl,
+        final Path file, final LongSupplier clock
+    ) {
+        this.capacity = capacity;
+        this.ttl = ttl.toMillis();
+        this.file = file;
+        this.clock = clock;
+        this.keys = new LinkedHashMap<String, Long>() {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, Long> eldest
+            ) {
+                return this.size() > capacity;
+            }
+        };
+        this.directory();
+        this.load();
+    }
+
+    /**
+     * Has this key been seen already? If not, it is remembered from now on.
+     * @param key Key.
+     * @return True if it is a duplicate, false if it is new.
+     */
+    @Override
+    public synchronized boolean seen(final String key) {
+        final long now = this.clock.getAsLong();
+        this.expire(now);
+        final boolean seen = this.keys.containsKey(key);
+        if(!seen) {
+            this.keys.put(key, now);
+            this.save(now + "\t" + key);
+        }
+        return seen;
+    }
+
+    /**
+     * Has this key been seen already? Unlike {@link #seen(String)}, a new
+     * key is not remembered.
+     * @param key Key.
+     * @return True if it is a duplicate, false if it is new.
+     */
+    public synchronized boolean known(final String key) {
+        this.expire(this.clock.getAsLong());
+        return this.keys.containsKey(key);
+    }
+
+    /**
+     * Forget this key (e.g. the work could not be done after all and
+     * it should be accepted again).
+     * @param key Key.
+     */
+    @Override
+    public synchronized void forget(final String key) {
+        if(this.keys.remove(key) != null) {
+            this.save(Duplicates.TOMBSTONE + "\t" + key);
+        }
+    }
+
+    /**
+     * Forget the keys which are too old.
+     * @param now Current moment, in milliseconds.
+     */
+    private void expire(final long now) {
+        final Iterator<Long> moments = this.keys.values().iterator();
+        while(moments.hasNext() && moments.next() + this.ttl <= now) {
+            moments.remove();
+        }
+    }
+
+    /**
+     * Create the directory of the file, if it doesn't exist.
+     */
+    private void directory() {
+        if(this.file != null && this.file.getParent() != null) {
+            try {
+                Files.createDirectories(this.file.getParent());
+            } catch (final IOException ex) {
+                LOG.warn("Could not create the directory of " + this.file, ex);
+            }
+        }
+    }
+
+    /**
+     * Load the keys from the file, if any.
+     */
+    private void load() {
+        if(this.file != null && Files.exists(this.file)) {
+            try {
+                for(final String line : Files.readAllLines(
+                    this.file, StandardCharsets.UTF_8
+                )) {
+                    final String[] parts = line.split("\t", 2);
+                    if(parts.length == 2
+                        && Duplicates.TOMBSTONE.equals(parts[0])) {
+                        this.keys.remove(parts[1]);
+                    } else if(parts.length == 2) {
+                        this.keys.put(parts[1], Long.parseLong(parts[0]));
+                    }
+                }
+            } catch (final IOException | NumberFormatException ex) {
+                LOG.warn("Could not load the keys from " + this.file, ex);
+            }
+            this.expire(this.clock.getAsLong());
+            this.rewrite();
+        }
+    }
+
+    /**
+     * Append a line (a new key or a tombstone) to the file. When the file
+     * has grown too much, it is rewritten with only the remembered keys.
+     * @param line Line.
+     */
+    private void save(final String line) {
+        if(this.file != null) {
+            this.appended = this.appended + 1;
+            if(this.appended > this.capacity) {
+                this.rewrite();
+            } else {
+                try {
+                    Files.write(
+                        this.file,
+                        Collections.singletonList(line),
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND
+                    );
+                } catch (final IOException ex) {
+                    LOG.warn("Could not save the line " + line, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrite the file with the keys which are remembered now.
+     */
+    private void rewrite() {
+        if(this.file != null) {
+            final List<String> lines = new ArrayList<>(this.keys.size());
+            for(final Map.Entry<String, Long> entry : this.keys.entrySet()) {
+                lines.add(entry.getValue() + "\t" + entry.getKey());
+            }
+            try {
+                Files.write(this.file, lines, StandardCharsets.UTF_8);
+                this.appended = 0;
+            } catch (final IOException ex) {
+                LOG.warn("Could not rewrite " + this.file, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.Lanes;
+import co.comdor.rest.model.Notification;
+
+/**
+ * Actions performed fairly, per repository. Each repository has its own
+ * queue and the workers serve the queues in weighted round-robin: a
+ * repository with weight 3 gets at most 3 Actions in a row before the
+ * next repository's turn (the default weight is 1). Besides, at most
+ * a few Actions of the same repository run at the same time, so a busy
+ * repository cannot take all the workers.<br><br>
+ * The total number of waiting Actions is limited; when it is reached,
+ * new Actions are rejected.<br><br>
+ * The workers form the fast lane. An Action which moves to the slow lane
+ * (see {@link Lanes}) gets a spare worker to take its place in the fast
+ * lane; then it waits for room in the slow lane, which has its own size.
+ * Its thread ends together with the Action. At most capacity Actions can
+ * wait for room in the slow lane; when they are more, the spare worker
+ * is not started and the Action stays in the fast lane, on its worker.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle IllegalCatch (300 lines)
+ * @checkstyle ParameterNumber (300 lines)
+ */
+public final class FairActions implements Actions {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        FairActions.class.getName()
+    );
+
+    /**
+     * How do we react to notifications?
+     */
+    private final Reaction reaction;
+
+    /**
+     * How many Actions can wait, in total.
+     */
+    private final int capacity;
+
+    /**
+     * How many Actions of the same repository can run at the same time.
+     */
+    private final int cap;
+
+    /**
+     * Weights of the repositories.
+     */
+    private final Map<String, Integer> weights;
+
+    /**
+     * Waiting Actions, per repository.
+     */
+    private final Map<String, Deque<Notification>> queues;
+
+    /**
+     * Repositories with waiting Actions, in their round-robin order.
+     */
+    private final Deque<String> ring;
+
+    /**
+     * Running Actions, per repository.
+     */
+    private final Map<String, Integer> running;
+
+    /**
+     * The workers: the ones of the fast lane and the threads of the Actions
+     * which moved to the slow lane (running or waiting for room).
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Room in the slow lane.
+     */
+    private final Semaphore slow;
+
+    /**
+     * Is the current thread in the slow lane?
+     */
+    private final ThreadLocal<Boolean> moved;
+
+    /**
+     * The lanes, given to the Actions.
+     */
+    private final Lanes lanes;
+
+    /**
+     * Actions served in a row from the repository at the head of the ring.
+     */
+    private int served;
+
+    /**
+     * Number of waiting Actions.
+     */
+    private int waiting;
+
+    /**
+     * Closed, no more Actions are accepted.
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param reaction How do we react to notifications?
+     * @param fast Number of workers in the fast lane.
+     * @param slow Number of Actions in the slow lane.
+     * @param capacity How many Actions can wait, in total.
+     * @param cap How many Actions of the same repository can run at the same
+     *  time.
+     * @param weights Weights of the repositories, by full name.
+     */
+    public FairActions(
+        final Reaction reaction, final int fast, final int slow,
+        final int capacity, final int cap, final Map<String, Integer> weights
+    ) {
+        this.reaction = reaction;
+        this.slow = new Semaphore(slow);
+        this.moved = ThreadLocal.withInitial(() -> false);
+        this.lanes = new FairActions.Slow();
+        this.capacity = capacity;
+        this.cap = cap;
+        this.weights = weights;
+        this.queues = new HashMap<>();
+        this.ring = new ArrayDeque<>();
+        this.running = new HashMap<>();
+        this.workers = new ThreadPoolExecutor(
+            fast, fast + slow + capacity, 1L, TimeUnit.MINUTES,
+            new SynchronousQueue<>()
+        );
+        for(int idx = 0; idx < fast; ++idx) {
+            this.workers.execute(this::work);
+        }
+    }
+
+    @Override
+    public synchronized boolean take(final Notification notification) {
+        final boolean accepted;
+        if(this.closed || this.waiting >= this.capacity) {
+            LOG.warn(
+                "No room for the Action triggered by "
+                + notification.repoFullName() + "#"
+                + notification.issueNumber()
+            );
+            accepted = false;
+        } else {
+            final String repo = notification.repoFullName();
+            Deque<Notification> queue = this.queues.get(repo);
+            if(queue == null) {
+                queue = new ArrayDeque<>();
+                this.queues.put(repo, queue);
+                this.ring.addLast(repo);
+            }
+            queue.addLast(notification);
+            this.waiting = this.waiting + 1;
+            this.notifyAll();
+            accepted = true;
+        }
+        return accepted;
+    }
+
+    /**
+     * Stop accepting Actions. The ones already accepted are still performed.
+     */
+    public synchronized void close() {
+        this.closed = true;
+        this.notifyAll();
+        this.workers.shutdown();
+    }
+
+    /**
+     * Stop accepting Actions, forget the ones which are waiting and give
+     * the running ones some time to finish. The waiting Actions are not
+     * lost if their notifications are in a {@link Journal}: they will be
+     * replayed at the next start.
+     * @param deadline How long to wait for the running Actions.
+     * @return True if all of them finished, false otherwise.
+     */
+    public boolean drain(final Duration deadline) {
+        this.forgetWaiting();
+        this.close();
+        boolean drained;
+        try {
+            drained = this.workers.awaitTermination(
+                deadline.toMillis(), TimeUnit.MILLISECONDS
+            );
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        }
+        return drained;
+    }
+
+    /**
+     * Interrupt the running Actions.
+     */
+    public void interrupt() {
+        this.workers.shutdownNow();
+    }
+
+    /**
+     * Forget the waiting Actions.
+     */
+    private synchronized void forgetWaiting() {
+        if(this.waiting > 0) {
+            LOG.info(this.waiting + " waiting Action(s) are left for replay.");
+        }
+        this.queues.clear();
+        this.ring.clear();
+        this.waiting = 0;
+    }
+
+    /**
+     * A worker's loop: perform the next Action until closed and
+     * there is nothing left to do.
+     */
+    private void work() {
+        Notification notification = this.next();
+        while(notification != null) {
+            boolean slowed = false;
+            try {
+                this.reaction.react(notification, this.lanes).perform();
+            } catch (final IOException ex) {
+                LOG.error(
+                    "IOException when performing the Action! "
+                    + "Probably didn't even manage to report a Github Issue!",
+                    ex
+                );
+            } catch (final Throwable ex) {
+                LOG.error(
+                    "Unexpected exception when performing the Action!", ex
+                );
+            } finally {
+                this.release(notification.repoFullName());
+                slowed = this.moved.get();
+                if(slowed) {
+                    this.moved.remove();
+                    this.slow.release();
+                }
+            }
+            if(slowed) {
+                notification = null;
+            } else {
+                notification = this.next();
+            }
+        }
+    }
+
+    /**
+     * Wait for the next Action to perform.
+     * @return Notification or null if closed and there is nothing left.
+     */
+    private synchronized Notification next() {
+        Notification next = this.pick();
+        while(next == null && !(this.closed && this.waiting == 0)) {
+            try {
+                this.wait();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            next = this.pick();
+        }
+        return next;
+    }
+
+    /**
+     * Pick the next Action, in weighted round-robin, skipping the
+     * repositories which have too many running Actions.
+     * @return Notification or null if none can be performed now.
+     */
+    private Notification pick() {
+        Notification picked = null;
+        for(int idx = 0; picked == null && idx < this.ring.size(); ++idx) {
+            final String repo = this.ring.peekFirst();
+            if(this.running.getOrDefault(repo, 0) < this.cap) {
+                final Deque<Notification> queue = this.queues.get(repo);
+                picked = queue.pollFirst();
+                this.waiting = this.waiting - 1;
+                this.running.merge(repo, 1, Integer::sum);
+                this.served = this.served + 1;
+                if(queue.isEmpty()) {
+                    this.queues.remove(repo);
+                    this.ring.pollFirst();
+                    this.served = 0;
+                } else if(this.served >= this.weights.getOrDefault(repo, 1)) {
+                    this.ring.addLast(this.ring.pollFirst());
+                    this.served = 0;
+                }
+            } else {
+                this.ring.addLast(this.ring.pollFirst());
+                this.served = 0;
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * An Action of this repository has finished.
+     * @param repo Full name of the repository.
+     */
+    private synchronized void release(final String repo) {
+        if(this.running.merge(repo, -1, Integer::sum) == 0) {
+            this.running.remove(repo);
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * The slow lane. If the wait for room is interrupted (the workers are
+     * shutting down), the Action fails. If too many Actions are waiting for
+     * room already, the Action stays in the fast lane.
+     */
+    private final class Slow implements Lanes {
+
+        @Override
+        public void slow() throws IOException {
+            if(!FairActions.this.moved.get() && this.spare()) {
+                FairActions.this.moved.set(true);
+                try {
+                    FairActions.this.slow.acquire();
+                } catch (final InterruptedException ex) {
+                    FairActions.this.moved.remove();
+                    Thread.currentThread().interrupt();
+                    throw new IOException(
+                        "Interrupted while waiting for the slow lane", ex
+                    );
+                }
+            }
+        }
+
+        /**
+         * Start a spare worker, to take the current one's place in the
+         * fast lane.
+         * @return False if too many Actions are waiting for the slow lane.
+         */
+        private boolean spare() {
+            boolean started = true;
+            try {
+                FairActions.this.workers.execute(FairActions.this::work);
+            } catch (final RejectedExecutionException ex) {
+                if(FairActions.this.workers.isShutdown()) {
+                    LOG.warn("Closing, no spare worker for the fast lane.");
+                } else {
+                    LOG.warn(
+                        "No room in the slow lane, the Action stays "
+                        + "in the fast lane."
+                    );
+                    started = false;
+                }
+            }
+            return started;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.json.Json;
+import javax.json.JsonException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.rest.model.Notification;
+import co.comdor.rest.model.SimpleJsonNotification;
+
+/**
+ * Append-only journal of the accepted notifications, so they are not lost
+ * if comdor is restarted before their Actions are finished. Each accepted
+ * notification is appended as a line and, when its Action is finished,
+ * another line marks it as done.<br><br>
+ * The lines are written by a single writer, in batches: one fsync for all
+ * the lines which came meanwhile. Whoever appends a notification waits
+ * until it is on disk. The file is compacted (rewritten with only the
+ * unfinished notifications) on startup and after every few lines.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle ClassDataAbstractionCoupling (400 lines)
+ * @checkstyle ClassFanOutComplexity (400 lines)
+ */
+public final class Journal implements Closeable {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        Journal.class.getName()
+    );
+
+    /**
+     * Line of an accepted notification: A, id and the notification's Json.
+     */
+    private static final String ACCEPTED = "A";
+
+    /**
+     * Line of a finished notification: D and the id.
+     */
+    private static final String DONE = "D";
+
+    /**
+     * Separator of the columns.
+     */
+    private static final String TAB = "\t";
+
+    /**
+     * Maximum number of columns in a line.
+     */
+    private static final int COLUMNS = 3;
+
+    /**
+     * Journal file.
+     */
+    private final Path file;
+
+    /**
+     * Compact the file after this many lines.
+     */
+    private final int compaction;
+
+    /**
+     * Ids of the unfinished notifications.
+     */
+    private final Map<Notification, Long> ids;
+
+    /**
+     * Lines of the unfinished notifications, by id.
+     */
+    private final Map<Long, String> open;
+
+    /**
+     * Notifications which were unfinished when the journal was loaded.
+     */
+    private final List<Notification> unfinished;
+
+    /**
+     * Last id.
+     */
+    private final AtomicLong sequence;
+
+    /**
+     * Lines waiting to be written.
+     */
+    private final BlockingQueue<Line> lines;
+
+    /**
+     * The writer.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * Channel of the file, used only by the writer.
+     */
+    private FileChannel channel;
+
+    /**
+     * Lines written since the last compaction, used only by the writer.
+     */
+    private int written;
+
+    /**
+     * Is the journal open?
+     */
+    private volatile boolean running;
+
+    /**
+     * Ctor.
+     * @param file Journal file.
+     * @param compaction Compact the file after this many lines.
+     * @throws IOException If the file cannot be read or written.
+     */
+    public Journal(final Path file, final int compaction) throws IOException {
+        this.file = file;
+        this.compaction = compaction;
+        this.ids = Collections.synchronizedMap(new IdentityHashMap<>());
+        this.open = new ConcurrentSkipListMap<>();
+        this.unfinished = new ArrayList<>();
+        this.sequence = new AtomicLong(this.load());
+        this.lines = new LinkedBlockingQueue<>();
+        this.compact();
+        this.running = true;
+        this.writer = Executors.newSingleThreadExecutor();
+        this.writer.execute(this::write);
+    }
+
+    /**
+     * Append an accepted notification. It returns after the notification
+     * is on disk.
+     * @param notification Accepted notification.
+     * @throws IOException If it cannot be written.
+     */
+    public void append(final Notification notification) throws IOException {
+        final long id = this.sequence.incrementAndGet();
+        final String line = ACCEPTED + TAB + id + TAB
+            + Json.createObjectBuilder()
+                .add("repoFullName", notification.repoFullName())
+                .add("issueNumber", notification.issueNumber())
+                .add("comment", notification.comment())
+                .build();
+        this.open.put(id, line);
+        this.ids.put(notification, id);
+        final Line appended = new Line(line);
+        this.lines.add(appended);
+        try {
+            appended.written().get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing the journal", ex);
+        } catch (final ExecutionException ex) {
+            throw new IOException("Could not write the journal", ex.getCause());
+        }
+    }
+
+    /**
+     * Mark the notification as done. It does not wait for the disk: if the
+     * line is lost, the notification is only replayed once more.
+     * @param notification Finished notification.
+     */
+    public void done(final Notification notification) {
+        final Long id = this.ids.remove(notification);
+        if(id != null) {
+            this.open.remove(id);
+            this.lines.add(new Line(DONE + TAB + id));
+        }
+    }
+
+    /**
+     * Notifications which were not finished before the last stop.
+     * @return List of notifications.
+     */
+    public List<Notification> unfinished() {
+        return Collections.unmodifiableList(this.unfinished);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(1L, TimeUnit.MINUTES);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        this.channel.close();
+    }
+
+    /**
+     * Load the unfinished notifications from the file. Malformed lines
+     * (e.g. the last one, torn because comdor crashed while writing it)
+     * are skipped.
+     * @return The last id found in the file.
+     * @throws IOException If the file cannot be read.
+     */
+    private long load() throws IOException {
+        long last = 0;
+        if(Files.exists(this.file)) {
+            final String[] text = new String(
+                Files.readAllBytes(this.file), StandardCharsets.UTF_8
+            ).split("\n");
+            for(final String line : text) {
+                try {
+                    last = Math.max(last, this.load(line));
+                } catch (final IllegalArgumentException
+                    | IndexOutOfBoundsException | JsonException ex) {
+                    LOG.warn(
+                        "Skipping malformed line of the journal "
+                        + this.file + ": " + line
+                    );
+                }
+            }
+            for(final Map.Entry<Long, String> entry : this.open.entrySet()) {
+                final Notification notification = Journal.notification(
+                    entry.getValue()
+                );
+                this.ids.put(notification, entry.getKey());
+                this.unfinished.add(notification);
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Load a line of the file.
+     * @param line Line.
+     * @return Its id, 0 if the line is empty.
+     */
+    private long load(final String line) {
+        long id = 0;
+        if(!line.isEmpty()) {
+            final String[] parts = line.split(TAB, COLUMNS);
+            id = Long.parseLong(parts[1]);
+            if(ACCEPTED.equals(parts[0])) {
+                final Notification notification = Journal.notification(line);
+                notification.repoFullName();
+                notification.issueNumber();
+                this.open.put(id, line);
+            } else if(DONE.equals(parts[0])) {
+                this.open.remove(id);
+            } else {
+                throw new IllegalArgumentException("Unknown line: " + line);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * The notification of an accepted line.
+     * @param line Line.
+     * @return Notification.
+     */
+    private static Notification notification(final String line) {
+        return new SimpleJsonNotification(
+            Json.createReader(
+                new StringReader(line.split(TAB, COLUMNS)[2])
+            ).readObject()
+        );
+    }
+
+    /**
+     * Write the lines in batches, until the journal is closed.
+     */
+    private void write() {
+        while(this.running || !this.lines.isEmpty()) {
+            try {
+                final Line first = this.lines.poll(100L, TimeUnit.MILLISECONDS);
+                if(first != null) {
+                    final List<Line> batch = new ArrayList<>();
+                    batch.add(first);
+                    this.lines.drainTo(batch);
+                    this.write(batch);
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Write a batch of lines, with a single fsync.
+     * @param batch Lines.
+     */
+    private void write(final List<Line> batch) {
+        try {
+            final StringBuilder text = new StringBuilder();
+            for(final Line line : batch) {
+                text.append(line.text()).append('\n');
+            }
+            final ByteBuffer bytes = ByteBuffer.wrap(
+                text.toString().getBytes(StandardCharsets.UTF_8)
+            );
+            while(bytes.hasRemaining()) {
+                this.channel.write(bytes);
+            }
+            this.channel.force(false);
+            for(final Line line : batch) {
+                line.written().complete(null);
+            }
+            this.written = this.written + batch.size();
+            if(this.written >= this.compaction) {
+                this.compact();
+            }
+        } catch (final IOException ex) {
+            LOG.error("Could not write the journal " + this.file, ex);
+            for(final Line line : batch) {
+                line.written().completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * Rewrite the file with only the unfinished notifications.
+     * @throws IOException If the file cannot be written.
+     */
+    private void compact() throws IOException {
+        if(this.channel != null) {
+            this.channel.close();
+        }
+        if(this.file.getParent() != null) {
+            Files.createDirectories(this.file.getParent());
+        }
+        final Path temp = this.file.resolveSibling(
+            this.file.getFileName() + ".tmp"
+        );
+        try (final FileChannel compacted = FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            for(final String line : this.open.values()) {
+                compacted.write(
+                    ByteBuffer.wrap(
+                        (line + '\n').getBytes(StandardCharsets.UTF_8)
+                    )
+                );
+            }
+            compacted.force(false);
+        }
+        Files.move(
+            temp, this.file,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+        this.channel = FileChannel.open(
+            this.file, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+        );
+        this.written = 0;
+    }
+
+    /**
+     * A line waiting to be written.
+     */
+    private static final class Line {
+
+        /**
+         * Text of the line.
+         */
+        private final String txt;
+
+        /**
+         * Completed when the line is on disk.
+         */
+        private final CompletableFuture<Void> done;
+
+        /**
+         * Ctor.
+         * @param txt Text of the line.
+         */
+        Line(final String txt) {
+            this.txt = txt;
+            this.done = new CompletableFuture<>();
+        }
+
+        /**
+         * Text of the line.
+         * @return String.
+         */
+        String text() {
+            return this.txt;
+        }
+
+        /**
+         * Completed when the line is on disk.
+         * @return CompletableFuture.
+         */
+        CompletableFuture<Void> written() {
+            return this.done;
+        }
+    }
+}
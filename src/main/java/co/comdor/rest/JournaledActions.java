@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.rest.model.Notification;
+
+/**
+ * Actions which are written in the {@link Journal} before being taken.
+ * The notifications which were not finished before the last stop can be
+ * replayed. Use together with {@link JournaledReaction}, which marks the
+ * notifications as done.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class JournaledActions implements Actions {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        JournaledActions.class.getName()
+    );
+
+    /**
+     * Decorated Actions.
+     */
+    private final Actions origin;
+
+    /**
+     * The journal.
+     */
+    private final Journal journal;
+
+    /**
+     * Replays the unfinished notifications in the background.
+     */
+    private final ExecutorService replays;
+
+    /**
+     * Ctor.
+     * @param origin Decorated Actions.
+     * @param journal The journal.
+     */
+    public JournaledActions(final Actions origin, final Journal journal) {
+        this.origin = origin;
+        this.journal = journal;
+        this.replays = Executors.newSingleThreadExecutor();
+    }
+
+    @Override
+    public boolean take(final Notification notification) {
+        final boolean taken;
+        if(this.journaled(notification)) {
+            taken = this.origin.take(notification);
+            if(!taken) {
+                this.journal.done(notification);
+            }
+        } else {
+            taken = false;
+        }
+        return taken;
+    }
+
+    /**
+     * Replay, in the background, the notifications which were not finished
+     * before the last stop. If the decorated Actions are full, it waits
+     * and tries again.
+     * @param pause Milliseconds to wait before trying again.
+     */
+    public void replay(final long pause) {
+        this.replays.execute(
+            () -> {
+                int replayed = 0;
+                try {
+                    for(final Notification notification
+                        : this.journal.unfinished()) {
+                        while(!this.origin.take(notification)) {
+                            Thread.sleep(pause);
+                        }
+                        replayed = replayed + 1;
+                    }
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                LOG.info(
+                    "Replayed " + replayed + " out of "
+                    + this.journal.unfinished().size()
+                    + " unfinished notification(s)."
+                );
+            }
+        );
+    }
+
+    /**
+     * Write the notification in the journal.
+     * @param notification Notification.
+     * @return True if it was written, false otherwise.
+     */
+    private boolean journaled(final Notification notification) {
+        boolean journaled;
+        try {
+            this.journal.append(notification);
+            journaled = true;
+        } catch (final IOException ex) {
+            LOG.error("Notification rejected, the journal failed.", ex);
+            journaled = false;
+        }
+        return journaled;
+    }
+
+    /**
+     * Stop replaying.
+     */
+    public void close() {
+        this.replays.shutdownNow();
+    }
+}
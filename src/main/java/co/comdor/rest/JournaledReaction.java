@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import co.comdor.Action;
+import co.comdor.Lanes;
+import co.comdor.Log;
+import co.comdor.github.CircuitOpenException;
+import co.comdor.rest.model.Notification;
+
+/**
+ * Reaction which marks the notification as done in the {@link Journal},
+ * once its Action is finished (successfully or not). An Action stopped
+ * because Github is unavailable is not done: it will be resumed (see
+ * {@link CircuitReaction}) or replayed after a restart.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle IllegalCatch (100 lines)
+ */
+public final class JournaledReaction implements Reaction {
+
+    /**
+     * Decorated Reaction.
+     */
+    private final Reaction origin;
+
+    /**
+     * The journal.
+     */
+    private final Journal journal;
+
+    /**
+     * Ctor.
+     * @param origin Decorated Reaction.
+     * @param journal The journal.
+     */
+    public JournaledReaction(final Reaction origin, final Journal journal) {
+        this.origin = origin;
+        this.journal = journal;
+    }
+
+    @Override
+    public Action react(
+        final Notification notification, final Lanes lanes
+    ) throws IOException {
+        try {
+            return new Done(
+                this.origin.react(notification, lanes), notification
+            );
+        } catch (final IOException | RuntimeException ex) {
+            if(!JournaledReaction.parked(ex)) {
+                this.journal.done(notification);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Was the Action stopped because Github is unavailable?
+     * @param error Exception which stopped it.
+     * @return True or false.
+     */
+    private static boolean parked(final Exception error) {
+        return ExceptionUtils.indexOfType(
+            error, CircuitOpenException.class
+        ) >= 0;
+    }
+
+    /**
+     * Action which marks its notification as done, when finished.
+     */
+    private final class Done implements Action {
+
+        /**
+         * Decorated Action.
+         */
+        private final Action action;
+
+        /**
+         * Notification of the Action.
+         */
+        private final Notification notification;
+
+        /**
+         * Ctor.
+         * @param action Decorated Action.
+         * @param notification Notification of the Action.
+         */
+        Done(final Action action, final Notification notification) {
+            this.action = action;
+            this.notification = notification;
+        }
+
+        @Override
+        public void perform() throws IOException {
+            try {
+                this.action.perform();
+            } catch (final IOException | RuntimeException ex) {
+                if(!JournaledReaction.parked(ex)) {
+                    JournaledReaction.this.journal.done(this.notification);
+                }
+                throw ex;
+            }
+            JournaledReaction.this.journal.done(this.notification);
+        }
+
+        @Override
+        public Log log() {
+            return this.action.log();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import co.comdor.Action;
+import co.comdor.Lanes;
+import co.comdor.Log;
+import co.comdor.github.Credentials;
+import co.comdor.github.RateLimit;
+import co.comdor.rest.model.Notification;
+
+/**
+ * Reaction which postpones an Action, if Github's rate limit is almost
+ * exhausted or Github asked us to back off. Like in {@link CircuitReaction},
+ * the postponed Action doesn't hold a worker: its notification is taken
+ * again, by the Actions, when the limit is reset. This way, a reserve of
+ * requests is always left for the Actions which are already running (e.g.
+ * to reply that something went wrong), instead of all of them failing.
+ * When the limit is only getting low, the Action is postponed once, by the
+ * spread interval (see {@link RateLimit#pause(int)}). The credential is
+ * chosen for the notification's repository: the Action waits for its rate
+ * limit and then talks to Github with it. Meanwhile, the notification stays
+ * in the {@link Journal}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ * @checkstyle ParameterNumber (200 lines)
+ */
+public final class PacedReaction implements Reaction {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        PacedReaction.class.getName()
+    );
+
+    /**
+     * Decorated Reaction, built with the chosen credential.
+     */
+    private final Function<Credentials, Reaction> origin;
+
+    /**
+     * Credentials, each with its own rate limit.
+     */
+    private final Credentials credentials;
+
+    /**
+     * Requests to keep in reserve.
+     */
+    private final int reserve;
+
+    /**
+     * Actions which take the postponed notifications again.
+     */
+    private final Actions actions;
+
+    /**
+     * Scheduler of the postponed notifications.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Notifications postponed by the spread interval, which go on when
+     * they are taken again.
+     */
+    private final Set<Notification> spread;
+
+    /**
+     * Ctor.
+     * @param origin Decorated Reaction, built with the chosen credential.
+     * @param credentials Credentials; the Action waits for the rate limit
+     *  of the one chosen for its repository.
+     * @param reserve Requests to keep in reserve.
+     * @param actions Actions which take the postponed notifications again.
+     * @param scheduler Scheduler of the postponed notifications.
+     */
+    public PacedReaction(
+        final Function<Credentials, Reaction> origin,
+        final Credentials credentials, final int reserve,
+        final Actions actions, final ScheduledExecutorService scheduler
+    ) {
+        this.origin = origin;
+        this.credentials = credentials;
+        this.reserve = reserve;
+        this.actions = actions;
+        this.scheduler = scheduler;
+        this.spread = Collections.newSetFromMap(
+            Collections.synchronizedMap(new IdentityHashMap<>())
+        );
+    }
+
+    @Override
+    public Action react(
+        final Notification notification, final Lanes lanes
+    ) throws IOException {
+        final Credentials chosen = this.credentials.chosen(
+            notification.repoFullName()
+        );
+        final RateLimit limit = chosen.rateLimit(notification.repoFullName());
+        final long hold = limit.hold(this.reserve);
+        final Action action;
+        if(hold > 0) {
+            action = new Postponed(notification, hold, limit);
+        } else if(!this.spread.remove(notification)
+            && limit.pause(this.reserve) > 0) {
+            this.spread.add(notification);
+            action = new Postponed(
+                notification, limit.pause(this.reserve), limit
+            );
+        } else {
+            action = this.origin.apply(chosen).react(notification, lanes);
+        }
+        return action;
+    }
+
+    /**
+     * Take the notification again, after the given delay. If it cannot
+     * be taken, it is left for replay.
+     * @param notification Notification of the postponed Action.
+     * @param delay Delay in millis.
+     * @param limit Rate limit.
+     */
+    private void park(
+        final Notification notification, final long delay,
+        final RateLimit limit
+    ) {
+        LOG.warn(
+            "Github rate limit almost exhausted ("
+            + limit.remaining() + " requests left), postponing the Action"
+            + " for " + notification.repoFullName() + "#"
+            + notification.issueNumber() + " for " + delay + "ms"
+        );
+        try {
+            this.scheduler.schedule(
+                () -> {
+                    if(!this.actions.take(notification)) {
+                        this.spread.remove(notification);
+                        LOG.warn(
+                            "Postponed Action for "
+                            + notification.repoFullName() + "#"
+                            + notification.issueNumber()
+                            + " not taken, it is left for replay."
+                        );
+                    }
+                },
+                delay, TimeUnit.MILLISECONDS
+            );
+        } catch (final RejectedExecutionException ex) {
+            this.spread.remove(notification);
+            LOG.warn(
+                "Shutting down, the postponed Action for "
+                + notification.repoFullName() + "#"
+                + notification.issueNumber() + " is left for replay."
+            );
+        }
+    }
+
+    /**
+     * Action which is not started yet, because of the rate limit: it is
+     * parked right away.
+     */
+    private final class Postponed implements Action, Log {
+
+        /**
+         * Notification of the Action.
+         */
+        private final Notification notification;
+
+        /**
+         * Delay in millis.
+         */
+        private final long delay;
+
+        /**
+         * Rate limit.
+         */
+        private final RateLimit limit;
+
+        /**
+         * Ctor.
+         * @param notification Notification of the Action.
+         * @param delay Delay in millis.
+         * @param limit Rate limit.
+         */
+        Postponed(
+            final Notification notification, final long delay,
+            final RateLimit limit
+        ) {
+            this.notification = notification;
+            this.delay = delay;
+            this.limit = limit;
+        }
+
+        @Override
+        public void perform() {
+            PacedReaction.this.park(this.notification, this.delay, this.limit);
+        }
+
+        @Override
+        public Log log() {
+            return this;
+        }
+
+        @Override
+        public String location() {
+            return "";
+        }
+
+        @Override
+        public Logger logger() {
+            return PacedReaction.LOG;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+import co.comdor.Progress;
+import co.comdor.rest.model.Notification;
+
+/**
+ * Registry of the Actions' statuses, in memory. It remembers the last
+ * Actions (the least recently used are evicted, once the capacity is
+ * reached, together with their queued notification, if it was never
+ * started) and
+ * when each of them reached each stage, so we can see where the time
+ * goes, under load.<br><br>
+ * An Action is registered as queued when its notification is taken
+ * (see {@link TrackedActions}) and it reports its progress after the
+ * worker starts it.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class Statuses {
+
+    /**
+     * Initial capacity of the statuses map.
+     */
+    private static final int INITIAL = 16;
+
+    /**
+     * Load factor of the statuses map.
+     */
+    private static final float LOAD = 0.75f;
+
+    /**
+     * Statuses, by Action id.
+     */
+    private final Map<String, Status> statuses;
+
+    /**
+     * Statuses of the queued notifications, which were not started yet.
+     * It is never bigger than the statuses: when a status is evicted,
+     * its notification is forgotten too.
+     */
+    private final Map<Notification, Status> queued;
+
+    /**
+     * Ctor.
+     * @param capacity How many Actions to remember.
+     */
+    public Statuses(final int capacity) {
+        this.statuses = new LinkedHashMap<String, Status>(
+            Statuses.INITIAL, Statuses.LOAD, true
+        ) {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, Status> eldest
+            ) {
+                final boolean evict = this.size() > capacity;
+                if(evict) {
+                    Statuses.this.unqueue(eldest.getValue());
+                }
+                return evict;
+            }
+        };
+        this.queued = new IdentityHashMap<>();
+    }
+
+    /**
+     * Register the Action of a notification, as queued.
+     * @param notification Notification which was taken.
+     */
+    public void queue(final Notification notification) {
+        final Status status = new Status(notification);
+        synchronized (this.statuses) {
+            this.statuses.put(status.actionId(), status);
+            this.queued.put(notification, status);
+        }
+    }
+
+    /**
+     * The notification was not taken, after all.
+     * @param notification Notification.
+     */
+    public void forget(final Notification notification) {
+        synchronized (this.statuses) {
+            final Status status = this.queued.remove(notification);
+            if(status != null) {
+                this.statuses.remove(status.actionId());
+            }
+        }
+    }
+
+    /**
+     * The Action of a notification is started: it will report its progress
+     * here. If the notification was not queued, it is registered now.
+     * @param notification Notification.
+     * @return Progress of the Action.
+     */
+    public Progress start(final Notification notification) {
+        synchronized (this.statuses) {
+            Status status = this.queued.remove(notification);
+            if(status == null) {
+                status = new Status(notification);
+                this.statuses.put(status.actionId(), status);
+            }
+            return status;
+        }
+    }
+
+    /**
+     * Forget the queued notification of this status, if it was not
+     * started yet. Call it while holding the lock on the statuses.
+     * @param status Status which is evicted.
+     */
+    private void unqueue(final Status status) {
+        if(this.queued.get(status.notification) == status) {
+            this.queued.remove(status.notification);
+        }
+    }
+
+    /**
+     * Status of an Action.
+     * @param id Id of the Action.
+     * @return Json status or an empty Json object if the Action is not
+     *  known (or it was evicted).
+     */
+    public JsonObject status(final String id) {
+        final Status status;
+        synchronized (this.statuses) {
+            status = this.statuses.get(id);
+        }
+        JsonObject json = Json.createObjectBuilder().build();
+        if(status != null) {
+            json = status.json();
+        }
+        return json;
+    }
+
+    /**
+     * How many of the remembered Actions are in each stage.
+     * @return Json object, e.g. {"queued": 3, "executing": 2, "done": 95}.
+     */
+    public JsonObject summary() {
+        final List<Status> all;
+        synchronized (this.statuses) {
+            all = new ArrayList<>(this.statuses.values());
+        }
+        final Map<String, Integer> stages = new TreeMap<>();
+        for(final Status status : all) {
+            stages.merge(status.stage(), 1, Integer::sum);
+        }
+        final JsonObjectBuilder summary = Json.createObjectBuilder();
+        for(final Map.Entry<String, Integer> stage : stages.entrySet()) {
+            summary.add(stage.getKey(), stage.getValue());
+        }
+        return summary.build();
+    }
+
+    /**
+     * Status of one Action.
+     */
+    private static final class Status implements Progress {
+
+        /**
+         * The Action's id.
+         */
+        private final String id;
+
+        /**
+         * Notification which triggered the Action.
+         */
+        private final Notification notification;
+
+        /**
+         * Repository full name.
+         */
+        private final String repo;
+
+        /**
+         * Issue number.
+         */
+        private final int issue;
+
+        /**
+         * Stages reached so far, with the moment they were reached.
+         */
+        private final List<Map.Entry<String, Instant>> stages;
+
+        /**
+         * Why did the Action fail? Empty if it did not.
+         */
+        private String failure;
+
+        /**
+         * Ctor. The Action starts as queued.
+         * @param notification Notification which triggered the Action.
+         */
+        Status(final Notification notification) {
+            this.id = UUID.randomUUID().toString();
+            this.notification = notification;
+            this.repo = notification.repoFullName();
+            this.issue = notification.issueNumber();
+            this.stages = new ArrayList<>();
+            this.failure = "";
+            this.reach("queued");
+        }
+
+        @Override
+        public String actionId() {
+            return this.id;
+        }
+
+        @Override
+        public void resolving() {
+            this.reach("resolving");
+        }
+
+        @Override
+        public void executing() {
+            this.reach("executing");
+        }
+
+        @Override
+        public void done() {
+            this.reach("done");
+        }
+
+        @Override
+        public synchronized void failed(final String reason) {
+            this.failure = String.valueOf(reason);
+            this.reach("failed");
+        }
+
+        /**
+         * The current stage.
+         * @return String.
+         */
+        synchronized String stage() {
+            return this.stages.get(this.stages.size() - 1).getKey();
+        }
+
+        /**
+         * Is the Action finished (done or failed)?
+         * @return True or false.
+         */
+        private boolean finished() {
+            final String stage = this.stage();
+            return "done".equals(stage) || "failed".equals(stage);
+        }
+
+        /**
+         * This status as Json. Each stage shows when it was reached and
+         * how long it took (so far, for the current stage), in millis.
+         * The last stage of a finished Action took 0.
+         * @return JsonObject.
+         */
+        synchronized JsonObject json() {
+            final JsonArrayBuilder history = Json.createArrayBuilder();
+            for(int idx = 0; idx < this.stages.size(); idx = idx + 1) {
+                final Instant reached = this.stages.get(idx).getValue();
+                Instant end = Instant.now();
+                if(idx + 1 < this.stages.size()) {
+                    end = this.stages.get(idx + 1).getValue();
+                } else if(this.finished()) {
+                    end = reached;
+                }
+                history.add(
+                    Json.createObjectBuilder()
+                        .add("stage", this.stages.get(idx).getKey())
+                        .add("at", reached.toString())
+                        .add(
+                            "took", end.toEpochMilli() - reached.toEpochMilli()
+                        )
+                );
+            }
+            return Json.createObjectBuilder()
+                .add("id", this.id)
+                .add("repoFullName", this.repo)
+                .add("issueNumber", this.issue)
+                .add("stage", this.stage())
+                .add("failure", this.failure)
+                .add("stages", history)
+                .build();
+        }
+
+        /**
+         * The Action reached a new stage, now.
+         * @param stage Name of the stage.
+         */
+        private synchronized void reach(final String stage) {
+            this.stages.add(
+                new AbstractMap.SimpleImmutableEntry<>(
+                    stage, Instant.now()
+                )
+            );
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket. It holds at most capacity tokens and it is refilled at a
+ * constant rate; each unit of work takes a token and, if the bucket is
+ * empty, the work has to wait.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class TokenBucket {
+
+    /**
+     * Nanoseconds in a second.
+     */
+    private static final double NANOS = 1e9;
+
+    /**
+     * Maximum seconds until the next token, an hour (e.g. if the rate
+     * is 0, no token ever comes).
+     */
+    private static final long MAX_WAIT = 3600L;
+
+    /**
+     * Maximum number of tokens.
+     */
+    private final double capacity;
+
+    /**
+     * Tokens added per second.
+     */
+    private final double rate;
+
+    /**
+     * Tokens in the bucket.
+     */
+    private double tokens;
+
+    /**
+     * Ticker, giving the current time in nanoseconds.
+     */
+    private final LongSupplier ticker;
+
+    /**
+     * When was the bucket last refilled, in nanoseconds.
+     */
+    private long refilled;
+
+    /**
+     * Ctor. The bucket starts full.
+     * @param capacity Maximum number of tokens.
+     * @param rate Tokens added per second.
+     */
+    public TokenBucket(final double capacity, final double rate) {
+        this(capacity, rate, System::nanoTime);
+    }
+
+    /**
+     * Ctor. The bucket starts full.
+     * @param capacity Maximum number of tokens.
+     * @param rate Tokens added per second.
+     * @param ticker Current time in nanoseconds.
+     */
+    public TokenBucket(
+        final double capacity, final double rate, final LongSupplier ticker
+    ) {
+        this.capacity = capacity;
+        this.rate = rate;
+        this.tokens = capacity;
+        this.ticker = ticker;
+        this.refilled = ticker.getAsLong();
+    }
+
+    /**
+     * Take a token, if there is any.
+     * @return True if a token was taken, false if the bucket is empty.
+     */
+    public synchronized boolean take() {
+        this.refill();
+        final boolean taken = this.tokens >= 1;
+        if(taken) {
+            this.tokens = this.tokens - 1;
+        }
+        return taken;
+    }
+
+    /**
+     * Give back a token which was taken, but not used.
+     */
+    public synchronized void giveBack() {
+        this.tokens = Math.min(this.capacity, this.tokens + 1);
+    }
+
+    /**
+     * How many tokens are in the bucket now?
+     * @return Number of tokens.
+     */
+    public synchronized double level() {
+        this.refill();
+        return this.tokens;
+    }
+
+    /**
+     * Seconds until the next token is available.
+     * @return Seconds, 0 if there is a token already, at most an hour.
+     */
+    public synchronized long retryAfter() {
+        this.refill();
+        long seconds = 0;
+        if(this.tokens < 1) {
+            seconds = TokenBucket.MAX_WAIT;
+            if(this.rate > 0) {
+                seconds = (long) Math.min(
+                    TokenBucket.MAX_WAIT,
+                    Math.ceil((1 - this.tokens) / this.rate)
+                );
+            }
+        }
+        return seconds;
+    }
+
+    /**
+     * Add the tokens for the time passed since the last refill.
+     */
+    private void refill() {
+        final long now = this.ticker.getAsLong();
+        this.tokens = Math.min(
+            this.capacity,
+            this.tokens + (now - this.refilled) / NANOS * this.rate
+        );
+        this.refilled = now;
+    }
+}
@@ -23,53 +23,46 @@
  * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
  * POSSIBILITY OF SUCH DAMAGE.
  */
-package co.comdor.github;
+package co.comdor.rest;
 
-import co.comdor.IntermediaryStep;
-import co.comdor.Step;
-import com.jcabi.http.Request;
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import co.comdor.Log;
+import co.comdor.rest.model.Notification;
 
 /**
- * Step where the bot follows the Github user.
+ * Actions which are registered in the {@link Statuses}, as queued, when
+ * they are taken.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
- * @since 0.0.2
+ * @since 0.0.3
  */
-public final class FollowUser extends IntermediaryStep {
+public final class TrackedActions implements Actions {
+
+    /**
+     * Decorated Actions.
+     */
+    private final Actions origin;
+
+    /**
+     * Statuses of the Actions.
+     */
+    private final Statuses statuses;
 
     /**
      * Ctor.
-     * @param next Next step to execute.
+     * @param origin Decorated Actions.
+     * @param statuses Statuses of the Actions.
      */
-    public FollowUser(final Step next) {
-        super(next);
+    public TrackedActions(final Actions origin, final Statuses statuses) {
+        this.origin = origin;
+        this.statuses = statuses;
     }
-    
+
     @Override
-    public void perform(
-        final Command command, final Log log) throws IOException {
-        final String author = command.author();
-        final Request follow = command.issue().repo().github().entry()
-            .uri().path("/user/following/").path(author).back()
-            .method("PUT");
-        log.logger().info("Following Github user " + author + " ...");
-        try {
-            final int status = follow.fetch().status();
-            if(status != HttpURLConnection.HTTP_NO_CONTENT) {
-                log.logger().error(
-                    "User follow status response is " + status
-                    + " . Should have been 204 (NO CONTENT)"
-                );
-            } else {
-                log.logger().info("Followed user " + author + " .");
-            }
-        } catch (final IOException ex) {
-            log.logger().warn("IOException while trying to follow the user.");
+    public boolean take(final Notification notification) {
+        this.statuses.queue(notification);
+        final boolean taken = this.origin.take(notification);
+        if(!taken) {
+            this.statuses.forget(notification);
         }
-        this.next().perform(command, log);
+        return taken;
     }
-    
 }
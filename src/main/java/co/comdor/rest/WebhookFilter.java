@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.json.JsonObject;
+
+/**
+ * Ingress filter for the issue_comment webhook. Most of the events from
+ * busy repositories don't mention the bot at all, so they are dropped here,
+ * looking only at the payload: no Action, no log file and no call to
+ * the Github API.<br><br>
+ * An event is relevant if the comment was created or edited, it was not
+ * written by the bot and it mentions the bot (a mention of a longer login,
+ * e.g. @comdorbot, doesn't count). If the bot's login is not known, only
+ * the action type is checked.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class WebhookFilter {
+
+    /**
+     * The bot's login, lowercase. Empty if unknown.
+     */
+    private final String login;
+
+    /**
+     * Mention of the bot.
+     */
+    private final Pattern mention;
+
+    /**
+     * Accepted events.
+     */
+    private final AtomicLong accepted;
+
+    /**
+     * Dropped events.
+     */
+    private final AtomicLong dropped;
+
+    /**
+     * Ctor.
+     * @param login Github login of the bot, empty if unknown.
+     */
+    public WebhookFilter(final String login) {
+        this.login = login.toLowerCase(Locale.ENGLISH);
+        this.mention = Pattern.compile(
+            "@" + Pattern.quote(this.login) + "(?![\\w-])",
+            Pattern.CASE_INSENSITIVE
+        );
+        this.accepted = new AtomicLong();
+        this.dropped = new AtomicLong();
+    }
+
+    /**
+     * Is this issue_comment event relevant for the bot?
+     * @param payload Webhook payload.
+     * @return True if it should be handled, false if it should be dropped.
+     */
+    public boolean relevant(final JsonObject payload) {
+        final String action = payload.getString("action", "");
+        boolean relevant = "created".equals(action)
+            || "edited".equals(action);
+        final JsonObject comment = payload.getJsonObject("comment");
+        if(relevant && comment == null) {
+            relevant = false;
+        } else if(relevant && !this.login.isEmpty()) {
+            String author = "";
+            final JsonObject user = comment.getJsonObject("user");
+            if(user != null) {
+                author = user.getString("login", "");
+            }
+            relevant = !this.login.equalsIgnoreCase(author)
+                && this.mention.matcher(comment.getString("body", "")).find();
+        }
+        if(relevant) {
+            this.accepted.incrementAndGet();
+        } else {
+            this.dropped.incrementAndGet();
+        }
+        return relevant;
+    }
+
+    /**
+     * How many events were accepted so far?
+     * @return Long.
+     */
+    public long accepted() {
+        return this.accepted.get();
+    }
+
+    /**
+     * How many events were dropped so far?
+     * @return Long.
+     */
+    public long dropped() {
+        return this.dropped.get();
+    }
+}
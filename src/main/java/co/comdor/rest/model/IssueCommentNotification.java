@@ -25,6 +25,7 @@
  */
 package co.comdor.rest.model;
 
+import javax.json.Json;
 import javax.json.JsonObject;
 
 /**
@@ -59,4 +60,15 @@ public final class IssueCommentNotification implements Notification {
         return this.payload.getJsonObject("issue").getInt("number");
     }
 
+    @Override
+    public JsonObject comment() {
+        final JsonObject comment;
+        if(this.payload.containsKey("comment")) {
+            comment = this.payload.getJsonObject("comment");
+        } else {
+            comment = Json.createObjectBuilder().build();
+        }
+        return comment;
+    }
+
 }
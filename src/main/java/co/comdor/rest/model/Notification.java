@@ -25,6 +25,8 @@
  */
 package co.comdor.rest.model;
 
+import javax.json.JsonObject;
+
 /**
  * Simplified Github notification to act upon.
  * @author Mihai Andronache (amihaiemil@gmail.com)
@@ -47,4 +49,12 @@ public interface Notification {
      * @return String.
      */
     int issueNumber();
+
+    /**
+     * The comment which triggered the notification, as it is returned by
+     * the Github API. Webhook payloads contain it, so we don't have to look
+     * for it again in the Issue.
+     * @return JsonObject, empty if the comment is not known.
+     */
+    JsonObject comment();
 }
@@ -25,6 +25,7 @@
  */
 package co.comdor.rest.model;
 
+import javax.json.Json;
 import javax.json.JsonObject;
 
 /**
@@ -59,4 +60,15 @@ public final class SimpleJsonNotification implements Notification {
         return this.json.getInt("issueNumber");
     }
 
+    @Override
+    public JsonObject comment() {
+        final JsonObject comment;
+        if(this.json.containsKey("comment")) {
+            comment = this.json.getJsonObject("comment");
+        } else {
+            comment = Json.createObjectBuilder().build();
+        }
+        return comment;
+    }
+
 }
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest.model;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+/**
+ * Compact notification: only the repository and the Issue number,
+ * nothing else is kept in memory.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class SimpleNotification implements Notification {
+
+    /**
+     * Full name of the repository.
+     */
+    private final String repo;
+
+    /**
+     * Number of the Issue.
+     */
+    private final int issue;
+
+    /**
+     * Ctor.
+     * @param repo Full name of the repository (e.g. amihaiemil/comdor).
+     * @param issue Number of the Issue.
+     */
+    public SimpleNotification(final String repo, final int issue) {
+        this.repo = repo;
+        this.issue = issue;
+    }
+
+    @Override
+    public String repoFullName() {
+        return this.repo;
+    }
+
+    @Override
+    public int issueNumber() {
+        return this.issue;
+    }
+
+    @Override
+    public JsonObject comment() {
+        return Json.createObjectBuilder().build();
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest.model;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * Simplified Github notifications, read from a stream. The Json array is
+ * parsed lazily, one notification at a time, so the whole document is
+ * never held in memory; this is important for the large batches sent
+ * after an outage.<br><br>
+ * Only repoFullName (a string) and issueNumber (an integer) are read and
+ * both are mandatory, any other attribute is skipped. The notifications can
+ * be iterated only once and the iterator throws {@link JsonParsingException}
+ * if the Json is not a valid array of notifications.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class StreamedNotifications implements Iterable<Notification> {
+
+    /**
+     * Json parser.
+     */
+    private final JsonParser parser;
+
+    /**
+     * Ctor.
+     * @param all All notifications, as a Json array.
+     */
+    public StreamedNotifications(final InputStream all) {
+        this.parser = Json.createParser(all);
+    }
+
+    @Override
+    public Iterator<Notification> iterator() {
+        return new Parsed();
+    }
+
+    /**
+     * Iterator parsing the notifications one by one.
+     */
+    private final class Parsed implements Iterator<Notification> {
+
+        /**
+         * Next notification, null if it has not been parsed yet.
+         */
+        private Notification next;
+
+        /**
+         * Has the array started?
+         */
+        private boolean started;
+
+        /**
+         * Has the array ended?
+         */
+        private boolean ended;
+
+        @Override
+        public boolean hasNext() {
+            if(this.next == null && !this.ended) {
+                this.next = this.parse();
+            }
+            return this.next != null;
+        }
+
+        @Override
+        public Notification next() {
+            if(!this.hasNext()) {
+                throw new NoSuchElementException("No more notifications.");
+            }
+            final Notification current = this.next;
+            this.next = null;
+            return current;
+        }
+
+        /**
+         * Parse the next notification.
+         * @return Notification or null if the array has ended.
+         */
+        private Notification parse() {
+            final JsonParser json = StreamedNotifications.this.parser;
+            Notification parsed = null;
+            while(parsed == null && !this.ended && json.hasNext()) {
+                final JsonParser.Event event = json.next();
+                if(!this.started) {
+                    this.expect(json, event, JsonParser.Event.START_ARRAY);
+                    this.started = true;
+                } else if(event == JsonParser.Event.END_ARRAY) {
+                    this.ended = true;
+                    json.close();
+                } else {
+                    this.expect(json, event, JsonParser.Event.START_OBJECT);
+                    parsed = this.notification(json);
+                }
+            }
+            return parsed;
+        }
+
+        /**
+         * Read a notification, right after its START_OBJECT.
+         * @param json Json parser.
+         * @return Notification.
+         */
+        private Notification notification(final JsonParser json) {
+            String repo = "";
+            Integer issue = null;
+            int depth = 1;
+            while(depth > 0) {
+                final JsonParser.Event event = json.next();
+                depth = depth + this.nesting(event);
+                if(depth == 1 && event == JsonParser.Event.KEY_NAME) {
+                    final String key = json.getString();
+                    if("repoFullName".equals(key)) {
+                        this.expect(
+                            json, json.next(), JsonParser.Event.VALUE_STRING
+                        );
+                        repo = json.getString();
+                    } else if("issueNumber".equals(key)) {
+                        issue = this.integer(json);
+                    }
+                }
+            }
+            if(repo.isEmpty() || issue == null) {
+                throw new JsonParsingException(
+                    "Notification without repoFullName or issueNumber",
+                    json.getLocation()
+                );
+            }
+            return new SimpleNotification(repo, issue);
+        }
+
+        /**
+         * Read the next value, which has to be an integer.
+         * @param json Json parser.
+         * @return Integer.
+         */
+        private int integer(final JsonParser json) {
+            this.expect(json, json.next(), JsonParser.Event.VALUE_NUMBER);
+            if(!json.isIntegralNumber()) {
+                throw new JsonParsingException(
+                    "Expected an integer, found " + json.getString(),
+                    json.getLocation()
+                );
+            }
+            return json.getInt();
+        }
+
+        /**
+         * Make sure the parser is where we expect it to be.
+         * @param json Json parser.
+         * @param event Event which was found.
+         * @param expected Event which was expected.
+         */
+        private void expect(
+            final JsonParser json, final JsonParser.Event event,
+            final JsonParser.Event expected
+        ) {
+            if(event != expected) {
+                throw new JsonParsingException(
+                    "Expected " + expected + ", found " + event,
+                    json.getLocation()
+                );
+            }
+        }
+
+        /**
+         * How does this event change the nesting depth?
+         * @param event Parser event.
+         * @return 1 if an object or array starts, -1 if it ends, 0 otherwise.
+         */
+        private int nesting(final JsonParser.Event event) {
+            int nesting = 0;
+            if(event == JsonParser.Event.START_OBJECT
+                || event == JsonParser.Event.START_ARRAY) {
+                nesting = 1;
+            } else if(event == JsonParser.Event.END_OBJECT
+                || event == JsonParser.Event.END_ARRAY) {
+                nesting = -1;
+            }
+            return nesting;
+        }
+    }
+}
@@ -80,7 +80,8 @@ public final class FireUpDockerTestCase {
         Mockito.when(host.containers()).thenReturn(containers);
 
         final Step fireup = new FireUpDocker(
-            host, new Step.Fake(true), new Step.Fake(false)
+            host, new Step.Fake(true), new Step.Fake(false),
+            new LiveContainers()
         );
 
         final Command command = Mockito.mock(Command.class);
@@ -118,7 +119,8 @@ public final class FireUpDockerTestCase {
         Mockito.when(host.containers()).thenReturn(containers);
 
         final Step fireup = new FireUpDocker(
-            host, new Step.Fake(false), new Step.Fake(false)
+            host, new Step.Fake(false), new Step.Fake(false),
+            new LiveContainers()
         );
 
         final Command command = Mockito.mock(Command.class);
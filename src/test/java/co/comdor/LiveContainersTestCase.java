@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor;
+
+import com.amihaiemil.docker.Container;
+import java.io.IOException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link LiveContainers}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class LiveContainersTestCase {
+
+    /**
+     * LiveContainers kills and removes only the containers which are still
+     * running, even if one of them cannot be killed.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void killsRunningContainers() throws Exception {
+        final Container running = LiveContainersTestCase.container("1");
+        final Container stuck = LiveContainersTestCase.container("2");
+        Mockito.doThrow(new IOException("expected")).when(stuck).kill();
+        final Container stopped = LiveContainersTestCase.container("3");
+        final LiveContainers live = new LiveContainers();
+        live.add(running);
+        live.add(stuck);
+        live.add(stopped);
+        MatcherAssert.assertThat(live.remove(stopped), Matchers.is(true));
+        MatcherAssert.assertThat(live.killAll(), Matchers.is(1));
+        Mockito.verify(running).kill();
+        Mockito.verify(running).remove();
+        Mockito.verify(stuck).remove();
+        Mockito.verify(stopped, Mockito.never()).kill();
+        MatcherAssert.assertThat(live.killAll(), Matchers.is(0));
+        MatcherAssert.assertThat(live.remove(running), Matchers.is(false));
+    }
+
+    /**
+     * Mock a container.
+     * @param id Id of the container.
+     * @return Container.
+     */
+    private static Container container(final String id) {
+        final Container container = Mockito.mock(Container.class);
+        Mockito.when(container.containerId()).thenReturn(id);
+        return container;
+    }
+}
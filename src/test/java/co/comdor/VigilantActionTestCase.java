@@ -25,6 +25,7 @@
  */
 package co.comdor;
 
+import co.comdor.github.CircuitOpenException;
 import com.jcabi.github.Coordinates;
 import com.jcabi.github.Github;
 import com.jcabi.github.Issue;
@@ -32,9 +33,12 @@ import com.jcabi.github.Issues;
 import com.jcabi.github.Repos;
 import com.jcabi.github.mock.MkGithub;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
 import java.util.HashMap;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
@@ -153,6 +157,80 @@ public final class VigilantActionTestCase {
         );
     }
     
+    /**
+     * VigilantAction opens no Github Issue when Github is unavailable;
+     * it rethrows the exception, so the Action can be resumed later.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void rethrowsWhenGithubIsUnavailable() throws Exception {
+        final Github github = this.mockGithub();
+        final Action original = this.mockAction();
+        final CircuitOpenException open = new CircuitOpenException("open");
+        Mockito.doThrow(
+            new IllegalStateException("wrapped", open)
+        ).when(original).perform();
+        try {
+            new VigilantAction(original, github).perform();
+            Assert.fail("IllegalStateException was expected.");
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(ex.getCause(), Matchers.is(open));
+        }
+        MatcherAssert.assertThat(
+            github.repos()
+                .get(new Coordinates.Simple("amihaiemil/comdor"))
+                .issues().iterate(new HashMap<>()),
+            Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * VigilantAction opens no Github Issue when the Action was interrupted
+     * because comdor is stopping; it rethrows the exception.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void rethrowsWhenInterrupted() throws Exception {
+        final Github github = this.mockGithub();
+        final Action original = this.mockAction();
+        final InterruptedIOException stopped = new InterruptedIOException(
+            "comdor is stopping"
+        );
+        Mockito.doThrow(stopped).when(original).perform();
+        try {
+            new VigilantAction(original, github).perform();
+            Assert.fail("InterruptedIOException was expected.");
+        } catch (final InterruptedIOException ex) {
+            MatcherAssert.assertThat(ex, Matchers.is(stopped));
+        }
+        MatcherAssert.assertThat(
+            github.repos()
+                .get(new Coordinates.Simple("amihaiemil/comdor"))
+                .issues().iterate(new HashMap<>()),
+            Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * VigilantAction still reports a timeout, which is not an interruption.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void reportsTimeouts() throws Exception {
+        final Github github = this.mockGithub();
+        final Action original = this.mockAction();
+        Mockito.doThrow(
+            new SocketTimeoutException("Read timed out")
+        ).when(original).perform();
+        new VigilantAction(original, github).perform();
+        MatcherAssert.assertThat(
+            github.repos()
+                .get(new Coordinates.Simple("amihaiemil/comdor"))
+                .issues().iterate(new HashMap<>()),
+            Matchers.iterableWithSize(1)
+        );
+    }
+
     /**
      * Mock an Action for testing.
      * @return Action mock.
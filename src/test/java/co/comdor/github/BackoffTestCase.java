@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.time.Duration;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Backoff}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class BackoffTestCase {
+
+    /**
+     * Backoff's delays are jittered, growing exponentially up to the cap.
+     */
+    @Test
+    public void jittersExponentialDelays() {
+        final Backoff backoff = new Backoff(
+            10, Duration.ofMillis(100), Duration.ofMillis(500),
+            Duration.ofMinutes(1)
+        );
+        for(int idx = 0; idx < 100; idx = idx + 1) {
+            MatcherAssert.assertThat(
+                backoff.delay(1, Long.MAX_VALUE),
+                Matchers.allOf(
+                    Matchers.greaterThanOrEqualTo(0L),
+                    Matchers.lessThanOrEqualTo(100L)
+                )
+            );
+            MatcherAssert.assertThat(
+                backoff.delay(3, Long.MAX_VALUE),
+                Matchers.lessThanOrEqualTo(400L)
+            );
+            MatcherAssert.assertThat(
+                backoff.delay(9, Long.MAX_VALUE),
+                Matchers.lessThanOrEqualTo(500L)
+            );
+        }
+    }
+
+    /**
+     * Backoff says not to retry when the attempts are used up or when
+     * nothing is left of the budget.
+     */
+    @Test
+    public void stopsRetrying() {
+        final Backoff backoff = new Backoff(
+            3, Duration.ofMillis(10), Duration.ofSeconds(1),
+            Duration.ofSeconds(2)
+        );
+        MatcherAssert.assertThat(
+            backoff.delay(3, Long.MAX_VALUE), Matchers.is(-1L)
+        );
+        MatcherAssert.assertThat(backoff.delay(1, 0), Matchers.is(-1L));
+        MatcherAssert.assertThat(backoff.budget(), Matchers.is(2000L));
+    }
+
+    /**
+     * Backoff waits at least as long as the server asked, but not beyond
+     * the budget.
+     */
+    @Test
+    public void waitsAtLeastTheMinimum() {
+        final Backoff backoff = new Backoff(
+            3, Duration.ofMillis(10), Duration.ofMillis(20),
+            Duration.ofMinutes(1)
+        );
+        MatcherAssert.assertThat(
+            backoff.delay(1, Long.MAX_VALUE, 2000L), Matchers.is(2000L)
+        );
+        MatcherAssert.assertThat(
+            backoff.delay(1, 1000L, 2000L), Matchers.is(-1L)
+        );
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link BackoffWire}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class BackoffWireTestCase {
+
+    /**
+     * BackoffWire retries a GET which got a 503.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void retriesGet() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_UNAVAILABLE))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "done"))
+            .start();
+        try {
+            MatcherAssert.assertThat(
+                new JdkRequest(container.home())
+                    .through(BackoffWire.class, BackoffWireTestCase.quick())
+                    .fetch().body(),
+                Matchers.equalTo("done")
+            );
+            MatcherAssert.assertThat(container.queries(), Matchers.is(2));
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * BackoffWire sends the same body again when it retries a PUT.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void resendsBody() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_BAD_GATEWAY))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NO_CONTENT))
+            .start();
+        try {
+            MatcherAssert.assertThat(
+                new JdkRequest(container.home())
+                    .through(BackoffWire.class, BackoffWireTestCase.quick())
+                    .method(Request.PUT)
+                    .body().set("{\"label\":\"bug\"}").back()
+                    .fetch().status(),
+                Matchers.is(HttpURLConnection.HTTP_NO_CONTENT)
+            );
+            container.take();
+            MatcherAssert.assertThat(
+                container.take().body(),
+                Matchers.equalTo("{\"label\":\"bug\"}")
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * BackoffWire does not retry a POST which got a 502, since it might
+     * have been applied (e.g. a reply might have been posted).
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void doesNotRetryPost() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_BAD_GATEWAY))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_CREATED))
+            .start();
+        try {
+            MatcherAssert.assertThat(
+                new JdkRequest(container.home())
+                    .through(BackoffWire.class, BackoffWireTestCase.quick())
+                    .method(Request.POST)
+                    .body().set("{\"body\":\"hi\"}").back()
+                    .fetch().status(),
+                Matchers.is(HttpURLConnection.HTTP_BAD_GATEWAY)
+            );
+            MatcherAssert.assertThat(container.queries(), Matchers.is(1));
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * BackoffWire does not retry if waiting would spend the call's budget.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void stopsWhenBudgetIsSpent() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_UNAVAILABLE))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK))
+            .start();
+        try {
+            MatcherAssert.assertThat(
+                new JdkRequest(container.home())
+                    .through(
+                        BackoffWire.class,
+                        new Backoff(
+                            2, Duration.ofDays(1), Duration.ofDays(1),
+                            Duration.ofSeconds(1)
+                        )
+                    )
+                    .fetch().status(),
+                Matchers.is(HttpURLConnection.HTTP_UNAVAILABLE)
+            );
+            MatcherAssert.assertThat(container.queries(), Matchers.is(1));
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * BackoffWire retries a GET which timed out.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void retriesTimeouts() throws Exception {
+        final Wire origin = Mockito.mock(Wire.class);
+        final Response response = Mockito.mock(Response.class);
+        Mockito.when(response.status()).thenReturn(HttpURLConnection.HTTP_OK);
+        Mockito.when(
+            origin.send(
+                Mockito.any(Request.class), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyCollection(),
+                Mockito.any(InputStream.class), Mockito.anyInt(),
+                Mockito.anyInt()
+            )
+        ).thenThrow(new SocketTimeoutException("read timed out"))
+            .thenReturn(response);
+        MatcherAssert.assertThat(
+            new BackoffWire(origin, BackoffWireTestCase.quick()).send(
+                Mockito.mock(Request.class), "http://localhost/repos",
+                Request.GET, Collections.emptyList(),
+                new ByteArrayInputStream(new byte[0]), 0, 0
+            ),
+            Matchers.is(response)
+        );
+    }
+
+    /**
+     * BackoffWire retries even a POST which got a 429 with Retry-After
+     * (Github did not apply it), waiting at least as long as asked.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void waitsAsGithubAsks() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(429).withHeader("Retry-After", "1")
+            )
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_CREATED))
+            .start();
+        try {
+            final long start = System.currentTimeMillis();
+            MatcherAssert.assertThat(
+                new JdkRequest(container.home())
+                    .through(BackoffWire.class, BackoffWireTestCase.quick())
+                    .method(Request.POST)
+                    .fetch().status(),
+                Matchers.is(HttpURLConnection.HTTP_CREATED)
+            );
+            MatcherAssert.assertThat(
+                System.currentTimeMillis() - start,
+                Matchers.greaterThanOrEqualTo(1000L)
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * Backoff with short delays.
+     * @return Backoff.
+     */
+    private static Backoff quick() {
+        return new Backoff(
+            2, Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofSeconds(5)
+        );
+    }
+}
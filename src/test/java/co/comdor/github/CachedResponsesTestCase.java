@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link CachedResponses}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CachedResponsesTestCase {
+
+    /**
+     * Temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * CachedResponses evicts the least recently used responses, once
+     * the memory is full.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final CachedResponses responses = new CachedResponses(50);
+        responses.put("a", CachedResponsesTestCase.cached("1234567890"));
+        responses.put("b", CachedResponsesTestCase.cached("1234567890"));
+        MatcherAssert.assertThat(responses.get("a"), Matchers.notNullValue());
+        responses.put("c", CachedResponsesTestCase.cached("1234567890"));
+        MatcherAssert.assertThat(responses.get("b"), Matchers.nullValue());
+        MatcherAssert.assertThat(responses.get("a"), Matchers.notNullValue());
+        MatcherAssert.assertThat(responses.get("c"), Matchers.notNullValue());
+    }
+
+    /**
+     * CachedResponses spills the evicted responses on disk and reads them
+     * back.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void spillsOnDisk() throws Exception {
+        final Path dir = this.folder.newFolder().toPath();
+        final CachedResponses responses = new CachedResponses(
+            30, dir, Duration.ofDays(1), 1024
+        );
+        responses.put("a", CachedResponsesTestCase.cached("first"));
+        responses.put("b", CachedResponsesTestCase.cached("second"));
+        final CachedResponses.Cached first = responses.get("a");
+        MatcherAssert.assertThat(
+            new String(first.body(), "UTF-8"), Matchers.equalTo("first")
+        );
+        MatcherAssert.assertThat(first.validator(), Matchers.equalTo("etag"));
+        MatcherAssert.assertThat(
+            first.headers().get(0)[1], Matchers.equalTo("etag")
+        );
+        MatcherAssert.assertThat(
+            new String(responses.get("b").body(), "UTF-8"),
+            Matchers.equalTo("second")
+        );
+        MatcherAssert.assertThat(
+            dir.toFile().listFiles().length, Matchers.is(1)
+        );
+        for(final File file : dir.toFile().listFiles()) {
+            Files.setLastModifiedTime(
+                file.toPath(),
+                FileTime.from(Instant.now().minus(Duration.ofDays(2)))
+            );
+        }
+        new CachedResponses(30, dir, Duration.ofDays(1), 1024);
+        MatcherAssert.assertThat(
+            dir.toFile().listFiles().length, Matchers.is(0)
+        );
+    }
+
+    /**
+     * CachedResponses deletes the oldest files, once the directory holds
+     * more than its limit.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void capsTheDirectory() throws Exception {
+        final Path dir = this.folder.newFolder().toPath();
+        final CachedResponses responses = new CachedResponses(
+            1, dir, Duration.ofDays(1), 200
+        );
+        for(int idx = 0; idx < 10; ++idx) {
+            responses.put(
+                String.valueOf(idx),
+                CachedResponsesTestCase.cached("0123456789")
+            );
+        }
+        long total = 0;
+        for(final File file : dir.toFile().listFiles()) {
+            total = total + file.length();
+        }
+        MatcherAssert.assertThat(total, Matchers.lessThanOrEqualTo(200L));
+        MatcherAssert.assertThat(
+            dir.toFile().listFiles().length, Matchers.greaterThan(0)
+        );
+    }
+
+    /**
+     * A cached response.
+     * @param body Body.
+     * @return Cached response.
+     */
+    private static CachedResponses.Cached cached(final String body) {
+        return new CachedResponses.Cached(
+            "If-None-Match", "etag",
+            Collections.singletonList(new String[] {"ETag", "etag"}),
+            body.getBytes()
+        );
+    }
+}
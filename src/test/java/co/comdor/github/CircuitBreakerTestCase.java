@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.time.Duration;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CircuitBreakerTestCase {
+
+    /**
+     * CircuitBreaker opens after the consecutive failures and the slow
+     * calls count as failures; a success in between resets the count.
+     */
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            3, Duration.ofSeconds(1), Duration.ofMinutes(1)
+        );
+        breaker.record(10, true);
+        breaker.record(10, true);
+        breaker.record(10, false);
+        breaker.record(10, true);
+        breaker.record(10, true);
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(true));
+        breaker.record(2000, false);
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(false));
+        MatcherAssert.assertThat(
+            breaker.waiting(), Matchers.greaterThan(50000L)
+        );
+    }
+
+    /**
+     * CircuitBreaker lets a single probe through after the cool-down;
+     * a failed probe opens it again, a successful one closes it.
+     */
+    @Test
+    public void probesWhenHalfOpen() {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            1, Duration.ofSeconds(1), Duration.ZERO
+        );
+        breaker.record(10, true);
+        MatcherAssert.assertThat(breaker.waiting(), Matchers.is(0L));
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(true));
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(false));
+        breaker.record(10, true);
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(true));
+        breaker.record(10, false);
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(true));
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(true));
+    }
+
+    /**
+     * CircuitBreaker keeps the probe until the probe itself is recorded:
+     * a call which was in flight when the circuit opened doesn't let
+     * another probe through.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void tracksProbeByThread() throws Exception {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            1, Duration.ofSeconds(1), Duration.ZERO
+        );
+        breaker.record(10, true);
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(true));
+        final Thread straggler = new Thread(() -> breaker.record(10, false));
+        straggler.start();
+        straggler.join();
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(false));
+        breaker.record(10, false);
+        MatcherAssert.assertThat(breaker.allow(), Matchers.is(true));
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CircuitWire}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CircuitWireTestCase {
+
+    /**
+     * CircuitWire counts the 5xx responses as failures and, once the
+     * circuit is open, it fails fast without sending the request.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void failsFastWhenOpen() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_BAD_GATEWAY))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_UNAVAILABLE))
+            .start();
+        final CircuitBreaker breaker = new CircuitBreaker(
+            2, Duration.ofSeconds(10), Duration.ofMinutes(1)
+        );
+        try {
+            for(int idx = 0; idx < 2; idx = idx + 1) {
+                MatcherAssert.assertThat(
+                    new JdkRequest(container.home())
+                        .through(CircuitWire.class, breaker)
+                        .fetch().status(),
+                    Matchers.greaterThanOrEqualTo(
+                        HttpURLConnection.HTTP_INTERNAL_ERROR
+                    )
+                );
+            }
+            try {
+                new JdkRequest(container.home())
+                    .through(CircuitWire.class, breaker)
+                    .fetch();
+                Assert.fail("CircuitOpenException was expected.");
+            } catch (final CircuitOpenException ex) {
+                MatcherAssert.assertThat(container.queries(), Matchers.is(2));
+            }
+        } finally {
+            container.stop();
+        }
+    }
+}
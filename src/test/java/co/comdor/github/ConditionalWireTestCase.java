@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.mock.MkQuery;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.http.response.RestResponse;
+import java.net.HttpURLConnection;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConditionalWire}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class ConditionalWireTestCase {
+
+    /**
+     * ConditionalWire sends If-None-Match with the remembered ETag and
+     * returns the remembered response, if Github answers 304.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void revalidatesWithEtag() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "[1, 2]")
+                    .withHeader("ETag", "\"abc\"")
+            )
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NOT_MODIFIED, ""))
+            .start();
+        try {
+            final CachedResponses responses = new CachedResponses(1024);
+            for(int idx = 0; idx < 2; ++idx) {
+                MatcherAssert.assertThat(
+                    new JdkRequest(container.home())
+                        .through(ConditionalWire.class, responses)
+                        .fetch()
+                        .as(RestResponse.class)
+                        .assertStatus(HttpURLConnection.HTTP_OK)
+                        .body(),
+                    Matchers.equalTo("[1, 2]")
+                );
+            }
+            MatcherAssert.assertThat(
+                container.take().headers().containsKey("If-None-Match"),
+                Matchers.is(false)
+            );
+            final MkQuery second = container.take();
+            MatcherAssert.assertThat(
+                second.headers().get("If-None-Match"),
+                Matchers.contains("\"abc\"")
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * ConditionalWire returns the new response if the resource changed and
+     * doesn't touch requests other than GET.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void returnsChangedResponse() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "old")
+                    .withHeader("Last-Modified", "Mon, 01 May 2017 10:00:00 GMT")
+            )
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_CREATED, "new"))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "new"))
+            .start();
+        try {
+            final CachedResponses responses = new CachedResponses(1024);
+            new JdkRequest(container.home())
+                .through(ConditionalWire.class, responses).fetch();
+            new JdkRequest(container.home())
+                .through(ConditionalWire.class, responses)
+                .method("POST").fetch();
+            MatcherAssert.assertThat(
+                new JdkRequest(container.home())
+                    .through(ConditionalWire.class, responses)
+                    .fetch().body(),
+                Matchers.equalTo("new")
+            );
+            container.take();
+            MatcherAssert.assertThat(
+                container.take().headers().containsKey("If-Modified-Since"),
+                Matchers.is(false)
+            );
+            MatcherAssert.assertThat(
+                container.take().headers().get("If-Modified-Since"),
+                Matchers.contains("Mon, 01 May 2017 10:00:00 GMT")
+            );
+        } finally {
+            container.stop();
+        }
+    }
+}
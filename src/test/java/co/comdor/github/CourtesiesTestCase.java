@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import co.comdor.Log;
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Issue;
+import com.jcabi.github.Repo;
+import com.jcabi.github.Repos;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.mock.MkQuery;
+import com.jcabi.http.request.JdkRequest;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+/**
+ * Unit tests for {@link Courtesies}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CourtesiesTestCase {
+
+    /**
+     * Courtesies are only queued when offered; the repository is starred
+     * later, in the background.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void starsInBackground() throws Exception {
+        final Command command = CourtesiesTestCase.command();
+        final Repo repo = command.issue().repo();
+        final Metadata metadata = Mockito.mock(Metadata.class);
+        final List<Runnable> queue = new ArrayList<>();
+        new Courtesies(metadata, new Memo.Forgetful(), queue::add)
+            .offer(command, CourtesiesTestCase.log());
+        MatcherAssert.assertThat(repo.stars().starred(), Matchers.is(false));
+        MatcherAssert.assertThat(queue, Matchers.hasSize(1));
+        queue.get(0).run();
+        MatcherAssert.assertThat(repo.stars().starred(), Matchers.is(true));
+        Mockito.verify(metadata).starred(repo);
+    }
+
+    /**
+     * Courtesies are not done again for the repositories and users
+     * which the Memo has already seen.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void skipsWhatWasDone() throws Exception {
+        final Command command = CourtesiesTestCase.command();
+        final Metadata metadata = Mockito.mock(Metadata.class);
+        final Memo memo = Mockito.mock(Memo.class);
+        Mockito.when(memo.seen(Mockito.anyString())).thenReturn(true);
+        new Courtesies(metadata, memo, Runnable::run)
+            .offer(command, CourtesiesTestCase.log());
+        Mockito.verify(memo).seen("star:amihaiemil/comdor");
+        Mockito.verify(memo).seen("follow:mihai");
+        Mockito.verifyZeroInteractions(metadata);
+        MatcherAssert.assertThat(
+            command.issue().repo().stars().starred(), Matchers.is(false)
+        );
+    }
+
+    /**
+     * Courtesies forget a star which failed, so it is tried again with
+     * the next command.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void forgetsWhatFailed() throws Exception {
+        final Command command = CourtesiesTestCase.command();
+        final Metadata metadata = Mockito.mock(Metadata.class);
+        Mockito.when(metadata.starred(Mockito.any(Repo.class)))
+            .thenThrow(new IOException("Github is down"));
+        final Memo memo = Mockito.mock(Memo.class);
+        Mockito.when(memo.seen("follow:mihai")).thenReturn(true);
+        new Courtesies(metadata, memo, Runnable::run)
+            .offer(command, CourtesiesTestCase.log());
+        Mockito.verify(memo).forget("star:amihaiemil/comdor");
+        Mockito.verify(memo, Mockito.never()).forget("follow:mihai");
+    }
+
+    /**
+     * Courtesies follow the user who gave the command.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void followsUser() throws Exception {
+        final MkContainer github = new MkGrizzlyContainer().next(
+            new MkAnswer.Simple(HttpURLConnection.HTTP_NO_CONTENT)
+        ).start();
+        try {
+            final Memo memo = Mockito.mock(Memo.class);
+            Mockito.when(memo.seen("star:amihaiemil/comdor")).thenReturn(true);
+            new Courtesies(Mockito.mock(Metadata.class), memo, Runnable::run)
+                .offer(
+                    CourtesiesTestCase.command(github),
+                    CourtesiesTestCase.log()
+                );
+            final MkQuery request = github.take();
+            MatcherAssert.assertThat(
+                request.uri().toString(),
+                Matchers.equalTo("/user/following/mihai")
+            );
+            MatcherAssert.assertThat(request.method(), Matchers.equalTo("PUT"));
+            Mockito.verify(memo, Mockito.never()).forget("follow:mihai");
+        } finally {
+            github.stop();
+        }
+    }
+
+    /**
+     * Courtesies forget a follow which was not answered with 204, so it
+     * is tried again with the next command.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void forgetsUnexpectedFollowStatus() throws Exception {
+        final MkContainer github = new MkGrizzlyContainer().next(
+            new MkAnswer.Simple(HttpURLConnection.HTTP_INTERNAL_ERROR)
+        ).start();
+        try {
+            final Memo memo = Mockito.mock(Memo.class);
+            Mockito.when(memo.seen("star:amihaiemil/comdor")).thenReturn(true);
+            new Courtesies(Mockito.mock(Metadata.class), memo, Runnable::run)
+                .offer(
+                    CourtesiesTestCase.command(github),
+                    CourtesiesTestCase.log()
+                );
+            Mockito.verify(memo).forget("follow:mihai");
+        } finally {
+            github.stop();
+        }
+    }
+
+    /**
+     * Courtesies are skipped if the background is too busy.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void skipsWhenBusy() throws Exception {
+        final Log log = CourtesiesTestCase.log();
+        new Courtesies(
+            Mockito.mock(Metadata.class), new Memo.Forgetful(),
+            task -> {
+                throw new RejectedExecutionException("busy");
+            }
+        ).offer(CourtesiesTestCase.command(), log);
+        Mockito.verify(log.logger()).info(
+            "Too busy, no starring or following this time."
+        );
+    }
+
+    /**
+     * A command from user mihai, in a mock repository.
+     * @return Command.
+     * @throws Exception If something goes wrong.
+     */
+    private static Command command() throws Exception {
+        final Issue issue = new MkGithub("amihaiemil").repos().create(
+            new Repos.RepoCreate("comdor", false)
+        ).issues().create("test issue", "test body");
+        final Command command = Mockito.mock(Command.class);
+        Mockito.when(command.issue()).thenReturn(issue);
+        Mockito.when(command.author()).thenReturn("mihai");
+        return command;
+    }
+
+    /**
+     * A command from user mihai, in a repository of the given Github.
+     * @param github Github server.
+     * @return Command.
+     */
+    private static Command command(final MkContainer github) {
+        final Github client = Mockito.mock(Github.class);
+        Mockito.when(client.entry()).thenReturn(
+            new JdkRequest(github.home())
+        );
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.when(repo.github()).thenReturn(client);
+        Mockito.when(repo.coordinates()).thenReturn(
+            new Coordinates.Simple("amihaiemil/comdor")
+        );
+        final Issue issue = Mockito.mock(Issue.class);
+        Mockito.when(issue.repo()).thenReturn(repo);
+        final Command command = Mockito.mock(Command.class);
+        Mockito.when(command.issue()).thenReturn(issue);
+        Mockito.when(command.author()).thenReturn("mihai");
+        return command;
+    }
+
+    /**
+     * Mock Log.
+     * @return Log.
+     */
+    private static Log log() {
+        final Log log = Mockito.mock(Log.class);
+        Mockito.when(log.logger()).thenReturn(Mockito.mock(Logger.class));
+        return log;
+    }
+}
@@ -222,4 +222,39 @@ public final class CreateLabelsTestCase {
             Matchers.iterableWithSize(4)
         );
     }
+
+    /**
+     * Create reads the existing labels once and compares them ignoring
+     * case, like Github does. Labels repeated in .comdor.yml are created
+     * (and counted) only once.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void createsOnlyMissingLabelsIgnoringCase() throws Exception {
+        final ComdorYaml yaml = Mockito.mock(ComdorYaml.class);
+        Mockito.when(yaml.labels()).thenReturn(
+            Arrays.asList("bug", "Feature", "feature", "docs", "question")
+        );
+        final Command command = Mockito.mock(Command.class);
+        Mockito.when(command.comdorYaml()).thenReturn(yaml);
+        final Log log = Mockito.mock(Log.class);
+        final Logger logger = Mockito.mock(Logger.class);
+        Mockito.when(log.logger()).thenReturn(logger);
+        final Issue issue = new MkGithub("comdor")
+            .repos()
+            .create(new RepoCreate("testrepo", false))
+            .issues()
+            .create("test issue", "test body");
+        issue.repo().labels().create("Bug", "ff0000");
+        Mockito.when(command.issue()).thenReturn(issue);
+        new Create(new Step.Fake(true)).perform(command, log);
+        MatcherAssert.assertThat(
+            issue.repo().labels().iterate(),
+            Matchers.iterableWithSize(4)
+        );
+        Mockito.verify(logger).info(
+            "Labels successfully created! Created: 3, "
+            + "skipped (already existing): 1"
+        );
+    }
 }
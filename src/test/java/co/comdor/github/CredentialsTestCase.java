@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import com.jcabi.github.Github;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.http.impl.client.HttpClients;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link Credentials}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CredentialsTestCase {
+
+    /**
+     * Credentials.Single gives the same Github and rate limit for
+     * every repository.
+     */
+    @Test
+    public void singleForAllRepos() {
+        final Github github = Mockito.mock(Github.class);
+        final RateLimit limit = new RateLimit();
+        final Credentials single = new Credentials.Single(github, limit);
+        MatcherAssert.assertThat(
+            single.github("amihaiemil/comdor"), Matchers.is(github)
+        );
+        MatcherAssert.assertThat(
+            single.rateLimit("other/repo"), Matchers.is(limit)
+        );
+    }
+
+    /**
+     * Credentials.Pool uses the owner's own token, if it has one, and
+     * the same Github for all its repositories.
+     */
+    @Test
+    public void usesOwnersToken() {
+        final Credentials pool = new Credentials.Pool(
+            CredentialsTestCase.connections(),
+            Collections.singletonMap("Amihaiemil", "own"),
+            Arrays.asList("shared")
+        );
+        MatcherAssert.assertThat(
+            pool.rateLimit("amihaiemil/comdor"),
+            Matchers.allOf(
+                Matchers.sameInstance(pool.rateLimit("AMIHAIEMIL/charles")),
+                Matchers.not(Matchers.sameInstance(pool.rateLimit("x/y")))
+            )
+        );
+        MatcherAssert.assertThat(
+            pool.github("amihaiemil/comdor"),
+            Matchers.sameInstance(pool.github("amihaiemil/charles"))
+        );
+    }
+
+    /**
+     * Credentials.Pool spreads the owners over the shared tokens and moves
+     * an owner to another token when its token's rate limit is exhausted.
+     */
+    @Test
+    public void spreadsOwnersOverSharedTokens() {
+        final Credentials pool = new Credentials.Pool(
+            CredentialsTestCase.connections(),
+            Collections.emptyMap(),
+            Arrays.asList("first", "second")
+        );
+        final RateLimit first = pool.rateLimit("amihaiemil/comdor");
+        final RateLimit second = pool.rateLimit("decorators-squad/eo");
+        MatcherAssert.assertThat(first, Matchers.not(second));
+        MatcherAssert.assertThat(
+            pool.rateLimit("amihaiemil/charles"), Matchers.is(first)
+        );
+        first.update(0, Instant.now().getEpochSecond() + 60);
+        second.update(4000, Instant.now().getEpochSecond() + 60);
+        MatcherAssert.assertThat(
+            pool.rateLimit("amihaiemil/comdor"), Matchers.is(second)
+        );
+        MatcherAssert.assertThat(
+            pool.rateLimit("another/repo"), Matchers.is(second)
+        );
+    }
+
+    /**
+     * Credentials.Pool moves an owner to another token as soon as its
+     * token gets down to the reserve, and the chosen credential stays
+     * pinned meanwhile.
+     */
+    @Test
+    public void movesOwnerAtReserve() {
+        final Credentials pool = new Credentials.Pool(
+            CredentialsTestCase.connections(),
+            Collections.emptyMap(),
+            Arrays.asList("first", "second"),
+            50
+        );
+        final Credentials chosen = pool.chosen("amihaiemil/comdor");
+        final RateLimit first = chosen.rateLimit("amihaiemil/comdor");
+        final RateLimit second = pool.rateLimit("decorators-squad/eo");
+        first.update(50, Instant.now().getEpochSecond() + 60);
+        second.update(4000, Instant.now().getEpochSecond() + 60);
+        MatcherAssert.assertThat(
+            pool.rateLimit("amihaiemil/comdor"), Matchers.is(second)
+        );
+        MatcherAssert.assertThat(
+            chosen.rateLimit("amihaiemil/comdor"), Matchers.is(first)
+        );
+        MatcherAssert.assertThat(
+            chosen.github("amihaiemil/comdor"),
+            Matchers.not(pool.github("amihaiemil/comdor"))
+        );
+    }
+
+    /**
+     * Connections for the tests; no request is made through them.
+     * @return Connections.
+     */
+    private static Connections connections() {
+        return new Connections(
+            HttpClients.createDefault(), new CachedResponses(1024)
+        );
+    }
+}
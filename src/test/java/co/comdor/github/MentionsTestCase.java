@@ -0,0 +1,385 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import co.comdor.Log;
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Issue;
+import com.jcabi.github.Repo;
+import com.jcabi.github.Repos;
+import com.jcabi.github.RtGithub;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.github.mock.MkStorage;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unit tests for {@link Mentions}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class MentionsTestCase {
+
+    /**
+     * Mentions.InIssue finds the last mention in the Issue's comments.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void findsLastMentionInIssue() throws Exception {
+        final MkStorage storage = new MkStorage.Synced(new MkStorage.InFile());
+        final Repo repo = new MkGithub(storage, "amihaiemil").repos().create(
+            new Repos.RepoCreate("comdor", false)
+        );
+        final Issue issue = repo.issues().create("test issue", "body");
+        issue.comments().post("@comdor hello!");
+        final Command last = new Mentions.InIssue(
+            new MkGithub(storage, "comdor").repos().get(repo.coordinates())
+                .issues().get(issue.number())
+        ).last(this.log());
+        MatcherAssert.assertThat(
+            last.json().getString("body"), Matchers.equalTo("@comdor hello!")
+        );
+    }
+
+    /**
+     * Mentions.InPayload returns the comment from the payload, without
+     * listing the Issue's comments.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void usesFreshPayload() throws Exception {
+        final Issue issue = this.issue();
+        final JsonObject comment = MentionsTestCase.comment(
+            1, "amihaiemil", "@comdor hello!", Instant.now()
+        );
+        final Command last = new Mentions.InPayload(
+            issue, comment, Duration.ofMinutes(1)
+        ).last(this.log());
+        MatcherAssert.assertThat(last.json(), Matchers.equalTo(comment));
+        MatcherAssert.assertThat(last.author(), Matchers.equalTo("amihaiemil"));
+        MatcherAssert.assertThat(last.issue(), Matchers.is(issue));
+    }
+
+    /**
+     * Mentions.InPayload complains if the comment is the bot's own.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = MentionLookupException.class)
+    public void rejectsOwnComment() throws Exception {
+        new Mentions.InPayload(
+            this.issue(),
+            MentionsTestCase.comment(
+                1, "comdor", "@comdor is here", Instant.now()
+            ),
+            Duration.ofMinutes(1)
+        ).last(this.log());
+    }
+
+    /**
+     * Mentions.InPayload complains if the comment does not mention the bot.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = MentionLookupException.class)
+    public void rejectsCommentWithoutMention() throws Exception {
+        new Mentions.InPayload(
+            this.issue(),
+            MentionsTestCase.comment(
+                1, "amihaiemil", "just a comment", Instant.now()
+            ),
+            Duration.ofMinutes(1)
+        ).last(this.log());
+    }
+
+    /**
+     * Mentions.InPayload checks the newer comments if the payload is stale
+     * and complains if the mention has already been answered.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void rejectsStaleAnsweredMention() throws Exception {
+        final Instant created = Instant.now().minus(Duration.ofHours(1));
+        final JsonObject comment = MentionsTestCase.comment(
+            1, "amihaiemil", "@comdor hello!", created
+        );
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK, "{\"login\": \"comdor\"}"
+                )
+            ).next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createArrayBuilder()
+                        .add(comment)
+                        .add(
+                            MentionsTestCase.comment(
+                                2, "comdor", "@amihaiemil hi!", Instant.now()
+                            )
+                        ).build().toString()
+                )
+            ).start();
+        try {
+            new Mentions.InPayload(
+                new RtGithub(new JdkRequest(container.home())).repos()
+                    .get(new Coordinates.Simple("a/b"))
+                    .issues().get(1),
+                comment,
+                Duration.ofMinutes(1)
+            ).last(this.log());
+            MatcherAssert.assertThat("Exception expected!", false);
+        } catch (final MentionLookupException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(),
+                Matchers.equalTo("Last mention is already answered!")
+            );
+            container.take();
+            MatcherAssert.assertThat(
+                container.take().uri().toString(),
+                Matchers.allOf(
+                    Matchers.startsWith("/repos/a/b/issues/1/comments"),
+                    Matchers.containsString("since=")
+                )
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * Mentions.InPayload returns the stale mention, if it has not been
+     * answered yet.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void usesStaleUnansweredMention() throws Exception {
+        final JsonObject comment = MentionsTestCase.comment(
+            1, "amihaiemil", "@comdor hello!",
+            Instant.now().minus(Duration.ofHours(1))
+        );
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK, "{\"login\": \"comdor\"}"
+                )
+            ).next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createArrayBuilder().add(comment).build().toString()
+                )
+            ).start();
+        try {
+            MatcherAssert.assertThat(
+                new Mentions.InPayload(
+                    new RtGithub(new JdkRequest(container.home())).repos()
+                        .get(new Coordinates.Simple("a/b"))
+                        .issues().get(1),
+                    comment,
+                    Duration.ofMinutes(1)
+                ).last(this.log()).json(),
+                Matchers.equalTo(comment)
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * Mentions.InPayload compares the comment ids beyond int and checks
+     * all the pages of newer comments.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void checksAllPagesOfNewerComments() throws Exception {
+        final long mention = 3000000000L;
+        final JsonObject comment = MentionsTestCase.comment(
+            mention, "amihaiemil", "@comdor hello!",
+            Instant.now().minus(Duration.ofHours(1))
+        );
+        final JsonArrayBuilder first = Json.createArrayBuilder().add(comment);
+        for(int idx = 1; idx < 100; ++idx) {
+            first.add(
+                MentionsTestCase.comment(
+                    mention + idx, "someone", "+1", Instant.now()
+                )
+            );
+        }
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK, "{\"login\": \"comdor\"}"
+                )
+            ).next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK, first.build().toString()
+                )
+            ).next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createArrayBuilder().add(
+                        MentionsTestCase.comment(
+                            mention + 100, "comdor", "@amihaiemil hi!",
+                            Instant.now()
+                        )
+                    ).build().toString()
+                )
+            ).start();
+        try {
+            new Mentions.InPayload(
+                new RtGithub(new JdkRequest(container.home())).repos()
+                    .get(new Coordinates.Simple("a/b"))
+                    .issues().get(1),
+                comment,
+                Duration.ofMinutes(1)
+            ).last(this.log());
+            MatcherAssert.assertThat("Exception expected!", false);
+        } catch (final MentionLookupException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(),
+                Matchers.equalTo("Last mention is already answered!")
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * A Github issue, where comdor is the authenticated user.
+     * @return Issue.
+     * @throws Exception If something goes wrong.
+     */
+    private Issue issue() throws Exception {
+        return new MkGithub("comdor").repos().create(
+            new Repos.RepoCreate("comdor", false)
+        ).issues().create("test issue", "body");
+    }
+
+    /**
+     * Mentions.Prefetched starts fetching the .comdor.yml before the
+     * mention is looked up and the found mention gives it back.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void prefetchesComdorYaml() throws Exception {
+        final Issue issue = Mockito.mock(Issue.class);
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.when(issue.repo()).thenReturn(repo);
+        final ComdorYaml yaml = new ComdorYaml.Missing();
+        final Metadata metadata = Mockito.mock(Metadata.class);
+        Mockito.when(metadata.comdorYaml(repo)).thenReturn(yaml);
+        final Command found = Mockito.mock(Command.class);
+        final Mentions origin = Mockito.mock(Mentions.class);
+        final Log log = this.log();
+        Mockito.when(origin.last(log)).thenAnswer(
+            invocation -> {
+                Mockito.verify(metadata).comdorYaml(repo);
+                return found;
+            }
+        );
+        final Command mention = new Mentions.Prefetched(
+            origin, issue, metadata, Runnable::run
+        ).last(log);
+        MatcherAssert.assertThat(mention.comdorYaml(), Matchers.is(yaml));
+        Mockito.verify(found, Mockito.never()).comdorYaml();
+    }
+
+    /**
+     * Mentions.Prefetched cancels the fetch of the .comdor.yml if there
+     * is no mention to answer.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void cancelsPrefetchWithoutMention() throws Exception {
+        final Issue issue = Mockito.mock(Issue.class);
+        final Metadata metadata = Mockito.mock(Metadata.class);
+        final Mentions origin = Mockito.mock(Mentions.class);
+        final Log log = this.log();
+        Mockito.when(origin.last(log)).thenThrow(
+            new MentionLookupException("No mention found!")
+        );
+        final List<Runnable> tasks = new ArrayList<>();
+        try {
+            new Mentions.Prefetched(origin, issue, metadata, tasks::add)
+                .last(log);
+            Assert.fail("MentionLookupException was expected.");
+        } catch (final MentionLookupException ex) {
+            MatcherAssert.assertThat(
+                ((Future<?>) tasks.get(0)).isCancelled(), Matchers.is(true)
+            );
+        }
+        tasks.get(0).run();
+        Mockito.verifyZeroInteractions(metadata);
+    }
+
+    /**
+     * Mock a Log.
+     * @return Log.
+     */
+    private Log log() {
+        final Log log = Mockito.mock(Log.class);
+        Mockito.when(log.logger()).thenReturn(
+            LoggerFactory.getLogger("MentionsTestCase")
+        );
+        return log;
+    }
+
+    /**
+     * Github comment in Json.
+     * @param id Id of the comment.
+     * @param author Author's login.
+     * @param body Body of the comment.
+     * @param created When was it created.
+     * @return JsonObject.
+     */
+    private static JsonObject comment(
+        final long id, final String author, final String body,
+        final Instant created
+    ) {
+        return Json.createObjectBuilder()
+            .add("id", id)
+            .add("user", Json.createObjectBuilder().add("login", author))
+            .add("body", body)
+            .add("created_at", created.toString())
+            .build();
+    }
+}
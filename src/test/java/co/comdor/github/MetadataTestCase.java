@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Repo;
+import com.jcabi.github.Repos;
+import com.jcabi.github.RtGithub;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link Metadata}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class MetadataTestCase {
+
+    /**
+     * Metadata.Direct reads the bot's login and the stars from Github.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void readsFromGithub() throws Exception {
+        final MkGithub github = new MkGithub("comdor");
+        final Repo repo = github.repos().create(
+            new Repos.RepoCreate("charlesrepo", false)
+        );
+        final Metadata metadata = new Metadata.Direct();
+        MatcherAssert.assertThat(
+            metadata.login(github), Matchers.equalTo("comdor")
+        );
+        MatcherAssert.assertThat(metadata.starred(repo), Matchers.is(false));
+    }
+
+    /**
+     * Metadata.Cached remembers the login and the star, until they
+     * expire.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void remembersUntilExpired() throws Exception {
+        final Github github = Mockito.mock(Github.class);
+        final Repo repo = MetadataTestCase.repo();
+        final Metadata origin = Mockito.mock(Metadata.class);
+        Mockito.when(origin.login(github)).thenReturn("comdor");
+        Mockito.when(origin.starred(repo)).thenReturn(true);
+        final Metadata cached = new Metadata.Cached(
+            origin, Duration.ofMinutes(1), 10
+        );
+        MatcherAssert.assertThat(
+            cached.login(github), Matchers.equalTo("comdor")
+        );
+        MatcherAssert.assertThat(
+            cached.login(github), Matchers.equalTo("comdor")
+        );
+        MatcherAssert.assertThat(cached.starred(repo), Matchers.is(true));
+        cached.starred(repo);
+        Mockito.verify(origin, Mockito.times(1)).login(github);
+        Mockito.verify(origin, Mockito.times(1)).starred(repo);
+        final Metadata expired = new Metadata.Cached(
+            origin, Duration.ZERO, 10
+        );
+        expired.login(github);
+        expired.login(github);
+        Mockito.verify(origin, Mockito.times(3)).login(github);
+    }
+
+    /**
+     * Metadata.Cached remembers the login of each Github separately.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void remembersLoginPerGithub() throws Exception {
+        final Github first = Mockito.mock(Github.class);
+        final Github second = Mockito.mock(Github.class);
+        final Metadata origin = Mockito.mock(Metadata.class);
+        Mockito.when(origin.login(first)).thenReturn("comdor");
+        Mockito.when(origin.login(second)).thenReturn("comdor-two");
+        final Metadata cached = new Metadata.Cached(
+            origin, Duration.ofMinutes(1), 10
+        );
+        MatcherAssert.assertThat(
+            cached.login(first), Matchers.equalTo("comdor")
+        );
+        MatcherAssert.assertThat(
+            cached.login(second), Matchers.equalTo("comdor-two")
+        );
+        MatcherAssert.assertThat(
+            cached.login(first), Matchers.equalTo("comdor")
+        );
+        Mockito.verify(origin, Mockito.times(1)).login(first);
+        Mockito.verify(origin, Mockito.times(1)).login(second);
+    }
+
+    /**
+     * Metadata.Cached remembers only that a repository is starred.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void remembersOnlyStarred() throws Exception {
+        final Repo repo = MetadataTestCase.repo();
+        final Metadata origin = Mockito.mock(Metadata.class);
+        Mockito.when(origin.starred(repo)).thenReturn(false, true);
+        final Metadata cached = new Metadata.Cached(
+            origin, Duration.ofMinutes(1), 10
+        );
+        MatcherAssert.assertThat(cached.starred(repo), Matchers.is(false));
+        MatcherAssert.assertThat(cached.starred(repo), Matchers.is(true));
+        MatcherAssert.assertThat(cached.starred(repo), Matchers.is(true));
+        Mockito.verify(origin, Mockito.times(2)).starred(repo);
+    }
+
+    /**
+     * Metadata.Direct reads the .comdor.yml with a single GET, or returns
+     * Missing if Github answers 404.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void readsComdorYaml() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    MetadataTestCase.file("a1", "docker: mihai/img").toString()
+                )
+            )
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_NOT_FOUND))
+            .start();
+        try {
+            final Repo repo = new RtGithub(new JdkRequest(container.home()))
+                .repos().get(new Coordinates.Simple("amihaiemil/comdor"));
+            final Metadata metadata = new Metadata.Direct();
+            MatcherAssert.assertThat(
+                metadata.comdorYaml(repo).docker(),
+                Matchers.equalTo("mihai/img")
+            );
+            MatcherAssert.assertThat(
+                container.take().uri().getPath(),
+                Matchers.equalTo(
+                    "/repos/amihaiemil/comdor/contents/.comdor.yml"
+                )
+            );
+            MatcherAssert.assertThat(
+                metadata.comdorYaml(repo),
+                Matchers.instanceOf(ComdorYaml.Missing.class)
+            );
+            MatcherAssert.assertThat(
+                container.take().uri().getPath(),
+                Matchers.endsWith("/contents/.comdor.yml")
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * Metadata.Cached parses the .comdor.yml only when its SHA changes and
+     * it remembers that a repository has no .comdor.yml.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void remembersComdorYamlByContent() throws Exception {
+        final Repo repo = MetadataTestCase.repo();
+        final Metadata origin = Mockito.mock(Metadata.class);
+        Mockito.when(origin.file(repo, ".comdor.yml")).thenReturn(
+            MetadataTestCase.file("a1", "docker: first"),
+            MetadataTestCase.file("a1", "docker: first"),
+            MetadataTestCase.file("b2", "docker: second")
+        );
+        final Metadata cached = new Metadata.Cached(
+            origin, Duration.ofMinutes(1), Duration.ZERO, 10
+        );
+        final ComdorYaml first = cached.comdorYaml(repo);
+        MatcherAssert.assertThat(first.docker(), Matchers.equalTo("first"));
+        MatcherAssert.assertThat(
+            cached.comdorYaml(repo), Matchers.sameInstance(first)
+        );
+        MatcherAssert.assertThat(
+            cached.comdorYaml(repo).docker(), Matchers.equalTo("second")
+        );
+        Mockito.verify(origin, Mockito.times(3)).file(repo, ".comdor.yml");
+        Mockito.verify(origin, Mockito.never()).comdorYaml(repo);
+        final Repo empty = MetadataTestCase.repo();
+        Mockito.when(origin.file(empty, ".comdor.yml")).thenReturn(
+            Json.createObjectBuilder().build()
+        );
+        final Metadata.Cached missing = new Metadata.Cached(
+            origin, Duration.ofMinutes(1), 10
+        );
+        MatcherAssert.assertThat(
+            missing.comdorYaml(empty),
+            Matchers.instanceOf(ComdorYaml.Missing.class)
+        );
+        missing.comdorYaml(empty);
+        Mockito.verify(origin, Mockito.times(1)).file(empty, ".comdor.yml");
+        missing.forget("amihaiemil/comdor");
+        missing.comdorYaml(empty);
+        Mockito.verify(origin, Mockito.times(2)).file(empty, ".comdor.yml");
+    }
+
+    /**
+     * A file, as Github's contents API returns it.
+     * @param sha Blob SHA.
+     * @param content Content.
+     * @return JsonObject.
+     */
+    private static JsonObject file(final String sha, final String content) {
+        return Json.createObjectBuilder()
+            .add("sha", sha)
+            .add("content", MetadataTestCase.base64(content))
+            .build();
+    }
+
+    /**
+     * Base64-encode some text.
+     * @param text Text.
+     * @return Base64 String.
+     */
+    private static String base64(final String text) {
+        return Base64.getEncoder().encodeToString(
+            text.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Mock a repository.
+     * @return Repo.
+     */
+    private static Repo repo() {
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.when(repo.coordinates()).thenReturn(
+            new Coordinates.Simple("amihaiemil/comdor")
+        );
+        return repo;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.mock.MkQuery;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.http.response.RestResponse;
+import java.net.HttpURLConnection;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PooledWire}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class PooledWireTestCase {
+
+    /**
+     * PooledWire sends the request and reads the response.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void sendsRequest() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer().next(
+            new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "pong")
+                .withHeader("X-Test", "yes")
+        ).start();
+        try (final CloseableHttpClient client = HttpClients.createDefault()) {
+            final RestResponse resp = new JdkRequest(container.home())
+                .through(PooledWire.class, client)
+                .header("Accept", "application/json")
+                .fetch()
+                .as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_OK);
+            MatcherAssert.assertThat(resp.body(), Matchers.equalTo("pong"));
+            MatcherAssert.assertThat(
+                resp.headers().get("X-Test"), Matchers.contains("yes")
+            );
+            final MkQuery query = container.take();
+            MatcherAssert.assertThat(query.method(), Matchers.equalTo("GET"));
+            MatcherAssert.assertThat(
+                query.headers().get("Accept"),
+                Matchers.contains("application/json")
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * PooledWire sends the body of the request and reuses the same
+     * client for more requests.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void sendsBodyAndReusesClient() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_CREATED, "1"))
+            .next(new MkAnswer.Simple(HttpURLConnection.HTTP_CREATED, "2"))
+            .start();
+        try (final CloseableHttpClient client = HttpClients.createDefault()) {
+            for(int idx = 1; idx <= 2; ++idx) {
+                MatcherAssert.assertThat(
+                    new JdkRequest(container.home())
+                        .through(PooledWire.class, client)
+                        .method("POST")
+                        .body().set("{\"body\": \"hi\"}").back()
+                        .fetch()
+                        .as(RestResponse.class)
+                        .assertStatus(HttpURLConnection.HTTP_CREATED)
+                        .body(),
+                    Matchers.equalTo(String.valueOf(idx))
+                );
+            }
+            final MkQuery first = container.take();
+            MatcherAssert.assertThat(first.method(), Matchers.equalTo("POST"));
+            MatcherAssert.assertThat(
+                first.body(), Matchers.equalTo("{\"body\": \"hi\"}")
+            );
+        } finally {
+            container.stop();
+        }
+    }
+}
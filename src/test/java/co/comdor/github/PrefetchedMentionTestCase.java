@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link PrefetchedMention}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class PrefetchedMentionTestCase {
+
+    /**
+     * PrefetchedMention returns the prefetched .comdor.yml and delegates
+     * everything else to the original mention.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void returnsPrefetchedYaml() throws Exception {
+        final Command original = Mockito.mock(Command.class);
+        Mockito.when(original.author()).thenReturn("amihaiemil");
+        final ComdorYaml yaml = new ComdorYaml.Missing();
+        final Command mention = new PrefetchedMention(
+            original, CompletableFuture.completedFuture(yaml)
+        );
+        MatcherAssert.assertThat(mention.comdorYaml(), Matchers.is(yaml));
+        MatcherAssert.assertThat(
+            mention.author(), Matchers.equalTo("amihaiemil")
+        );
+        Mockito.verify(original, Mockito.never()).comdorYaml();
+    }
+
+    /**
+     * PrefetchedMention rethrows the IOException of a failed fetch.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = IOException.class)
+    public void rethrowsFailedFetch() throws Exception {
+        final CompletableFuture<ComdorYaml> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IOException("Github is down"));
+        new PrefetchedMention(Mockito.mock(Command.class), failed)
+            .comdorYaml();
+    }
+}
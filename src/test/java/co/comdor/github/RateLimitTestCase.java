@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RateLimit}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class RateLimitTestCase {
+
+    /**
+     * RateLimit doesn't pause while the limit is unknown or there are
+     * enough requests left.
+     */
+    @Test
+    public void goesOnWithEnoughRequests() {
+        final RateLimit limit = new RateLimit();
+        MatcherAssert.assertThat(limit.pause(50), Matchers.is(0L));
+        limit.update(4000, RateLimitTestCase.inSeconds(600));
+        MatcherAssert.assertThat(limit.pause(50), Matchers.is(0L));
+    }
+
+    /**
+     * RateLimit slows down close to the reserve and pauses until the reset
+     * under the reserve.
+     */
+    @Test
+    public void slowsDownAndPauses() {
+        final RateLimit limit = new RateLimit();
+        limit.update(60, RateLimitTestCase.inSeconds(100));
+        MatcherAssert.assertThat(
+            limit.pause(50),
+            Matchers.allOf(
+                Matchers.greaterThan(9000L), Matchers.lessThanOrEqualTo(10000L)
+            )
+        );
+        limit.update(50, RateLimitTestCase.inSeconds(100));
+        MatcherAssert.assertThat(
+            limit.pause(50), Matchers.greaterThan(98000L)
+        );
+        limit.update(50, RateLimitTestCase.inSeconds(-1));
+        MatcherAssert.assertThat(limit.pause(50), Matchers.is(0L));
+    }
+
+    /**
+     * RateLimit holds all the work only under the reserve or when Github
+     * asks us to back off, not while it's only slowing down.
+     */
+    @Test
+    public void holdsOnlyUnderReserve() {
+        final RateLimit limit = new RateLimit();
+        limit.update(60, RateLimitTestCase.inSeconds(100));
+        MatcherAssert.assertThat(limit.hold(50), Matchers.is(0L));
+        limit.update(50, RateLimitTestCase.inSeconds(100));
+        MatcherAssert.assertThat(
+            limit.hold(50), Matchers.greaterThan(98000L)
+        );
+        limit.update(4000, RateLimitTestCase.inSeconds(100));
+        limit.block(30);
+        MatcherAssert.assertThat(
+            limit.hold(50), Matchers.greaterThan(29000L)
+        );
+    }
+
+    /**
+     * RateLimit pauses when Github asks us to back off.
+     */
+    @Test
+    public void backsOff() {
+        final RateLimit limit = new RateLimit();
+        limit.block(30);
+        MatcherAssert.assertThat(
+            limit.pause(50), Matchers.greaterThan(29000L)
+        );
+    }
+
+    /**
+     * Epoch seconds, some seconds from now.
+     * @param seconds Seconds from now.
+     * @return Epoch seconds.
+     */
+    private static long inSeconds(final long seconds) {
+        return System.currentTimeMillis() / 1000L + seconds;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import java.net.HttpURLConnection;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RateLimitWire}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class RateLimitWireTestCase {
+
+    /**
+     * RateLimitWire reads the rate limit headers and the Retry-After of
+     * the secondary rate limit.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void readsRateLimit() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "{}")
+                    .withHeader("X-RateLimit-Remaining", "4321")
+                    .withHeader(
+                        "X-RateLimit-Reset",
+                        String.valueOf(System.currentTimeMillis() / 1000L)
+                    )
+            )
+            .next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_FORBIDDEN, "{}")
+                    .withHeader("Retry-After", "60")
+            )
+            .start();
+        try {
+            final RateLimit limit = new RateLimit();
+            new JdkRequest(container.home())
+                .through(RateLimitWire.class, limit).fetch();
+            MatcherAssert.assertThat(limit.remaining(), Matchers.is(4321));
+            MatcherAssert.assertThat(limit.pause(50), Matchers.is(0L));
+            new JdkRequest(container.home())
+                .through(RateLimitWire.class, limit).fetch();
+            MatcherAssert.assertThat(
+                limit.pause(50), Matchers.greaterThan(59000L)
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * RateLimitWire ignores the headers which are not numbers.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void ignoresMalformedHeaders() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_FORBIDDEN, "{}")
+                    .withHeader("X-RateLimit-Remaining", "many")
+                    .withHeader("X-RateLimit-Reset", "99999999999999999999")
+                    .withHeader("Retry-After", "Wed, 21 Oct 2015 07:28 GMT")
+            )
+            .start();
+        try {
+            final RateLimit limit = new RateLimit();
+            MatcherAssert.assertThat(
+                new JdkRequest(container.home())
+                    .through(RateLimitWire.class, limit).fetch().status(),
+                Matchers.is(HttpURLConnection.HTTP_FORBIDDEN)
+            );
+            MatcherAssert.assertThat(limit.remaining(), Matchers.is(-1));
+            MatcherAssert.assertThat(limit.pause(50), Matchers.is(0L));
+        } finally {
+            container.stop();
+        }
+    }
+}
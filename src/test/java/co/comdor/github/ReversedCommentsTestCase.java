@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.github;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Issue;
+import com.jcabi.github.RtGithub;
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+import com.jcabi.http.request.JdkRequest;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ReversedComments}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class ReversedCommentsTestCase {
+
+    /**
+     * ReversedComments iterates over a single page, newest first.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void iteratesSinglePage() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer().next(
+            new MkAnswer.Simple(
+                HttpURLConnection.HTTP_OK,
+                ReversedCommentsTestCase.page(1, 2, 3)
+            )
+        ).start();
+        try {
+            final ReversedComments comments = new ReversedComments(
+                ReversedCommentsTestCase.issue(container), 3
+            );
+            MatcherAssert.assertThat(
+                ReversedCommentsTestCase.ids(comments),
+                Matchers.contains(3, 2, 1)
+            );
+            MatcherAssert.assertThat(comments.pages(), Matchers.is(1));
+            MatcherAssert.assertThat(
+                container.take().uri().toString(),
+                Matchers.allOf(
+                    Matchers.startsWith("/repos/amihaiemil/comdor/issues/1/"),
+                    Matchers.containsString("per_page=3"),
+                    Matchers.containsString("page=1")
+                )
+            );
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * ReversedComments reads the last page right after the first one and
+     * fetches the others only if it is asked to.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void fetchesLastPageFirst() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    ReversedCommentsTestCase.page(1, 2)
+                ).withHeader(
+                    "Link",
+                    "<https://api.github.com/x?per_page=2&page=2>; "
+                    + "rel=\"next\", "
+                    + "<https://api.github.com/x?per_page=2&page=3>; "
+                    + "rel=\"last\""
+                )
+            )
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    ReversedCommentsTestCase.page(5)
+                )
+            )
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    ReversedCommentsTestCase.page(3, 4)
+                )
+            ).start();
+        try {
+            final ReversedComments comments = new ReversedComments(
+                ReversedCommentsTestCase.issue(container), 2
+            );
+            final Iterator<JsonObject> newest = comments.iterator();
+            MatcherAssert.assertThat(
+                newest.next().getInt("id"), Matchers.is(5)
+            );
+            MatcherAssert.assertThat(comments.pages(), Matchers.is(2));
+            container.take();
+            MatcherAssert.assertThat(
+                container.take().uri().toString(),
+                Matchers.containsString("page=3")
+            );
+            final List<Integer> rest = new ArrayList<>();
+            while(newest.hasNext()) {
+                rest.add(newest.next().getInt("id"));
+            }
+            MatcherAssert.assertThat(rest, Matchers.contains(4, 3, 2, 1));
+            MatcherAssert.assertThat(comments.pages(), Matchers.is(3));
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * LastMention finds the mention on the last page, without reading
+     * the older pages.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void findsMentionOnLastPage() throws Exception {
+        final MkContainer container = new MkGrizzlyContainer()
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK, "{\"login\": \"comdor\"}"
+                )
+            )
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    ReversedCommentsTestCase.page(1)
+                ).withHeader(
+                    "Link",
+                    "<https://api.github.com/x?page=9>; rel=\"last\""
+                )
+            )
+            .next(
+                new MkAnswer.Simple(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createArrayBuilder()
+                        .add(ReversedCommentsTestCase.comment(80, "@comdor hi"))
+                        .add(ReversedCommentsTestCase.comment(81, "thanks"))
+                        .build().toString()
+                )
+            ).start();
+        try {
+            final ReversedComments comments = new ReversedComments(
+                ReversedCommentsTestCase.issue(container), 10
+            );
+            MatcherAssert.assertThat(
+                new LastMention(
+                    ReversedCommentsTestCase.issue(container), comments,
+                    new Metadata.Direct()
+                ).json().getInt("id"),
+                Matchers.is(80)
+            );
+            MatcherAssert.assertThat(comments.pages(), Matchers.is(2));
+        } finally {
+            container.stop();
+        }
+    }
+
+    /**
+     * Github issue, talking to the given container.
+     * @param container Mock Github server.
+     * @return Issue.
+     */
+    private static Issue issue(final MkContainer container) {
+        return new RtGithub(new JdkRequest(container.home())).repos()
+            .get(new Coordinates.Simple("amihaiemil/comdor"))
+            .issues().get(1);
+    }
+
+    /**
+     * Ids of the comments.
+     * @param comments Comments.
+     * @return List of ids.
+     */
+    private static List<Integer> ids(final Iterable<JsonObject> comments) {
+        final List<Integer> ids = new ArrayList<>();
+        for(final JsonObject comment : comments) {
+            ids.add(comment.getInt("id"));
+        }
+        return ids;
+    }
+
+    /**
+     * A page of comments.
+     * @param ids Ids of the comments.
+     * @return Json array, as String.
+     */
+    private static String page(final int... ids) {
+        final JsonArrayBuilder page = Json.createArrayBuilder();
+        for(final int id : ids) {
+            page.add(ReversedCommentsTestCase.comment(id, "comment " + id));
+        }
+        return page.build().toString();
+    }
+
+    /**
+     * A comment.
+     * @param id Id.
+     * @param body Body.
+     * @return JsonObject.
+     */
+    private static JsonObject comment(final int id, final String body) {
+        return Json.createObjectBuilder()
+            .add("id", id)
+            .add("user", Json.createObjectBuilder().add("login", "amihaiemil"))
+            .add("body", body)
+            .build();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Admission}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class AdmissionTestCase {
+
+    /**
+     * Admission throttles a busy repository, but not the others.
+     */
+    @Test
+    public void throttlesPerRepository() {
+        final Admission admission = new Admission(
+            new TokenBucket(10, 0.001), 2, 0.001, 10
+        );
+        MatcherAssert.assertThat(admission.admit("a/busy"), Matchers.is(true));
+        MatcherAssert.assertThat(admission.admit("a/busy"), Matchers.is(true));
+        MatcherAssert.assertThat(
+            admission.admit("a/busy"), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            admission.retryAfter("a/busy"), Matchers.greaterThan(1L)
+        );
+        MatcherAssert.assertThat(admission.admit("a/calm"), Matchers.is(true));
+    }
+
+    /**
+     * Admission throttles every repository when the global bucket is empty,
+     * without using up the repositories' tokens.
+     */
+    @Test
+    public void throttlesGlobally() {
+        final Admission admission = new Admission(
+            new TokenBucket(1, 0.001), 2, 0.001, 10
+        );
+        MatcherAssert.assertThat(admission.admit("a/one"), Matchers.is(true));
+        MatcherAssert.assertThat(admission.admit("a/two"), Matchers.is(false));
+        final JsonObject levels = admission.levels();
+        MatcherAssert.assertThat(
+            levels.getJsonNumber("global").doubleValue(),
+            Matchers.lessThan(1.0)
+        );
+        MatcherAssert.assertThat(
+            levels.getJsonObject("repos").getJsonNumber("a/two").doubleValue(),
+            Matchers.is(2.0)
+        );
+        MatcherAssert.assertThat(
+            levels.getJsonObject("repos").getJsonNumber("a/one").doubleValue(),
+            Matchers.lessThan(2.0)
+        );
+    }
+
+    /**
+     * Admission gives the tokens back for a notification which was not
+     * taken after all.
+     */
+    @Test
+    public void refundsTokens() {
+        final Admission admission = new Admission(
+            new TokenBucket(1, 0.001), 1, 0.001, 10
+        );
+        MatcherAssert.assertThat(admission.admit("a/one"), Matchers.is(true));
+        admission.refund("a/one");
+        MatcherAssert.assertThat(admission.admit("a/one"), Matchers.is(true));
+        MatcherAssert.assertThat(admission.admit("a/one"), Matchers.is(false));
+    }
+}
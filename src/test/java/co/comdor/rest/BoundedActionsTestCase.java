@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.Action;
+import co.comdor.rest.model.Notification;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link BoundedActions}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class BoundedActionsTestCase {
+
+    /**
+     * BoundedActions performs the Action in the background.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void performsAction() throws Exception {
+        final CountDownLatch performed = new CountDownLatch(1);
+        final Action action = Mockito.mock(Action.class);
+        Mockito.doAnswer(
+            invocation -> {
+                performed.countDown();
+                return null;
+            }
+        ).when(action).perform();
+        final BoundedActions actions = new BoundedActions(
+            (notification, lanes) -> action, 1, 1
+        );
+        MatcherAssert.assertThat(
+            actions.take(Mockito.mock(Notification.class)),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            performed.await(1, TimeUnit.MINUTES), Matchers.is(true)
+        );
+        actions.close();
+    }
+
+    /**
+     * BoundedActions rejects the Action if all the workers are busy and
+     * the queue is full.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void rejectsWhenFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Action busy = Mockito.mock(Action.class);
+        Mockito.doAnswer(
+            invocation -> {
+                started.countDown();
+                release.await();
+                return null;
+            }
+        ).when(busy).perform();
+        final BoundedActions actions = new BoundedActions(
+            (notification, lanes) -> busy, 1, 1
+        );
+        final Notification notification = Mockito.mock(Notification.class);
+        MatcherAssert.assertThat(
+            actions.take(notification), Matchers.is(true)
+        );
+        started.await(1, TimeUnit.MINUTES);
+        MatcherAssert.assertThat(
+            actions.take(notification), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            actions.take(notification), Matchers.is(false)
+        );
+        release.countDown();
+        actions.close();
+    }
+
+    /**
+     * An exception thrown by the Action does not kill the worker.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void survivesFailingAction() throws Exception {
+        final CountDownLatch performed = new CountDownLatch(2);
+        final Action failing = Mockito.mock(Action.class);
+        Mockito.doAnswer(
+            invocation -> {
+                performed.countDown();
+                throw new IllegalStateException("expected");
+            }
+        ).when(failing).perform();
+        final BoundedActions actions = new BoundedActions(
+            (notification, lanes) -> failing, 1, 2
+        );
+        final Notification notification = Mockito.mock(Notification.class);
+        actions.take(notification);
+        actions.take(notification);
+        MatcherAssert.assertThat(
+            performed.await(1, TimeUnit.MINUTES), Matchers.is(true)
+        );
+        actions.close();
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.Action;
+import co.comdor.Lanes;
+import co.comdor.github.CircuitBreaker;
+import co.comdor.github.CircuitOpenException;
+import co.comdor.rest.model.Notification;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link CircuitReaction}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CircuitReactionTestCase {
+
+    /**
+     * CircuitReaction parks an Action stopped because Github was
+     * unavailable: its notification is taken again later, without
+     * holding the worker.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void parksStoppedAction() throws Exception {
+        final Notification notification = Mockito.mock(Notification.class);
+        final Lanes lanes = Mockito.mock(Lanes.class);
+        final Action stopped = Mockito.mock(Action.class);
+        Mockito.doThrow(new CircuitOpenException("open"))
+            .when(stopped).perform();
+        final Reaction origin = Mockito.mock(Reaction.class);
+        Mockito.when(origin.react(notification, lanes)).thenReturn(stopped);
+        final Actions actions = Mockito.mock(Actions.class);
+        final ScheduledExecutorService scheduler = Mockito.mock(
+            ScheduledExecutorService.class
+        );
+        new CircuitReaction(
+            origin,
+            new CircuitBreaker(1, Duration.ofSeconds(1), Duration.ZERO),
+            actions, scheduler
+        ).react(notification, lanes).perform();
+        final ArgumentCaptor<Runnable> later = ArgumentCaptor.forClass(
+            Runnable.class
+        );
+        Mockito.verify(scheduler).schedule(
+            later.capture(), Mockito.anyLong(),
+            Mockito.eq(TimeUnit.MILLISECONDS)
+        );
+        Mockito.verify(actions, Mockito.never()).take(notification);
+        later.getValue().run();
+        Mockito.verify(actions).take(notification);
+        Mockito.verify(origin, Mockito.times(1)).react(notification, lanes);
+    }
+
+    /**
+     * CircuitReaction doesn't even start an Action while the circuit is
+     * open: it is parked right away.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void postponesWhileOpen() throws Exception {
+        final Notification notification = Mockito.mock(Notification.class);
+        final Lanes lanes = Mockito.mock(Lanes.class);
+        final Reaction origin = Mockito.mock(Reaction.class);
+        final ScheduledExecutorService scheduler = Mockito.mock(
+            ScheduledExecutorService.class
+        );
+        final CircuitBreaker breaker = new CircuitBreaker(
+            1, Duration.ofSeconds(1), Duration.ofMinutes(1)
+        );
+        breaker.record(10, true);
+        new CircuitReaction(
+            origin, breaker, Mockito.mock(Actions.class), scheduler
+        ).react(notification, lanes).perform();
+        Mockito.verify(origin, Mockito.never()).react(notification, lanes);
+        Mockito.verify(scheduler).schedule(
+            Mockito.any(Runnable.class), Mockito.anyLong(),
+            Mockito.eq(TimeUnit.MILLISECONDS)
+        );
+    }
+
+    /**
+     * CircuitReaction does not park an Action which failed for
+     * other reasons.
+     * @throws Exception If something goes wrong.
+     */
+    @Test(expected = IOException.class)
+    public void rethrowsOtherFailures() throws Exception {
+        final Notification notification = Mockito.mock(Notification.class);
+        final Lanes lanes = Mockito.mock(Lanes.class);
+        final Action failed = Mockito.mock(Action.class);
+        Mockito.doThrow(new IOException("expected")).when(failed).perform();
+        final Reaction origin = Mockito.mock(Reaction.class);
+        Mockito.when(origin.react(notification, lanes)).thenReturn(failed);
+        new CircuitReaction(
+            origin, new CircuitBreaker(), Mockito.mock(Actions.class),
+            Mockito.mock(ScheduledExecutorService.class)
+        ).react(notification, lanes).perform();
+    }
+}
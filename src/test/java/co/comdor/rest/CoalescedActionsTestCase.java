@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.rest.model.Notification;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link CoalescedActions}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class CoalescedActionsTestCase {
+
+    /**
+     * CoalescedActions merges the notifications about the same Issue,
+     * passing on only the most recent one.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void mergesSameIssue() throws Exception {
+        final Actions origin = Mockito.mock(Actions.class);
+        Mockito.when(origin.take(Mockito.any(Notification.class)))
+            .thenReturn(true);
+        final CoalescedActions coalesced = new CoalescedActions(origin, 100, 10);
+        final Notification first = CoalescedActionsTestCase.notification(1);
+        final Notification second = CoalescedActionsTestCase.notification(1);
+        final Notification other = CoalescedActionsTestCase.notification(2);
+        MatcherAssert.assertThat(coalesced.take(first), Matchers.is(true));
+        MatcherAssert.assertThat(coalesced.take(second), Matchers.is(true));
+        MatcherAssert.assertThat(coalesced.take(other), Matchers.is(true));
+        Mockito.verify(origin, Mockito.never())
+            .take(Mockito.any(Notification.class));
+        Mockito.verify(origin, Mockito.timeout(1000)).take(second);
+        Mockito.verify(origin, Mockito.timeout(1000)).take(other);
+        Mockito.verify(origin, Mockito.never()).take(first);
+        coalesced.close();
+    }
+
+    /**
+     * CoalescedActions rejects notifications for new Issues when full.
+     */
+    @Test
+    public void rejectsWhenFull() {
+        final CoalescedActions coalesced = new CoalescedActions(
+            Mockito.mock(Actions.class), 10000, 1
+        );
+        MatcherAssert.assertThat(
+            coalesced.take(CoalescedActionsTestCase.notification(1)),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            coalesced.take(CoalescedActionsTestCase.notification(1)),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            coalesced.take(CoalescedActionsTestCase.notification(2)),
+            Matchers.is(false)
+        );
+        coalesced.close();
+    }
+
+    /**
+     * CoalescedActions tries again, if the notification was rejected.
+     */
+    @Test
+    public void triesAgain() {
+        final Actions origin = Mockito.mock(Actions.class);
+        final Notification notification =
+            CoalescedActionsTestCase.notification(1);
+        Mockito.when(origin.take(notification)).thenReturn(false, true);
+        final CoalescedActions coalesced = new CoalescedActions(origin, 50, 10);
+        coalesced.take(notification);
+        Mockito.verify(origin, Mockito.timeout(1000).times(2))
+            .take(notification);
+        coalesced.close();
+        Mockito.verify(origin, Mockito.times(2)).take(notification);
+    }
+
+    /**
+     * CoalescedActions passes on the waiting notifications when closed.
+     */
+    @Test
+    public void passesOnWhenClosed() {
+        final Actions origin = Mockito.mock(Actions.class);
+        final Notification notification =
+            CoalescedActionsTestCase.notification(1);
+        final CoalescedActions coalesced = new CoalescedActions(
+            origin, 10000, 10
+        );
+        coalesced.take(notification);
+        coalesced.close();
+        Mockito.verify(origin).take(notification);
+    }
+
+    /**
+     * Notification about an Issue.
+     * @param issue Number of the Issue.
+     * @return Notification.
+     */
+    private static Notification notification(final int issue) {
+        final Notification notification = Mockito.mock(Notification.class);
+        Mockito.when(notification.repoFullName()).thenReturn("amihaiemil/a");
+        Mockito.when(notification.issueNumber()).thenReturn(issue);
+        return notification;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.rest.model.Notification;
+import java.time.Duration;
+import javax.json.Json;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link DistinctActions}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class DistinctActionsTestCase {
+
+    /**
+     * DistinctActions takes the Action only once for the same comment.
+     */
+    @Test
+    public void takesCommentOnce() {
+        final Actions origin = Mockito.mock(Actions.class);
+        final Notification notification = DistinctActionsTestCase.comment(7);
+        Mockito.when(origin.take(notification)).thenReturn(true);
+        final Actions distinct = new DistinctActions(
+            origin, new Duplicates(10, Duration.ofMinutes(1))
+        );
+        MatcherAssert.assertThat(
+            distinct.take(notification), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            distinct.take(notification), Matchers.is(true)
+        );
+        Mockito.verify(origin, Mockito.times(1)).take(notification);
+    }
+
+    /**
+     * DistinctActions knows a handled comment, without taking a new one.
+     */
+    @Test
+    public void knowsHandledComments() {
+        final Actions origin = Mockito.mock(Actions.class);
+        final Notification notification = DistinctActionsTestCase.comment(8);
+        Mockito.when(origin.take(notification)).thenReturn(true);
+        final DistinctActions distinct = new DistinctActions(
+            origin, new Duplicates(10, Duration.ofMinutes(1))
+        );
+        MatcherAssert.assertThat(
+            distinct.handled(notification), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            distinct.handled(notification), Matchers.is(false)
+        );
+        distinct.take(notification);
+        MatcherAssert.assertThat(
+            distinct.handled(notification), Matchers.is(true)
+        );
+    }
+
+    /**
+     * DistinctActions accepts the comment again, if it was rejected.
+     */
+    @Test
+    public void retriesRejected() {
+        final Actions origin = Mockito.mock(Actions.class);
+        final Notification notification = DistinctActionsTestCase.comment(7);
+        Mockito.when(origin.take(notification)).thenReturn(false, true);
+        final Actions distinct = new DistinctActions(
+            origin, new Duplicates(10, Duration.ofMinutes(1))
+        );
+        MatcherAssert.assertThat(
+            distinct.take(notification), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            distinct.take(notification), Matchers.is(true)
+        );
+        Mockito.verify(origin, Mockito.times(2)).take(notification);
+    }
+
+    /**
+     * DistinctActions always takes notifications without comment.
+     */
+    @Test
+    public void takesNotificationsWithoutComment() {
+        final Actions origin = Mockito.mock(Actions.class);
+        final Notification notification = Mockito.mock(Notification.class);
+        Mockito.when(notification.comment())
+            .thenReturn(Json.createObjectBuilder().build());
+        Mockito.when(origin.take(notification)).thenReturn(true);
+        final Actions distinct = new DistinctActions(
+            origin, new Duplicates(10, Duration.ofMinutes(1))
+        );
+        distinct.take(notification);
+        distinct.take(notification);
+        Mockito.verify(origin, Mockito.times(2)).take(notification);
+    }
+
+    /**
+     * Notification about a comment.
+     * @param id Id of the comment.
+     * @return Notification.
+     */
+    private static Notification comment(final int id) {
+        final Notification notification = Mockito.mock(Notification.class);
+        Mockito.when(notification.repoFullName()).thenReturn("amihaiemil/a");
+        Mockito.when(notification.issueNumber()).thenReturn(1);
+        Mockito.when(notification.comment()).thenReturn(
+            Json.createObjectBuilder().add("id", id).build()
+        );
+        return notification;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link Duplicates}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class DuplicatesTestCase {
+
+    /**
+     * Temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Duplicates recognizes a key which was seen before.
+     */
+    @Test
+    public void recognizesDuplicate() {
+        final Duplicates dups = new Duplicates(10, Duration.ofMinutes(1));
+        MatcherAssert.assertThat(dups.seen("abc"), Matchers.is(false));
+        MatcherAssert.assertThat(dups.seen("abc"), Matchers.is(true));
+        MatcherAssert.assertThat(dups.seen("def"), Matchers.is(false));
+    }
+
+    /**
+     * Duplicates forgets a key when asked.
+     */
+    @Test
+    public void forgetsKey() {
+        final Duplicates dups = new Duplicates(10, Duration.ofMinutes(1));
+        dups.seen("abc");
+        dups.forget("abc");
+        MatcherAssert.assertThat(dups.seen("abc"), Matchers.is(false));
+    }
+
+    /**
+     * Duplicates forgets the oldest keys when it is full.
+     */
+    @Test
+    public void isBounded() {
+        final Duplicates dups = new Duplicates(2, Duration.ofMinutes(1));
+        dups.seen("a");
+        dups.seen("b");
+        dups.seen("c");
+        MatcherAssert.assertThat(dups.seen("a"), Matchers.is(false));
+        MatcherAssert.assertThat(dups.seen("c"), Matchers.is(true));
+    }
+
+    /**
+     * Duplicates forgets the keys which are too old.
+     */
+    @Test
+    public void expiresKeys() {
+        final AtomicLong now = new AtomicLong();
+        final Duplicates dups = new Duplicates(
+            10, Duration.ofMillis(100), null, now::get
+        );
+        dups.seen("abc");
+        now.set(99);
+        MatcherAssert.assertThat(dups.seen("abc"), Matchers.is(true));
+        now.set(100);
+        MatcherAssert.assertThat(dups.seen("abc"), Matchers.is(false));
+    }
+
+    /**
+     * Duplicates kept in a file survive a restart.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void survivesRestart() throws Exception {
+        final Path file = this.folder.getRoot().toPath().resolve("dups.txt");
+        final Duplicates first = new Duplicates(
+            10, Duration.ofMinutes(1), file
+        );
+        first.seen("abc");
+        first.seen("def");
+        first.forget("def");
+        final Duplicates second = new Duplicates(
+            10, Duration.ofMinutes(1), file
+        );
+        MatcherAssert.assertThat(second.seen("abc"), Matchers.is(true));
+        MatcherAssert.assertThat(second.seen("def"), Matchers.is(false));
+        MatcherAssert.assertThat(
+            Files.readAllLines(file).size(), Matchers.is(2)
+        );
+    }
+
+    /**
+     * Duplicates appends a tombstone for a forgotten key, instead of
+     * rewriting the file, and creates the file's directory.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void appendsTombstones() throws Exception {
+        final Path file = this.folder.getRoot().toPath()
+            .resolve("keys").resolve("dups.txt");
+        final Duplicates first = new Duplicates(
+            10, Duration.ofMinutes(1), file
+        );
+        first.seen("abc");
+        first.seen("def");
+        first.forget("abc");
+        MatcherAssert.assertThat(
+            Files.readAllLines(file),
+            Matchers.contains(
+                Matchers.endsWith("\tabc"), Matchers.endsWith("\tdef"),
+                Matchers.equalTo("-\tabc")
+            )
+        );
+        final Duplicates second = new Duplicates(
+            10, Duration.ofMinutes(1), file
+        );
+        MatcherAssert.assertThat(second.seen("def"), Matchers.is(true));
+        MatcherAssert.assertThat(second.seen("abc"), Matchers.is(false));
+    }
+}
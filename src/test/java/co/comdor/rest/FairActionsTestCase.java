@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.Action;
+import co.comdor.rest.model.Notification;
+import co.comdor.rest.model.SimpleNotification;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link FairActions}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class FairActionsTestCase {
+
+    /**
+     * FairActions performs the Action.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void performsAction() throws Exception {
+        final Action action = Mockito.mock(Action.class);
+        final FairActions actions = new FairActions(
+            (notification, lanes) -> action, 2, 1, 10, 1, new HashMap<>()
+        );
+        MatcherAssert.assertThat(
+            actions.take(new SimpleNotification("amihaiemil/a", 1)),
+            Matchers.is(true)
+        );
+        Mockito.verify(action, Mockito.timeout(1000)).perform();
+        actions.close();
+    }
+
+    /**
+     * FairActions keeps its worker when an Action fails with an Error
+     * (e.g. jcabi-http's assertStatus throws AssertionError).
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void survivesErrors() throws Exception {
+        final Action failing = Mockito.mock(Action.class);
+        Mockito.doThrow(new AssertionError("404")).when(failing).perform();
+        final Action next = Mockito.mock(Action.class);
+        final FairActions actions = new FairActions(
+            (notification, lanes) -> {
+                final Action action;
+                if(notification.issueNumber() == 1) {
+                    action = failing;
+                } else {
+                    action = next;
+                }
+                return action;
+            },
+            1, 1, 10, 1, new HashMap<>()
+        );
+        actions.take(new SimpleNotification("amihaiemil/a", 1));
+        actions.take(new SimpleNotification("amihaiemil/a", 2));
+        Mockito.verify(next, Mockito.timeout(1000)).perform();
+        actions.close();
+    }
+
+    /**
+     * FairActions rejects Actions when too many are waiting.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void rejectsWhenFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final FairActions actions = new FairActions(
+            (notification, lanes) -> {
+                started.countDown();
+                return FairActionsTestCase.blocking(release);
+            },
+            1, 1, 1, 1, new HashMap<>()
+        );
+        actions.take(new SimpleNotification("amihaiemil/a", 1));
+        started.await();
+        actions.take(new SimpleNotification("amihaiemil/b", 1));
+        MatcherAssert.assertThat(
+            actions.take(new SimpleNotification("amihaiemil/c", 1)),
+            Matchers.is(false)
+        );
+        release.countDown();
+        actions.close();
+    }
+
+    /**
+     * FairActions serves the repositories in round-robin: a quiet
+     * repository does not wait for all the Actions of a busy one.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void servesRepositoriesInTurn() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch all = new CountDownLatch(6);
+        final List<String> performed = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        final FairActions actions = new FairActions(
+            (notification, lanes) -> {
+                performed.add(notification.repoFullName());
+                all.countDown();
+                return FairActionsTestCase.blocking(release);
+            },
+            1, 1, 10, 1, new HashMap<>()
+        );
+        for(int idx = 0; idx < 5; ++idx) {
+            actions.take(new SimpleNotification("busy/repo", idx));
+        }
+        actions.take(new SimpleNotification("quiet/repo", 1));
+        release.countDown();
+        MatcherAssert.assertThat(
+            all.await(1, TimeUnit.SECONDS), Matchers.is(true)
+        );
+        actions.close();
+        MatcherAssert.assertThat(
+            performed.indexOf("quiet/repo"), Matchers.lessThanOrEqualTo(2)
+        );
+    }
+
+    /**
+     * FairActions doesn't run more Actions of the same repository than
+     * allowed, even if there are free workers.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void capsRepository() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch other = new CountDownLatch(1);
+        final List<Notification> performed = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        final FairActions actions = new FairActions(
+            (notification, lanes) -> {
+                performed.add(notification);
+                if("other/repo".equals(notification.repoFullName())) {
+                    other.countDown();
+                }
+                return FairActionsTestCase.blocking(release);
+            },
+            3, 1, 10, 1, new HashMap<>()
+        );
+        actions.take(new SimpleNotification("busy/repo", 1));
+        actions.take(new SimpleNotification("busy/repo", 2));
+        actions.take(new SimpleNotification("other/repo", 1));
+        MatcherAssert.assertThat(
+            other.await(1, TimeUnit.SECONDS), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(performed.size(), Matchers.is(2));
+        release.countDown();
+        actions.close();
+    }
+
+    /**
+     * FairActions gives a spare worker to the fast lane, when an Action
+     * moves to the slow lane.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void movesToSlowLane() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch fast = new CountDownLatch(1);
+        final FairActions actions = new FairActions(
+            (notification, lanes) -> {
+                final Action action;
+                if(notification.issueNumber() == 1) {
+                    lanes.slow();
+                    action = FairActionsTestCase.blocking(release);
+                } else {
+                    fast.countDown();
+                    action = Mockito.mock(Action.class);
+                }
+                return action;
+            },
+            1, 1, 10, 2, new HashMap<>()
+        );
+        actions.take(new SimpleNotification("amihaiemil/a", 1));
+        actions.take(new SimpleNotification("amihaiemil/a", 2));
+        MatcherAssert.assertThat(
+            fast.await(1, TimeUnit.SECONDS), Matchers.is(true)
+        );
+        release.countDown();
+        actions.close();
+    }
+
+    /**
+     * FairActions keeps an Action in the fast lane, on its worker, when
+     * too many Actions are already waiting for room in the slow lane.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void staysInFastLaneWhenSlowLaneIsFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch first = new CountDownLatch(1);
+        final CountDownLatch second = new CountDownLatch(1);
+        final CountDownLatch performed = new CountDownLatch(1);
+        final FairActions actions = new FairActions(
+            (notification, lanes) -> {
+                final Action action;
+                if(notification.issueNumber() == 1) {
+                    first.countDown();
+                    lanes.slow();
+                    action = FairActionsTestCase.blocking(release);
+                } else if(notification.issueNumber() == 2) {
+                    second.countDown();
+                    lanes.slow();
+                    action = FairActionsTestCase.blocking(release);
+                } else {
+                    lanes.slow();
+                    action = Mockito.mock(Action.class);
+                    Mockito.doAnswer(
+                        invocation -> {
+                            performed.countDown();
+                            return null;
+                        }
+                    ).when(action).perform();
+                }
+                return action;
+            },
+            1, 1, 1, 3, new HashMap<>()
+        );
+        actions.take(new SimpleNotification("amihaiemil/a", 1));
+        MatcherAssert.assertThat(
+            first.await(1, TimeUnit.SECONDS), Matchers.is(true)
+        );
+        actions.take(new SimpleNotification("amihaiemil/a", 2));
+        MatcherAssert.assertThat(
+            second.await(1, TimeUnit.SECONDS), Matchers.is(true)
+        );
+        actions.take(new SimpleNotification("amihaiemil/a", 3));
+        MatcherAssert.assertThat(
+            performed.await(1, TimeUnit.SECONDS), Matchers.is(true)
+        );
+        release.countDown();
+        actions.close();
+    }
+
+    /**
+     * FairActions, when drained, waits for the running Actions only until
+     * the deadline, forgets the waiting ones and rejects new ones.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void drainsUntilDeadline() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final Action waiting = Mockito.mock(Action.class);
+        final FairActions actions = new FairActions(
+            (notification, lanes) -> {
+                final Action action;
+                if(notification.issueNumber() == 1) {
+                    started.countDown();
+                    action = FairActionsTestCase.blocking(release);
+                } else {
+                    action = waiting;
+                }
+                return action;
+            },
+            1, 1, 10, 2, new HashMap<>()
+        );
+        actions.take(new SimpleNotification("amihaiemil/a", 1));
+        MatcherAssert.assertThat(
+            started.await(1, TimeUnit.SECONDS), Matchers.is(true)
+        );
+        actions.take(new SimpleNotification("amihaiemil/a", 2));
+        MatcherAssert.assertThat(
+            actions.drain(Duration.ofMillis(100)), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            actions.take(new SimpleNotification("amihaiemil/a", 3)),
+            Matchers.is(false)
+        );
+        release.countDown();
+        MatcherAssert.assertThat(
+            actions.drain(Duration.ofSeconds(1)), Matchers.is(true)
+        );
+        Mockito.verify(waiting, Mockito.never()).perform();
+    }
+
+    /**
+     * An Action which waits for the latch.
+     * @param release Latch.
+     * @return Action.
+     * @throws IOException If something goes wrong.
+     */
+    private static Action blocking(final CountDownLatch release)
+        throws IOException {
+        final Action action = Mockito.mock(Action.class);
+        Mockito.doAnswer(
+            invocation -> {
+                release.await();
+                return null;
+            }
+        ).when(action).perform();
+        return action;
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.Action;
+import co.comdor.rest.model.Notification;
+import co.comdor.rest.model.SimpleNotification;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link Journal}, {@link JournaledActions} and
+ * {@link JournaledReaction}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class JournalTestCase {
+
+    /**
+     * Temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Journal remembers the unfinished notifications after a restart.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void remembersUnfinished() throws Exception {
+        final Path file = this.folder.getRoot().toPath()
+            .resolve("journal").resolve("notifications.journal");
+        final Journal first = new Journal(file, 100);
+        final Notification done = new SimpleNotification("amihaiemil/a", 1);
+        first.append(done);
+        first.append(new SimpleNotification("amihaiemil/b", 2));
+        first.done(done);
+        first.close();
+        final Journal second = new Journal(file, 100);
+        MatcherAssert.assertThat(second.unfinished().size(), Matchers.is(1));
+        final Notification unfinished = second.unfinished().get(0);
+        MatcherAssert.assertThat(
+            unfinished.repoFullName(), Matchers.equalTo("amihaiemil/b")
+        );
+        MatcherAssert.assertThat(unfinished.issueNumber(), Matchers.is(2));
+        MatcherAssert.assertThat(
+            "Journal was not compacted on startup!",
+            Files.readAllLines(file).size(), Matchers.is(1)
+        );
+        second.done(unfinished);
+        second.close();
+        MatcherAssert.assertThat(
+            new Journal(file, 100).unfinished(), Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * Journal skips a torn last line, left by a crash while writing it.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void skipsTornLine() throws Exception {
+        final Path file = this.folder.getRoot().toPath().resolve("t.journal");
+        final Journal first = new Journal(file, 100);
+        first.append(new SimpleNotification("amihaiemil/a", 1));
+        first.close();
+        Files.write(
+            file, "A\t2\t{\"repoFullName\":\"amih".getBytes(),
+            StandardOpenOption.APPEND
+        );
+        final Journal second = new Journal(file, 100);
+        MatcherAssert.assertThat(second.unfinished().size(), Matchers.is(1));
+        MatcherAssert.assertThat(
+            second.unfinished().get(0).issueNumber(), Matchers.is(1)
+        );
+        second.close();
+    }
+
+    /**
+     * Journal compacts the file after a number of lines.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void compacts() throws Exception {
+        final Path file = this.folder.getRoot().toPath().resolve("j.journal");
+        final Journal journal = new Journal(file, 4);
+        for(int idx = 0; idx < 20; ++idx) {
+            final Notification notification = new SimpleNotification(
+                "amihaiemil/a", idx
+            );
+            journal.append(notification);
+            journal.done(notification);
+        }
+        journal.append(new SimpleNotification("amihaiemil/a", 99));
+        journal.close();
+        MatcherAssert.assertThat(
+            Files.readAllLines(file).size(), Matchers.lessThan(10)
+        );
+        MatcherAssert.assertThat(
+            new Journal(file, 4).unfinished().get(0).issueNumber(),
+            Matchers.is(99)
+        );
+    }
+
+    /**
+     * JournaledActions and JournaledReaction record the notification and
+     * mark it done after the Action is performed.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void marksDoneAfterAction() throws Exception {
+        final Path file = this.folder.getRoot().toPath().resolve("a.journal");
+        final Journal journal = new Journal(file, 100);
+        final Action action = Mockito.mock(Action.class);
+        final Reaction journaled = new JournaledReaction(
+            (notification, lanes) -> action, journal
+        );
+        final CountDownLatch finished = new CountDownLatch(1);
+        final BoundedActions workers = new BoundedActions(
+            (notification, lanes) -> {
+                final Action done = journaled.react(notification, lanes);
+                final Action counted = Mockito.mock(Action.class);
+                Mockito.doAnswer(
+                    invocation -> {
+                        done.perform();
+                        finished.countDown();
+                        return null;
+                    }
+                ).when(counted).perform();
+                return counted;
+            }, 1, 1
+        );
+        final JournaledActions actions = new JournaledActions(
+            workers, journal
+        );
+        MatcherAssert.assertThat(
+            actions.take(new SimpleNotification("amihaiemil/a", 1)),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            finished.await(1, TimeUnit.SECONDS), Matchers.is(true)
+        );
+        Mockito.verify(action).perform();
+        workers.close();
+        actions.close();
+        journal.close();
+        MatcherAssert.assertThat(
+            new Journal(file, 100).unfinished(), Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * JournaledActions replays the unfinished notifications.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void replaysUnfinished() throws Exception {
+        final Path file = this.folder.getRoot().toPath().resolve("r.journal");
+        final Journal first = new Journal(file, 100);
+        first.append(new SimpleNotification("amihaiemil/a", 1));
+        first.close();
+        final Actions origin = Mockito.mock(Actions.class);
+        Mockito.when(origin.take(Mockito.any(Notification.class)))
+            .thenReturn(false, true);
+        final Journal second = new Journal(file, 100);
+        final JournaledActions actions = new JournaledActions(origin, second);
+        actions.replay(10);
+        Mockito.verify(origin, Mockito.timeout(1000).times(2))
+            .take(second.unfinished().get(0));
+        actions.close();
+        second.close();
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.Action;
+import co.comdor.Lanes;
+import co.comdor.github.Credentials;
+import co.comdor.github.RateLimit;
+import co.comdor.rest.model.Notification;
+import com.jcabi.github.Github;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link PacedReaction}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class PacedReactionTestCase {
+
+    /**
+     * PacedReaction postpones the Action while the rate limit is under the
+     * reserve: its notification is taken again later, without holding the
+     * worker.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void postponesUnderReserve() throws Exception {
+        final Notification notification = PacedReactionTestCase.mention();
+        final Lanes lanes = Mockito.mock(Lanes.class);
+        final RateLimit limit = new RateLimit();
+        limit.update(5, System.currentTimeMillis() / 1000L + 3600L);
+        final Reaction origin = Mockito.mock(Reaction.class);
+        final Actions actions = Mockito.mock(Actions.class);
+        final ScheduledExecutorService scheduler = Mockito.mock(
+            ScheduledExecutorService.class
+        );
+        new PacedReaction(
+            chosen -> origin,
+            new Credentials.Single(Mockito.mock(Github.class), limit),
+            10, actions, scheduler
+        ).react(notification, lanes).perform();
+        Mockito.verify(origin, Mockito.never()).react(notification, lanes);
+        final ArgumentCaptor<Runnable> later = ArgumentCaptor.forClass(
+            Runnable.class
+        );
+        final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(
+            Long.class
+        );
+        Mockito.verify(scheduler).schedule(
+            later.capture(), delay.capture(),
+            Mockito.eq(TimeUnit.MILLISECONDS)
+        );
+        MatcherAssert.assertThat(
+            delay.getValue(), Matchers.greaterThan(3500000L)
+        );
+        Mockito.verify(actions, Mockito.never()).take(notification);
+        later.getValue().run();
+        Mockito.verify(actions).take(notification);
+    }
+
+    /**
+     * PacedReaction postpones the Action only once by the spread interval,
+     * when the rate limit is getting low.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void spreadsOnce() throws Exception {
+        final Notification notification = PacedReactionTestCase.mention();
+        final Lanes lanes = Mockito.mock(Lanes.class);
+        final RateLimit limit = new RateLimit();
+        limit.update(15, System.currentTimeMillis() / 1000L + 3600L);
+        final Action action = Mockito.mock(Action.class);
+        final Reaction origin = Mockito.mock(Reaction.class);
+        Mockito.when(origin.react(notification, lanes)).thenReturn(action);
+        final ScheduledExecutorService scheduler = Mockito.mock(
+            ScheduledExecutorService.class
+        );
+        final Reaction paced = new PacedReaction(
+            chosen -> origin,
+            new Credentials.Single(Mockito.mock(Github.class), limit),
+            10, Mockito.mock(Actions.class), scheduler
+        );
+        final Action postponed = paced.react(notification, lanes);
+        MatcherAssert.assertThat(postponed, Matchers.not(action));
+        postponed.perform();
+        Mockito.verify(scheduler).schedule(
+            Mockito.any(Runnable.class), Mockito.anyLong(),
+            Mockito.eq(TimeUnit.MILLISECONDS)
+        );
+        MatcherAssert.assertThat(
+            paced.react(notification, lanes), Matchers.is(action)
+        );
+    }
+
+    /**
+     * PacedReaction goes on right away if there are enough requests left.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void goesOnWithEnoughRequests() throws Exception {
+        final Notification notification = PacedReactionTestCase.mention();
+        final Lanes lanes = Mockito.mock(Lanes.class);
+        final RateLimit limit = new RateLimit();
+        limit.update(100, System.currentTimeMillis() / 1000L + 3600L);
+        final Action action = Mockito.mock(Action.class);
+        final Reaction origin = Mockito.mock(Reaction.class);
+        Mockito.when(origin.react(notification, lanes)).thenReturn(action);
+        final ScheduledExecutorService scheduler = Mockito.mock(
+            ScheduledExecutorService.class
+        );
+        MatcherAssert.assertThat(
+            new PacedReaction(
+                chosen -> origin,
+                new Credentials.Single(Mockito.mock(Github.class), limit),
+                10, Mockito.mock(Actions.class), scheduler
+            ).react(notification, lanes),
+            Matchers.is(action)
+        );
+        Mockito.verifyZeroInteractions(scheduler);
+    }
+
+    /**
+     * Mock a notification.
+     * @return Notification.
+     */
+    private static Notification mention() {
+        final Notification notification = Mockito.mock(Notification.class);
+        Mockito.when(notification.repoFullName()).thenReturn("amihaiemil/x");
+        Mockito.when(notification.issueNumber()).thenReturn(1);
+        return notification;
+    }
+}
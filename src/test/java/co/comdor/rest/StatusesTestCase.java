@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import co.comdor.Progress;
+import co.comdor.rest.model.Notification;
+import co.comdor.rest.model.SimpleNotification;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Statuses}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class StatusesTestCase {
+
+    /**
+     * Statuses follows an Action through its stages, from queued to done.
+     */
+    @Test
+    public void followsStages() {
+        final Statuses statuses = new Statuses(10);
+        final Notification notification = new SimpleNotification(
+            "amihaiemil/comdor", 1
+        );
+        statuses.queue(notification);
+        final Progress progress = statuses.start(notification);
+        MatcherAssert.assertThat(
+            statuses.status(progress.actionId()).getString("stage"),
+            Matchers.equalTo("queued")
+        );
+        progress.resolving();
+        progress.executing();
+        progress.done();
+        final JsonObject status = statuses.status(progress.actionId());
+        MatcherAssert.assertThat(
+            status.getString("stage"), Matchers.equalTo("done")
+        );
+        MatcherAssert.assertThat(
+            status.getString("repoFullName"),
+            Matchers.equalTo("amihaiemil/comdor")
+        );
+        MatcherAssert.assertThat(
+            status.getJsonArray("stages").size(), Matchers.is(4)
+        );
+        MatcherAssert.assertThat(
+            statuses.summary().getInt("done"), Matchers.is(1)
+        );
+    }
+
+    /**
+     * Statuses remembers why an Action failed.
+     */
+    @Test
+    public void remembersFailure() {
+        final Statuses statuses = new Statuses(10);
+        final Progress progress = statuses.start(
+            new SimpleNotification("amihaiemil/comdor", 2)
+        );
+        progress.resolving();
+        progress.failed("Github is down");
+        final JsonObject status = statuses.status(progress.actionId());
+        MatcherAssert.assertThat(
+            status.getString("stage"), Matchers.equalTo("failed")
+        );
+        MatcherAssert.assertThat(
+            status.getString("failure"), Matchers.equalTo("Github is down")
+        );
+    }
+
+    /**
+     * Statuses forgets notifications which were not taken and evicts
+     * the oldest Actions, once the capacity is reached.
+     */
+    @Test
+    public void forgetsAndEvicts() {
+        final Statuses statuses = new Statuses(2);
+        final Notification rejected = new SimpleNotification("a/b", 1);
+        statuses.queue(rejected);
+        statuses.forget(rejected);
+        MatcherAssert.assertThat(
+            statuses.summary().containsKey("queued"), Matchers.is(false)
+        );
+        final Progress first = statuses.start(new SimpleNotification("a/b", 2));
+        statuses.start(new SimpleNotification("a/b", 3));
+        statuses.start(new SimpleNotification("a/b", 4));
+        MatcherAssert.assertThat(
+            statuses.status(first.actionId()).isEmpty(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            statuses.summary().getInt("queued"), Matchers.is(2)
+        );
+    }
+
+    /**
+     * Statuses evicts the least recently used Action, not the oldest one.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final Statuses statuses = new Statuses(2);
+        final Progress first = statuses.start(new SimpleNotification("a/b", 1));
+        final Progress second = statuses.start(
+            new SimpleNotification("a/b", 2)
+        );
+        statuses.status(first.actionId());
+        statuses.start(new SimpleNotification("a/b", 3));
+        MatcherAssert.assertThat(
+            statuses.status(first.actionId()).isEmpty(), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            statuses.status(second.actionId()).isEmpty(), Matchers.is(true)
+        );
+    }
+
+    /**
+     * Statuses forgets a queued notification when its status is evicted,
+     * so notifications which are never started don't pile up.
+     */
+    @Test
+    public void forgetsEvictedQueuedNotifications() {
+        final Statuses statuses = new Statuses(1);
+        final Notification dropped = new SimpleNotification("a/b", 1);
+        statuses.queue(dropped);
+        statuses.queue(new SimpleNotification("a/b", 2));
+        final Progress started = statuses.start(dropped);
+        MatcherAssert.assertThat(
+            statuses.status(started.actionId()).getString("stage"),
+            Matchers.is("queued")
+        );
+        MatcherAssert.assertThat(
+            statuses.summary().getInt("queued"), Matchers.is(1)
+        );
+    }
+}
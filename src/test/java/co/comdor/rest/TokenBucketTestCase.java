@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TokenBucket}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class TokenBucketTestCase {
+
+    /**
+     * TokenBucket gives as many tokens as its capacity, then it is empty.
+     */
+    @Test
+    public void emptiesAfterCapacity() {
+        final TokenBucket bucket = new TokenBucket(3, 0.001);
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(false));
+        MatcherAssert.assertThat(bucket.level(), Matchers.lessThan(1.0));
+        MatcherAssert.assertThat(
+            bucket.retryAfter(), Matchers.greaterThan(0L)
+        );
+    }
+
+    /**
+     * TokenBucket is refilled in time, up to its capacity.
+     */
+    @Test
+    public void refills() {
+        final AtomicLong now = new AtomicLong();
+        final TokenBucket bucket = new TokenBucket(2, 100, now::get);
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(false));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+        MatcherAssert.assertThat(bucket.level(), Matchers.closeTo(0.5, 1e-9));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        MatcherAssert.assertThat(bucket.level(), Matchers.is(2.0));
+        MatcherAssert.assertThat(bucket.retryAfter(), Matchers.is(0L));
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+    }
+
+    /**
+     * TokenBucket takes back an unused token, up to its capacity.
+     */
+    @Test
+    public void takesBackToken() {
+        final TokenBucket bucket = new TokenBucket(1, 0.001);
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+        bucket.giveBack();
+        bucket.giveBack();
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(false));
+    }
+
+    /**
+     * TokenBucket waits at most an hour, even if it is never refilled.
+     */
+    @Test
+    public void clampsRetryAfter() {
+        final TokenBucket bucket = new TokenBucket(1, 0);
+        MatcherAssert.assertThat(bucket.take(), Matchers.is(true));
+        MatcherAssert.assertThat(bucket.retryAfter(), Matchers.is(3600L));
+        final TokenBucket slow = new TokenBucket(1, 1e-9);
+        MatcherAssert.assertThat(slow.take(), Matchers.is(true));
+        MatcherAssert.assertThat(slow.retryAfter(), Matchers.is(3600L));
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link WebhookFilter}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class WebhookFilterTestCase {
+
+    /**
+     * WebhookFilter accepts a new comment which mentions the bot.
+     */
+    @Test
+    public void acceptsMention() {
+        final WebhookFilter filter = new WebhookFilter("comdor");
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "created", "amihaiemil", "@Comdor hello"
+                )
+            ),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(filter.accepted(), Matchers.is(1L));
+        MatcherAssert.assertThat(filter.dropped(), Matchers.is(0L));
+    }
+
+    /**
+     * WebhookFilter drops irrelevant events: deleted comments, comments
+     * without mention and the bot's own comments.
+     */
+    @Test
+    public void dropsIrrelevant() {
+        final WebhookFilter filter = new WebhookFilter("comdor");
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "deleted", "amihaiemil", "@comdor hello"
+                )
+            ),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "created", "amihaiemil", "just a comment"
+                )
+            ),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "created", "comdor", "@comdor is here"
+                )
+            ),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            filter.relevant(Json.createObjectBuilder().build()),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(filter.accepted(), Matchers.is(0L));
+        MatcherAssert.assertThat(filter.dropped(), Matchers.is(4L));
+    }
+
+    /**
+     * WebhookFilter checks only the action type if the bot's login
+     * is unknown.
+     */
+    @Test
+    public void checksOnlyActionWithoutLogin() {
+        final WebhookFilter filter = new WebhookFilter("");
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "edited", "amihaiemil", "just a comment"
+                )
+            ),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "deleted", "amihaiemil", "@comdor hello"
+                )
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * WebhookFilter doesn't count the mention of a longer login, which
+     * starts with the bot's login.
+     */
+    @Test
+    public void dropsMentionOfLongerLogin() {
+        final WebhookFilter filter = new WebhookFilter("comdor");
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "created", "amihaiemil", "@comdorbot hello"
+                )
+            ),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "created", "amihaiemil", "@comdor-bot hello"
+                )
+            ),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            filter.relevant(
+                WebhookFilterTestCase.payload(
+                    "created", "amihaiemil", "thanks, @comdor."
+                )
+            ),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * WebhookFilter accepts a mention in a comment without author.
+     */
+    @Test
+    public void acceptsCommentWithoutUser() {
+        MatcherAssert.assertThat(
+            new WebhookFilter("comdor").relevant(
+                Json.createObjectBuilder()
+                    .add("action", "created")
+                    .add(
+                        "comment",
+                        Json.createObjectBuilder().add("body", "@comdor hi")
+                    ).build()
+            ),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * An issue_comment payload.
+     * @param action Action.
+     * @param author Author of the comment.
+     * @param body Body of the comment.
+     * @return JsonObject.
+     */
+    private static JsonObject payload(
+        final String action, final String author, final String body
+    ) {
+        return Json.createObjectBuilder()
+            .add("action", action)
+            .add(
+                "comment",
+                Json.createObjectBuilder()
+                    .add("user", Json.createObjectBuilder().add("login", author))
+                    .add("body", body)
+            ).build();
+    }
+}
@@ -92,4 +92,35 @@ public final class IssueCommentNotificationTestCase {
         MatcherAssert.assertThat(notification.issueNumber(), Matchers.is(899));
         MatcherAssert.assertThat(notification.repoFullName(), Matchers.equalTo("jeff/test"));
     }
+
+    /**
+     * A IssueCommentNotification has the comment which triggered it.
+     */
+    @Test
+    public void hasComment() {
+        final Notification notification = new IssueCommentNotification(
+            Json.createObjectBuilder()
+                .add(
+                    "comment",
+                    Json.createObjectBuilder().add("id", 123).build()
+                )
+                .build()
+        );
+        MatcherAssert.assertThat(
+            notification.comment().getInt("id"), Matchers.is(123)
+        );
+    }
+
+    /**
+     * A IssueCommentNotification without comment returns an empty one.
+     */
+    @Test
+    public void hasEmptyComment() {
+        final Notification notification = new IssueCommentNotification(
+            Json.createObjectBuilder().build()
+        );
+        MatcherAssert.assertThat(
+            notification.comment().isEmpty(), Matchers.is(true)
+        );
+    }
 }
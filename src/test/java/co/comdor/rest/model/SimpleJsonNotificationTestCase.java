@@ -76,4 +76,35 @@ public final class SimpleJsonNotificationTestCase {
         MatcherAssert.assertThat(notification.issueNumber(), Matchers.is(899));
         MatcherAssert.assertThat(notification.repoFullName(), Matchers.equalTo("jeff/test"));
     }
+
+    /**
+     * A SimpleJsonNotification has the comment which triggered it.
+     */
+    @Test
+    public void hasComment() {
+        final Notification notification = new SimpleJsonNotification(
+            Json.createObjectBuilder()
+                .add(
+                    "comment",
+                    Json.createObjectBuilder().add("id", 123).build()
+                )
+                .build()
+        );
+        MatcherAssert.assertThat(
+            notification.comment().getInt("id"), Matchers.is(123)
+        );
+    }
+
+    /**
+     * A SimpleJsonNotification without comment returns an empty one.
+     */
+    @Test
+    public void hasEmptyComment() {
+        final Notification notification = new SimpleJsonNotification(
+            Json.createObjectBuilder().build()
+        );
+        MatcherAssert.assertThat(
+            notification.comment().isEmpty(), Matchers.is(true)
+        );
+    }
 }
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2017, Mihai Emil Andronache
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1)Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2)Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 3)Neither the name of comdor nor the names of its
+ * contributors may be used to endorse or promote products derived from
+ * this software without specific prior written permission.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package co.comdor.rest.model;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.json.stream.JsonParsingException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StreamedNotifications}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.3
+ */
+public final class StreamedNotificationsTestCase {
+
+    /**
+     * StreamedNotifications reads all the notifications, skipping the
+     * attributes it doesn't need.
+     */
+    @Test
+    public void readsAll() {
+        final List<String> read = new ArrayList<>();
+        for(final Notification notification : new StreamedNotifications(
+            StreamedNotificationsTestCase.stream(
+                "[{\"repoFullName\":\"jeff/test\",\"issueNumber\":123},"
+                + "{\"extra\":{\"repoFullName\":\"no/no\",\"x\":[1, {}]},"
+                + "\"issueNumber\":458,\"repoFullName\":\"mary/tesla\"}]"
+            )
+        )) {
+            read.add(
+                notification.repoFullName() + "#" + notification.issueNumber()
+            );
+            MatcherAssert.assertThat(
+                notification.comment().isEmpty(), Matchers.is(true)
+            );
+        }
+        MatcherAssert.assertThat(
+            read, Matchers.contains("jeff/test#123", "mary/tesla#458")
+        );
+    }
+
+    /**
+     * StreamedNotifications can read an empty array.
+     */
+    @Test
+    public void readsEmptyArray() {
+        MatcherAssert.assertThat(
+            new StreamedNotifications(
+                StreamedNotificationsTestCase.stream("[]")
+            ).iterator().hasNext(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * StreamedNotifications parses lazily: the notifications before
+     * an error are still read.
+     */
+    @Test
+    public void parsesLazily() {
+        final Iterator<Notification> notifications = new StreamedNotifications(
+            StreamedNotificationsTestCase.stream(
+                "[{\"repoFullName\":\"jeff/test\",\"issueNumber\":1}, {\"r"
+            )
+        ).iterator();
+        MatcherAssert.assertThat(
+            notifications.next().repoFullName(), Matchers.equalTo("jeff/test")
+        );
+        try {
+            notifications.next();
+            MatcherAssert.assertThat("Exception expected!", false);
+        } catch (final JsonParsingException ex) {
+            MatcherAssert.assertThat(ex.getMessage(), Matchers.notNullValue());
+        }
+    }
+
+    /**
+     * StreamedNotifications complains if the Json is not an array.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void complainsAboutNonArray() {
+        new StreamedNotifications(
+            StreamedNotificationsTestCase.stream("\"notifications\"")
+        ).iterator().hasNext();
+    }
+
+    /**
+     * StreamedNotifications complains if the Json is a single object,
+     * not an array.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void complainsAboutTopLevelObject() {
+        new StreamedNotifications(
+            StreamedNotificationsTestCase.stream(
+                "{\"repoFullName\":\"jeff/test\",\"issueNumber\":1}"
+            )
+        ).iterator().hasNext();
+    }
+
+    /**
+     * StreamedNotifications complains about a value of the wrong type,
+     * with a JsonException, not an IllegalStateException.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void complainsAboutWrongTypes() {
+        new StreamedNotifications(
+            StreamedNotificationsTestCase.stream(
+                "[{\"repoFullName\":\"jeff/test\",\"issueNumber\":\"12\"}]"
+            )
+        ).iterator().hasNext();
+    }
+
+    /**
+     * StreamedNotifications complains about a notification without
+     * issueNumber.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void complainsAboutMissingIssueNumber() {
+        new StreamedNotifications(
+            StreamedNotificationsTestCase.stream(
+                "[{\"repoFullName\":\"jeff/test\"}]"
+            )
+        ).iterator().hasNext();
+    }
+
+    /**
+     * StreamedNotifications complains about anything else than objects,
+     * in the array.
+     */
+    @Test(expected = JsonParsingException.class)
+    public void complainsAboutNestedArray() {
+        new StreamedNotifications(
+            StreamedNotificationsTestCase.stream("[[]]")
+        ).iterator().hasNext();
+    }
+
+    /**
+     * Stream from a String.
+     * @param json Json.
+     * @return ByteArrayInputStream.
+     */
+    private static ByteArrayInputStream stream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}